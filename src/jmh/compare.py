@@ -0,0 +1,91 @@
+#!/usr/bin/env python3
+"""Compare two JMH result files and fail if a benchmark regressed.
+
+Usage:
+    src/jmh/compare.py BASELINE RESULT [--threshold PERCENT] [--allocation-threshold BYTES]
+
+Both files are written by JMH with -rf json, e.g. by
+    mvn -P jmh test-compile exec:exec
+which writes target/jmh-result.json. The checked-in baseline is src/jmh/baseline.json.
+
+A benchmark regressed if its score got worse by more than the threshold (10% by default),
+taking into account whether higher scores are better (throughput) or worse (average time),
+or if it allocates more than the allocation threshold (16 bytes by default) per operation more
+than before. Allocation is only compared if both runs used the gc profiler (-prof gc).
+
+Exits with 1 if any benchmark regressed, so it can gate a release.
+"""
+import argparse
+import json
+import sys
+
+ALLOCATION_METRIC = "gc.alloc.rate.norm"
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path) as file:
+        return {key_of(result): result for result in json.load(file)}
+
+
+def key_of(result):
+    params = result.get("params") or {}
+    described = ",".join("%s=%s" % (name, params[name]) for name in sorted(params))
+    return "%s(%s)" % (result["benchmark"].replace("com.capgemini.pvonnieb.benchmark.", ""), described)
+
+
+def allocation_of(result):
+    metric = (result.get("secondaryMetrics") or {}).get(ALLOCATION_METRIC)
+    return None if metric is None else metric["score"]
+
+
+def compare(baseline, current, threshold, allocation_threshold):
+    regressions = []
+    print("%-70s %14s %14s %-6s %8s %14s" % ("Benchmark", "Baseline", "Current", "Unit", "Change", "Alloc B/op"))
+    for key in sorted(set(baseline) | set(current)):
+        if key not in baseline or key not in current:
+            print("%-70s %s" % (key, "only in baseline" if key in baseline else "new"))
+            continue
+        before, after = baseline[key], current[key]
+        unit = after["primaryMetric"]["scoreUnit"]
+        old_score = before["primaryMetric"]["score"]
+        new_score = after["primaryMetric"]["score"]
+        change = (new_score - old_score) / old_score * 100 if old_score else 0.0
+        worse = -change if after["mode"] in HIGHER_IS_BETTER else change
+        old_allocation, new_allocation = allocation_of(before), allocation_of(after)
+        allocation = ""
+        if old_allocation is not None and new_allocation is not None:
+            allocation = "%.0f -> %.0f" % (old_allocation, new_allocation)
+        marks = []
+        if worse > threshold:
+            marks.append("SLOWER")
+        if allocation and new_allocation - old_allocation > allocation_threshold:
+            marks.append("ALLOCATES MORE")
+        print("%-70s %14.3f %14.3f %-6s %+7.1f%% %14s %s"
+              % (key, old_score, new_score, unit, change, allocation, " ".join(marks)))
+        if marks:
+            regressions.append(key)
+    return regressions
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compare two JMH result files.")
+    parser.add_argument("baseline")
+    parser.add_argument("result")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="tolerated slowdown in percent (default 10)")
+    parser.add_argument("--allocation-threshold", type=float, default=16.0,
+                        help="tolerated extra allocation in bytes per operation (default 16)")
+    arguments = parser.parse_args()
+
+    regressions = compare(load(arguments.baseline), load(arguments.result),
+                          arguments.threshold, arguments.allocation_threshold)
+    if regressions:
+        print("\n%d benchmark(s) regressed: %s" % (len(regressions), ", ".join(regressions)))
+        return 1
+    print("\nNo regressions.")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
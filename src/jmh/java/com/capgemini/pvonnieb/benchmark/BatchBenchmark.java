@@ -0,0 +1,66 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.ArgsBatch;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bulk parsing throughput of batches of 100,000 vectors, a quarter of them invalid, in vectors per second,
+ * at a parallelism of 1, 4 and the number of cores (a parallelism of 0).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+    private static final int VECTOR_COUNT = 100_000;
+
+    @Param({"1", "4", "0"})
+    public int parallelism;
+
+    private ArgsSchema schema;
+    private List<String[]> vectors;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void createVectors() throws ArgsException {
+        schema = ArgsSchema.compile("l, p#, d*, v##, a, b, c");
+        vectors = new ArrayList<>(VECTOR_COUNT);
+        for (int i = 0; i < VECTOR_COUNT; i++) {
+            String port = i % 4 == 0 ? "port" + i : Integer.toString(i);
+            vectors.add(new String[]{"-lab", "-p", port, "-d", "/var/tmp/" + i, "-v", "1.5"});
+        }
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VECTOR_COUNT)
+    public long parseAll() {
+        return ArgsBatch.parseAll(schema, vectors, pool).getInvalidCount();
+    }
+}
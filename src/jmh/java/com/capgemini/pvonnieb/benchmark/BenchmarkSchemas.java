@@ -0,0 +1,87 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The schemas and argument vectors the benchmarks share.
+ */
+final class BenchmarkSchemas {
+    static final String IDS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String[] TYPE_SUFFIXES = {"", "#", "##", "*"};
+
+    static final String[] SMALL_ELEMENTS = {"l", "p#", "d*", "v##"};
+    static final String SMALL = String.join(", ", SMALL_ELEMENTS);
+    static final String[] TYPICAL_ARGS = {"-l", "-p", "3002", "-d", "/var/tmp/", "-v", "1.5"};
+    static final String TYPICAL_COMMAND_LINE = "-l -p 3002 -d '/var/my tmp/' -v 1.5";
+
+    /**
+     * All 52 ASCII letters, cycling through the boolean, integer, double and string types.
+     */
+    static final String[] WIDE_ELEMENTS = new String[IDS.length()];
+    static final String WIDE;
+    /**
+     * Every option of the wide schema as a token of its own, followed by its parameter if it takes one.
+     */
+    static final String[] WORST_CASE_ARGS;
+    static final String[] WIDE_FLAG_GROUP;
+
+    static {
+        for (int i = 0; i < IDS.length(); i++) {
+            WIDE_ELEMENTS[i] = IDS.charAt(i) + TYPE_SUFFIXES[i % TYPE_SUFFIXES.length];
+        }
+        WIDE = String.join(", ", WIDE_ELEMENTS);
+        String[] parameters = {null, "-42", "2.5e-3", "some value"};
+        List<String> worstCase = new ArrayList<>();
+        StringBuilder flags = new StringBuilder("-");
+        for (int i = 0; i < IDS.length(); i++) {
+            worstCase.add("-" + IDS.charAt(i));
+            String parameter = parameters[i % parameters.length];
+            if (parameter != null) {
+                worstCase.add(parameter);
+            } else {
+                flags.append(IDS.charAt(i));
+            }
+        }
+        WORST_CASE_ARGS = worstCase.toArray(new String[0]);
+        WIDE_FLAG_GROUP = new String[]{flags.toString()};
+    }
+
+    /**
+     * Number of distinct spellings per schema, enough to never hit the schema cache when used in turn.
+     */
+    static final int SPELLINGS = 1024;
+
+    private BenchmarkSchemas() {
+    }
+
+    /**
+     * The digits of the variant in base 4 decide how many spaces precede and follow each separator,
+     * giving distinct schema strings that all compile to the same schema.
+     */
+    static String spellingOf(String[] elements, int variant) {
+        StringBuilder schema = new StringBuilder(elements[0]);
+        for (int i = 1; i < elements.length; i++) {
+            appendSpaces(schema, variant & 3);
+            schema.append(',');
+            appendSpaces(schema, (variant >>> 2) & 3);
+            variant >>>= 4;
+            schema.append(elements[i]);
+        }
+        return schema.toString();
+    }
+
+    private static void appendSpaces(StringBuilder schema, int spaces) {
+        for (int i = 0; i < spaces; i++) {
+            schema.append(' ');
+        }
+    }
+
+    static String[] spellingsOf(String[] elements) {
+        String[] spellings = new String[SPELLINGS];
+        for (int i = 0; i < spellings.length; i++) {
+            spellings[i] = spellingOf(elements, i);
+        }
+        return spellings;
+    }
+}
@@ -0,0 +1,106 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.Args;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.ParseResult;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the path of each {@link ErrorCode}, both thrown by the {@link Args} constructor
+ * and collected by {@link Args#tryParse(ArgsSchema, String[])}.
+ * The schema errors are thrown by {@link ArgsSchema#compile(String)} either way.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ErrorPathBenchmark {
+    private static final String SCHEMA = "b, d#, s*, x##";
+
+    @Param({"UNEXPECTED_ARGUMENT", "INVALID_ARGUMENT_NAME", "INVALID_FORMAT", "MISSING_STRING",
+            "MISSING_INTEGER", "INVALID_INTEGER", "MISSING_DOUBLE", "INVALID_DOUBLE"})
+    public ErrorCode errorCode;
+
+    private String schema;
+    private String[] args;
+
+    @Setup
+    public void chooseInput() {
+        schema = SCHEMA;
+        args = new String[]{"-b"};
+        switch (errorCode) {
+            case UNEXPECTED_ARGUMENT:
+                args = new String[]{"-b", "-q"};
+                break;
+            case INVALID_ARGUMENT_NAME:
+                schema = "b, 1";
+                break;
+            case INVALID_FORMAT:
+                schema = "b, d~";
+                break;
+            case MISSING_STRING:
+                args = new String[]{"-b", "-s"};
+                break;
+            case MISSING_INTEGER:
+                args = new String[]{"-b", "-d"};
+                break;
+            case INVALID_INTEGER:
+                args = new String[]{"-b", "-d", "30o2"};
+                break;
+            case MISSING_DOUBLE:
+                args = new String[]{"-b", "-x"};
+                break;
+            case INVALID_DOUBLE:
+                args = new String[]{"-b", "-x", "1.5.0"};
+                break;
+            default:
+                throw new IllegalArgumentException("No input for " + errorCode);
+        }
+    }
+
+    @Benchmark
+    public ErrorCode thrown() {
+        try {
+            new Args(schema, args);
+            throw new IllegalStateException("No error for " + errorCode);
+        } catch (ArgsException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    @Benchmark
+    public ErrorCode collected() {
+        try {
+            ParseResult result = Args.tryParse(ArgsSchema.compile(schema), args);
+            return result.getErrors().get(0).getErrorCode();
+        } catch (ArgsException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    @Benchmark
+    public String thrownWithMessage() {
+        try {
+            new Args(schema, args);
+            throw new IllegalStateException("No error for " + errorCode);
+        } catch (ArgsException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.Args;
+import com.capgemini.pvonnieb.ArgsParser;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares filling an options object with the parser generated for it against interpreting the schema
+ * with {@link Args} or a reused {@link ArgsParser} and copying the values out through the getters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratedParserBenchmark {
+    private ArgsSchema schema;
+    private ArgsParser parser;
+    private final TypicalOptions reusedOptions = new TypicalOptions();
+
+    @Setup
+    public void compileSchema() throws ArgsException {
+        schema = ArgsSchema.compile(TypicalOptionsParser.SCHEMA);
+        parser = new ArgsParser(schema);
+    }
+
+    @Benchmark
+    public TypicalOptions generated() throws ArgsException {
+        return TypicalOptionsParser.parse(BenchmarkSchemas.TYPICAL_ARGS);
+    }
+
+    @Benchmark
+    public TypicalOptions generatedIntoReusedOptions() throws ArgsException {
+        TypicalOptionsParser.parseInto(reusedOptions, BenchmarkSchemas.TYPICAL_ARGS);
+        return reusedOptions;
+    }
+
+    @Benchmark
+    public TypicalOptions interpreted() throws ArgsException {
+        Args args = new Args(schema, BenchmarkSchemas.TYPICAL_ARGS);
+        TypicalOptions options = new TypicalOptions();
+        options.logging = args.getBoolean('l');
+        options.port = args.getInt('p');
+        options.directory = args.getString('d');
+        options.version = args.getDouble('v');
+        return options;
+    }
+
+    @Benchmark
+    public TypicalOptions interpretedWithReusedParser() throws ArgsException {
+        parser.parse(BenchmarkSchemas.TYPICAL_ARGS);
+        reusedOptions.logging = parser.getBoolean('l');
+        reusedOptions.port = parser.getInt('p');
+        reusedOptions.directory = parser.getString('d');
+        reusedOptions.version = parser.getDouble('v');
+        return reusedOptions;
+    }
+}
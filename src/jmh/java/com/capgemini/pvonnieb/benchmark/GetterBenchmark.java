@@ -0,0 +1,87 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.Args;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.ConversionMode;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the getters on parsed {@link Args}, per type, for undeclared ids,
+ * and across all 52 options of the wide schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GetterBenchmark {
+    private Args typical;
+    private Args lazy;
+    private Args wide;
+
+    @Setup
+    public void parse() throws ArgsException {
+        ArgsSchema small = ArgsSchema.compile(BenchmarkSchemas.SMALL);
+        typical = new Args(small, BenchmarkSchemas.TYPICAL_ARGS);
+        lazy = new Args(small, BenchmarkSchemas.TYPICAL_ARGS, ConversionMode.LAZY);
+        wide = new Args(ArgsSchema.compile(BenchmarkSchemas.WIDE), BenchmarkSchemas.WORST_CASE_ARGS);
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return typical.getBoolean('l');
+    }
+
+    @Benchmark
+    public int getInt() {
+        return typical.getInt('p');
+    }
+
+    @Benchmark
+    public double getDouble() {
+        return typical.getDouble('v');
+    }
+
+    @Benchmark
+    public String getString() {
+        return typical.getString('d');
+    }
+
+    @Benchmark
+    public int getIntLazy() {
+        return lazy.getInt('p');
+    }
+
+    @Benchmark
+    public int getUndeclared() {
+        return typical.getInt('q');
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(52)
+    public double getAllOfWide() {
+        String ids = BenchmarkSchemas.IDS;
+        double checksum = 0;
+        for (int i = 0; i < ids.length(); i += 4) {
+            checksum += wide.getBoolean(ids.charAt(i)) ? 1 : 0;
+            checksum += wide.getInt(ids.charAt(i + 1));
+            checksum += wide.getDouble(ids.charAt(i + 2));
+            checksum += wide.getString(ids.charAt(i + 3)).length();
+        }
+        return checksum;
+    }
+}
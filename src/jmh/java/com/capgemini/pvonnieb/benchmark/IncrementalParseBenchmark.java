@@ -0,0 +1,79 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.ArgsParser;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.IncrementalParser;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of a keystroke in an interactive console on a long command line: typing or deleting the last
+ * digit of a port in the middle of the line, which turns the port into an invalid one and back, then listing the
+ * completions at the end of the line. The incremental parser only parses the edited token again, where the full
+ * parse goes through the whole line for every keystroke.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IncrementalParseBenchmark {
+    private static final String[] PORT_SPELLINGS = {"3002", "3002x"};
+
+    @Param({"70", "700"})
+    public int tokens;
+
+    private String[] args;
+    private int port;
+    private int spelling;
+    private IncrementalParser incremental;
+    private ArgsParser full;
+
+    @Setup
+    public void parseLongCommandLine() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(BenchmarkSchemas.SMALL);
+        String[] typical = BenchmarkSchemas.TYPICAL_ARGS;
+        args = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            args[i] = typical[i % typical.length];
+        }
+        port = (tokens / 2) - (tokens / 2) % typical.length + 2;
+        incremental = new IncrementalParser(schema);
+        incremental.reset(args);
+        full = new ArgsParser(schema);
+    }
+
+    @Benchmark
+    public boolean incrementalKeystroke() {
+        spelling ^= 1;
+        incremental.replace(port, PORT_SPELLINGS[spelling]);
+        return incremental.isValid();
+    }
+
+    @Benchmark
+    public boolean fullReparseKeystroke() {
+        spelling ^= 1;
+        args[port] = PORT_SPELLINGS[spelling];
+        return full.tryParse(args);
+    }
+
+    @Benchmark
+    public List<String> incrementalKeystrokeAndCompletion() {
+        incrementalKeystroke();
+        return incremental.completionsAt(incremental.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.ArgsParser;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.ParseListener;
+import com.capgemini.pvonnieb.ParseMetrics;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what an installed {@link ParseMetrics} listener adds to a typical parse, compared to none.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListenerBenchmark {
+    @Param({"none", "metrics"})
+    public String listener;
+
+    private ArgsParser parser;
+    private ParseMetrics metrics;
+
+    @Setup
+    public void installListener() throws ArgsException {
+        parser = new ArgsParser(ArgsSchema.compile(BenchmarkSchemas.SMALL));
+        metrics = new ParseMetrics();
+        ParseListener.install("metrics".equals(listener) ? metrics : ParseListener.NONE);
+    }
+
+    @TearDown
+    public void uninstallListener() {
+        ParseListener.install(ParseListener.NONE);
+    }
+
+    @Benchmark
+    public int parse() throws ArgsException {
+        parser.parse(BenchmarkSchemas.TYPICAL_ARGS);
+        return parser.getInt('p');
+    }
+
+    @Benchmark
+    public Map<String, Long> snapshot() {
+        return metrics.snapshot();
+    }
+}
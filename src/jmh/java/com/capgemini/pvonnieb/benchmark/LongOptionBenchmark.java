@@ -0,0 +1,107 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.ArgsParser;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving long options, by their full names and by abbreviations, in schemas of 10 and of 1,000 options.
+ * The names all have the same length, e.g. "abc-setting", so the cost should not depend on the schema size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LongOptionBenchmark {
+    private static final String[] TYPE_SUFFIXES = {"", "#", "##", "*"};
+    private static final String[] PARAMETERS = {null, "-42", "2.5e-3", "some value"};
+    private static final int OPTIONS_GIVEN = 8;
+
+    @Param({"10", "1000"})
+    public int options;
+
+    private String[] spellings;
+    private int spelling;
+    private ArgsParser parser;
+    private String[] exactArgs;
+    private String[] abbreviatedArgs;
+    private String[] inlineArgs;
+
+    @Setup
+    public void compile() throws ArgsException {
+        String[] elements = new String[options];
+        for (int i = 0; i < options; i++) {
+            elements[i] = "--" + nameOf(i) + TYPE_SUFFIXES[i % TYPE_SUFFIXES.length];
+        }
+        spellings = BenchmarkSchemas.spellingsOf(elements);
+        parser = new ArgsParser(ArgsSchema.compile(spellings[0]));
+        exactArgs = new String[OPTIONS_GIVEN * 2];
+        abbreviatedArgs = new String[OPTIONS_GIVEN * 2];
+        inlineArgs = new String[OPTIONS_GIVEN];
+        int count = 0;
+        for (int given = 0; given < OPTIONS_GIVEN; given++) {
+            int option = given * (options - 1) / (OPTIONS_GIVEN - 1);
+            String parameter = PARAMETERS[option % PARAMETERS.length];
+            exactArgs[count] = "--" + nameOf(option);
+            abbreviatedArgs[count] = "--" + nameOf(option).substring(0, 3);
+            inlineArgs[given] = exactArgs[count] + (parameter == null ? "" : "=" + parameter);
+            count++;
+            if (parameter != null) {
+                exactArgs[count] = parameter;
+                abbreviatedArgs[count] = parameter;
+                count++;
+            }
+        }
+        exactArgs = Arrays.copyOf(exactArgs, count);
+        abbreviatedArgs = Arrays.copyOf(abbreviatedArgs, count);
+    }
+
+    /**
+     * @return three letters identifying the option, which abbreviate it, followed by a common tail
+     */
+    private static String nameOf(int option) {
+        char[] letters = new char[3];
+        for (int i = letters.length - 1; i >= 0; i--) {
+            letters[i] = (char) ('a' + option % 26);
+            option /= 26;
+        }
+        return new String(letters) + "-setting";
+    }
+
+    @Benchmark
+    public boolean parseExact() {
+        return parser.tryParse(exactArgs);
+    }
+
+    @Benchmark
+    public boolean parseAbbreviated() {
+        return parser.tryParse(abbreviatedArgs);
+    }
+
+    @Benchmark
+    public boolean parseInline() {
+        return parser.tryParse(inlineArgs);
+    }
+
+    @Benchmark
+    public ArgsSchema compileSchema() throws ArgsException {
+        spelling = (spelling + 1) % spellings.length;
+        return ArgsSchema.compile(spellings[spelling]);
+    }
+}
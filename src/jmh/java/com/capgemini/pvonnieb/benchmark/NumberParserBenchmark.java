@@ -0,0 +1,69 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.NumberParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link NumberParser} with the JDK parsers and the exception they throw on invalid input,
+ * on valid and invalid numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberParserBenchmark {
+    @Param({"true", "false"})
+    public boolean valid;
+
+    private final NumberParser numbers = new NumberParser();
+    private String integer;
+    private String decimal;
+
+    @Setup
+    public void chooseInput() {
+        integer = valid ? "3002" : "30o2";
+        decimal = valid ? "2.5e3" : "2.5e";
+    }
+
+    @Benchmark
+    public int parseInt() {
+        return numbers.parseInt(integer, 0, integer.length()) ? numbers.intValue() : -1;
+    }
+
+    @Benchmark
+    public int jdkParseInt() {
+        try {
+            return Integer.parseInt(integer);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return numbers.parseDouble(decimal, 0, decimal.length()) ? numbers.doubleValue() : -1;
+    }
+
+    @Benchmark
+    public double jdkParseDouble() {
+        try {
+            return Double.parseDouble(decimal);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.Args;
+import com.capgemini.pvonnieb.ArgsParser;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.ConversionMode;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a typical argument vector into new {@link Args} and with a reused {@link ArgsParser},
+ * from a String[] and from raw command lines, as well as the worst case of the 52-option schema:
+ * every option as a token of its own, or all flags in a single group.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+    private static final byte[] TYPICAL_UTF8_COMMAND_LINE =
+            BenchmarkSchemas.TYPICAL_COMMAND_LINE.getBytes(StandardCharsets.UTF_8);
+
+    private ArgsSchema small;
+    private ArgsSchema wide;
+    private ArgsParser smallParser;
+    private ArgsParser wideParser;
+
+    @Setup
+    public void compileSchemas() throws ArgsException {
+        small = ArgsSchema.compile(BenchmarkSchemas.SMALL);
+        wide = ArgsSchema.compile(BenchmarkSchemas.WIDE);
+        smallParser = new ArgsParser(small);
+        wideParser = new ArgsParser(wide);
+    }
+
+    @Benchmark
+    public Args typical() throws ArgsException {
+        return new Args(small, BenchmarkSchemas.TYPICAL_ARGS);
+    }
+
+    @Benchmark
+    public Args typicalLazy() throws ArgsException {
+        return new Args(small, BenchmarkSchemas.TYPICAL_ARGS, ConversionMode.LAZY);
+    }
+
+    @Benchmark
+    public int typicalReusedParser() throws ArgsException {
+        smallParser.parse(BenchmarkSchemas.TYPICAL_ARGS);
+        return smallParser.getInt('p');
+    }
+
+    @Benchmark
+    public int typicalCommandLine() throws ArgsException {
+        smallParser.parse(BenchmarkSchemas.TYPICAL_COMMAND_LINE);
+        return smallParser.getInt('p');
+    }
+
+    @Benchmark
+    public int typicalUtf8CommandLine() throws ArgsException {
+        smallParser.parse(TYPICAL_UTF8_COMMAND_LINE);
+        return smallParser.getInt('p');
+    }
+
+    @Benchmark
+    public Args worstCase() throws ArgsException {
+        return new Args(wide, BenchmarkSchemas.WORST_CASE_ARGS);
+    }
+
+    @Benchmark
+    public int worstCaseReusedParser() throws ArgsException {
+        wideParser.parse(BenchmarkSchemas.WORST_CASE_ARGS);
+        return wideParser.getInt('b');
+    }
+
+    @Benchmark
+    public boolean flagGroupReusedParser() throws ArgsException {
+        wideParser.parse(BenchmarkSchemas.WIDE_FLAG_GROUP);
+        return wideParser.getBoolean('W');
+    }
+}
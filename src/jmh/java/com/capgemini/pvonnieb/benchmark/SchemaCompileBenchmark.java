@@ -0,0 +1,77 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.Args;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compiling the small and the 52-option schema, both from scratch and from the schema cache,
+ * and what a precompiled schema saves when parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchemaCompileBenchmark {
+    private String[] smallSpellings;
+    private String[] wideSpellings;
+    private ArgsSchema small;
+    private int next;
+
+    @Setup
+    public void compileSchemas() throws ArgsException {
+        smallSpellings = BenchmarkSchemas.spellingsOf(BenchmarkSchemas.SMALL_ELEMENTS);
+        wideSpellings = BenchmarkSchemas.spellingsOf(BenchmarkSchemas.WIDE_ELEMENTS);
+        small = ArgsSchema.compile(BenchmarkSchemas.SMALL);
+        ArgsSchema.compile(BenchmarkSchemas.WIDE);
+    }
+
+    private String nextOf(String[] spellings) {
+        next = (next + 1) % spellings.length;
+        return spellings[next];
+    }
+
+    @Benchmark
+    public ArgsSchema compileSmall() throws ArgsException {
+        return ArgsSchema.compile(nextOf(smallSpellings));
+    }
+
+    @Benchmark
+    public ArgsSchema compileWide() throws ArgsException {
+        return ArgsSchema.compile(nextOf(wideSpellings));
+    }
+
+    @Benchmark
+    public ArgsSchema compileSmallCached() throws ArgsException {
+        return ArgsSchema.compile(BenchmarkSchemas.SMALL);
+    }
+
+    @Benchmark
+    public ArgsSchema compileWideCached() throws ArgsException {
+        return ArgsSchema.compile(BenchmarkSchemas.WIDE);
+    }
+
+    @Benchmark
+    public int parseWithSchemaString() throws ArgsException {
+        return new Args(BenchmarkSchemas.SMALL, BenchmarkSchemas.TYPICAL_ARGS).getInt('p');
+    }
+
+    @Benchmark
+    public int parseWithCompiledSchema() throws ArgsException {
+        return new Args(small, BenchmarkSchemas.TYPICAL_ARGS).getInt('p');
+    }
+}
@@ -0,0 +1,82 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.ArgsClient;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.ArgsServer;
+import com.capgemini.pvonnieb.ArgsSnapshot;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A load test of {@link ArgsServer}: 16 client threads, each with a connection of its own, send the typical
+ * command line over the loopback interface as fast as they get replies, against an in-flight limit of 1, 4 and
+ * the number of cores (a limit of 0). Sampling the round trips reports their p50 and p99 latency.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ServerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"1", "4", "0"})
+        public int maxInFlight;
+
+        ArgsServer server;
+        SocketAddress address;
+
+        @Setup
+        public void bind() throws ArgsException, IOException {
+            server = new ArgsServer(maxInFlight > 0 ? maxInFlight : Runtime.getRuntime().availableProcessors());
+            server.register("small", ArgsSchema.compile(BenchmarkSchemas.SMALL));
+            address = server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        }
+
+        @TearDown
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        ArgsClient client;
+
+        @Setup(Level.Trial)
+        public void connect(Server server) throws IOException {
+            client = ArgsClient.connect(server.address);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public ArgsSnapshot roundTrip(Client client) throws ArgsException, IOException {
+        return client.client.parse("small", BenchmarkSchemas.TYPICAL_COMMAND_LINE);
+    }
+}
@@ -0,0 +1,71 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time a short-lived command line tool takes from launching a fresh JVM to having parsed its arguments
+ * and exited, by running StartupTraining with the typical arguments in a new process per invocation.
+ * The default sharing uses the class data sharing archive of the JDK only; appcds adds the archive of the library
+ * built by the appcds profile, which has to be built first:
+ * mvn -P appcds,jmh package exec:exec -Djmh.args="StartupBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    private static final File TARGET = new File("target");
+
+    @Param({"default", "appcds"})
+    public String sharing;
+
+    private List<String> command;
+
+    @Setup
+    public void findLibrary() {
+        File[] archives = TARGET.listFiles((directory, name) -> name.endsWith(".jsa"));
+        File archive = archives == null || archives.length == 0 ? null : archives[0];
+        command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if (sharing.equals("appcds")) {
+            if (archive == null) {
+                throw new IllegalStateException("No AppCDS archive in " + TARGET.getAbsolutePath()
+                        + ", build it with mvn -P appcds package.");
+            }
+            command.add("-XX:SharedArchiveFile=" + archive.getPath());
+        }
+        String classPath = archive == null ? new File(TARGET, "classes").getPath()
+                : archive.getPath().replaceFirst("\\.jsa$", ".jar");
+        command.addAll(Arrays.asList("-cp", classPath, "com.capgemini.pvonnieb.StartupTraining"));
+        command.addAll(Arrays.asList(BenchmarkSchemas.TYPICAL_ARGS));
+    }
+
+    @Benchmark
+    public int launchAndParse() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        int status = process.waitFor();
+        if (status != 0) {
+            throw new IllegalStateException(command + " exited with status " + status + ".");
+        }
+        return status;
+    }
+}
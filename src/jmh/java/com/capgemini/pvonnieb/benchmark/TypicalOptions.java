@@ -0,0 +1,19 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.annotation.ArgsOptions;
+import com.capgemini.pvonnieb.annotation.Option;
+
+/**
+ * The options of {@link BenchmarkSchemas#SMALL}, for a parser generated at compile time.
+ */
+@ArgsOptions
+public class TypicalOptions {
+    @Option('l')
+    boolean logging;
+    @Option('p')
+    int port;
+    @Option('d')
+    String directory;
+    @Option('v')
+    double version;
+}
@@ -0,0 +1,95 @@
+package com.capgemini.pvonnieb.benchmark;
+
+import com.capgemini.pvonnieb.ArgsParser;
+import com.capgemini.pvonnieb.ArgsSchema;
+import com.capgemini.pvonnieb.ValueType;
+import com.capgemini.pvonnieb.ValueTypes;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a long, an enum, a duration and a size and reading them, declared as value types and converted
+ * while parsing, against declaring them as strings and converting the strings after the parse, as applications did
+ * before value types. The invalid variants give an enum name that does not exist, which Enum.valueOf throws for.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueTypeBenchmark {
+    private static final String[] ARGS = {"-n", "9000000000", "-l", "WARN", "-t", "PT1H30M", "-m", "67108864"};
+    private static final String[] TYPED_ARGS = {"-n", "9000000000", "-l", "WARN", "-t", "1h30m", "-m", "64m"};
+    private static final String[] INVALID_ARGS = {"-n", "9000000000", "-l", "TRACE", "-t", "PT1H30M", "-m", "1"};
+    private static final String[] TYPED_INVALID_ARGS = {"-n", "9000000000", "-l", "TRACE", "-t", "1h30m", "-m", "1"};
+
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    private static final ValueType LEVEL = ValueTypes.ofEnum(Level.class);
+
+    private ArgsParser strings;
+    private ArgsParser typed;
+
+    @Setup
+    public void compile() throws ArgsException {
+        ValueTypes.register("benchmark-level", LEVEL);
+        strings = new ArgsParser(ArgsSchema.compile("n*, l*, t*, m*"));
+        typed = new ArgsParser(ArgsSchema.compile("n<long>, l<benchmark-level>, t<duration>, m<size>"));
+    }
+
+    @Benchmark
+    public long convertStrings() {
+        return convertStrings(ARGS);
+    }
+
+    @Benchmark
+    public long convertStringsInvalid() {
+        return convertStrings(INVALID_ARGS);
+    }
+
+    private long convertStrings(String[] args) {
+        strings.tryParse(args);
+        long checksum = Long.parseLong(strings.getString('n'));
+        try {
+            checksum += Level.valueOf(strings.getString('l')).ordinal();
+        } catch (IllegalArgumentException e) {
+            checksum--;
+        }
+        checksum += Duration.parse(strings.getString('t')).toNanos();
+        return checksum + Long.parseLong(strings.getString('m'));
+    }
+
+    @Benchmark
+    public long readValueTypes() {
+        return readValueTypes(TYPED_ARGS);
+    }
+
+    @Benchmark
+    public long readValueTypesInvalid() {
+        return readValueTypes(TYPED_INVALID_ARGS);
+    }
+
+    private long readValueTypes(String[] args) {
+        typed.tryParse(args);
+        long checksum = typed.getLong('n');
+        Level level = typed.getEnum('l', Level.class);
+        checksum += level == null ? -1 : level.ordinal();
+        checksum += typed.getLong('t');
+        return checksum + typed.getLong('m');
+    }
+}
@@ -0,0 +1,140 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.RECURSIVE_ARGUMENT_FILE;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.UNREADABLE_ARGUMENT_FILE;
+
+/**
+ * Expands argument files while iterating over the arguments: a token "@file" is replaced by the tokens of that
+ * file, which may in turn name further argument files, and a token starting with "@@" stands for itself without
+ * the first '@'. Relative paths are resolved against the working directory, as the JDK tools do.
+ * <p>
+ * Each file is memory-mapped and tokenized on the fly as it is read, with the quoting rules of
+ * {@link TokenizingCursor}, so that the heap used does not grow with the size of the files.
+ * Only the cursors of the files currently open are kept, one per nesting level.
+ * <p>
+ * An argument file that cannot be read, or that names one of the files it is nested in, is reported as an
+ * error with the index the token following it gets, and contributes no tokens.
+ */
+class ArgFileCursor extends ArgumentCursor {
+    private static final char ARG_FILE_PREFIX = '@';
+
+    private final Consumer<ArgsError> errors;
+    private final List<Utf8Cursor> fileCursors = new ArrayList<>();
+    private final List<Path> openFiles = new ArrayList<>();
+    private final CharSlice unescapedToken = new CharSlice();
+    private final TokenizingCursor.TokenBuffer argumentToken = new TokenizingCursor.TokenBuffer();
+    private ArgumentCursor args;
+    private CharSequence pendingToken;
+
+    /**
+     * @param errors receives the errors found in expanding argument files, as they are found
+     */
+    ArgFileCursor(Consumer<ArgsError> errors) {
+        this.errors = errors;
+    }
+
+    void reset(ArgumentCursor args) {
+        this.args = args;
+        openFiles.clear();
+        pendingToken = null;
+        restart();
+    }
+
+    /**
+     * Reads ahead to the next token that is not an argument file, opening the files on the way.
+     * Tokens are read ahead as parameters, so that the argument token handed out last stays valid.
+     */
+    @Override
+    protected boolean hasNextToken() {
+        while (pendingToken == null) {
+            ArgumentCursor source = currentSource();
+            if (source.hasNext()) {
+                CharSequence token = source.nextParameter();
+                if (token.length() > 1 && token.charAt(0) == ARG_FILE_PREFIX) {
+                    if (token.charAt(1) == ARG_FILE_PREFIX) {
+                        pendingToken = unescapedToken.set(token, 1, token.length());
+                    } else {
+                        open(token.subSequence(1, token.length()).toString());
+                    }
+                } else {
+                    pendingToken = token;
+                }
+            } else if (openFiles.isEmpty()) {
+                return false;
+            } else {
+                openFiles.remove(openFiles.size() - 1);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected CharSequence readToken(boolean parameter) {
+        CharSequence token = pendingToken;
+        pendingToken = null;
+        return parameter ? token : copied(token);
+    }
+
+    private CharSequence copied(CharSequence token) {
+        char[] chars = argumentToken.chars(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            chars[i] = token.charAt(i);
+        }
+        return argumentToken.view.set(chars, 0, token.length());
+    }
+
+    private ArgumentCursor currentSource() {
+        return openFiles.isEmpty() ? args : fileCursors.get(openFiles.size() - 1);
+    }
+
+    private void open(String fileName) {
+        Path file;
+        MappedByteBuffer content;
+        try {
+            file = Paths.get(fileName).toRealPath();
+            if (openFiles.contains(file)) {
+                addError(fileName, RECURSIVE_ARGUMENT_FILE);
+                return;
+            }
+            content = map(file);
+        } catch (IOException | InvalidPathException e) {
+            addError(fileName, UNREADABLE_ARGUMENT_FILE);
+            return;
+        }
+        if (fileCursors.size() == openFiles.size()) {
+            fileCursors.add(new Utf8Cursor());
+        }
+        fileCursors.get(openFiles.size()).reset(content, 0, content.limit());
+        openFiles.add(file);
+    }
+
+    /**
+     * The mapping stays valid after the channel is closed, so no file is held open while it is read.
+     */
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to be mapped.");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private void addError(String fileName, ErrorCode errorCode) {
+        errors.accept(new ArgsError('\0', fileName, errorCode, position() + 1));
+    }
+}
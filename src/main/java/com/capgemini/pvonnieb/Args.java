@@ -1,15 +1,15 @@
 package com.capgemini.pvonnieb;
 
+import com.capgemini.pvonnieb.exception.ArgsError;
 import com.capgemini.pvonnieb.exception.ArgsException;
+import com.capgemini.pvonnieb.exception.UncheckedArgsException;
 
-import java.util.*;
-import java.util.stream.Collectors;
-
-import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.*;
+import java.time.Duration;
+import java.util.List;
 
 /**
  * Utility class to parse command line arguments.
- * It can parse multiple types of single letter arguments.
+ * It can parse multiple types of single letter arguments as well as long options.
  * <p>
  * Usage:
  * Args args = new Args(schema, args);
@@ -19,102 +19,117 @@ import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.*;
  * - p (integer)
  * - d (string)
  * - v (double)
+ * List arguments collect every parameter given for them, e.g. "p[#]" for "-p 1 -p 2,3":
+ * - [#] (integer list), [##] (double list), [*] (string list)
+ * Numeric list parameters may hold several comma-separated values; string list parameters are taken as given.
+ * Further types are declared by name in angle brackets, e.g. "n&lt;long&gt;, t&lt;duration&gt;, m&lt;size&gt;",
+ * see {@link ValueTypes}.
+ * Long options are declared with a leading "--", e.g. "l, --port#, --log-dir*",
+ * and given as "--port 3002", "--port=3002" or abbreviated as "--po 3002".
  * <p>
  * - and 'args' holds arguments and their parameters passed to the application (e.g. java main.java -l -p 3002 -d /var/tmp/
+ * <p>
+ * To validate arguments without exceptions, use {@link #tryParse(ArgsSchema, String[])} instead.
+ * To parse repeatedly without allocating, use an {@link ArgsParser}.
+ * <p>
+ * Args instances are immutable once constructed, so they can be shared between threads without synchronization.
  */
-public class Args {
-    private String schema;
-
-    private Set<Character> unexpectedArguments = new TreeSet<>();
-    private Map<Character, ArgumentMarshaller> marshallers = new HashMap<>();
-    private Set<Character> argsFound = new HashSet<>();
-    private Iterator<String> currentArgument;
-    private List<String> argsList;
+public final class Args {
+    private final ArgsParser parser;
 
     public Args(String schema, String[] args) throws ArgsException {
-        this.schema = schema;
-        this.argsList = Arrays.asList(args);
-        parse();
-    }
-
-    private void parse() throws ArgsException {
-        parseSchema();
-        parseArguments();
-    }
-
-    private void parseSchema() throws ArgsException {
-        for (String element : schema.split(",")) {
-            if (element.length() > 0) {
-                parseSchemaElement(element.trim());
-            }
-        }
-    }
-
-    private void parseSchemaElement(String element) throws ArgsException {
-        char elementId = element.charAt(0);
-        String elementTail = element.substring(1);
-        validateSchemaElementId(elementId);
-        if (elementTail.length() == 0) {
-            marshallers.put(elementId, new BooleanArgumentMarshaller());
-        } else if (elementTail.equals("*")) {
-            marshallers.put(elementId, new StringArgumentMarshaller());
-        } else if (elementTail.equals("#")) {
-            marshallers.put(elementId, new IntegerArgumentMarshaller());
-        } else if (elementTail.equals("##")) {
-            marshallers.put(elementId, new DoubleArgumentMarshaller());
-        } else {
-            throw new ArgsException(elementId, elementTail, INVALID_FORMAT);
-        }
-    }
-
-    private void validateSchemaElementId(char elementId) throws ArgsException {
-        if (!Character.isLetter(elementId)) {
-            throw new ArgsException(elementId, schema, INVALID_ARGUMENT_NAME);
-        }
-    }
-
-    private void parseArguments() throws ArgsException {
-        for (currentArgument = argsList.iterator(); currentArgument.hasNext(); ) {
-            String arg = currentArgument.next();
-            parseArgument(arg);
-        }
-        if (!unexpectedArguments.isEmpty()) {
-            throw new ArgsException('\0', unexpectedArguments.stream().map(Objects::toString)
-                    .collect(Collectors.joining()), UNEXPECTED_ARGUMENT);
-        }
-    }
-
-    private void parseArgument(String arg) throws ArgsException {
-        if (arg.startsWith("-")) {
-            parseElements(arg);
-        }
-    }
-
-    private void parseElements(String arg) throws ArgsException {
-        for (int i = 1; i < arg.length(); i++) {
-            parseElement(arg.charAt(i));
-        }
-    }
-
-    private void parseElement(char argChar) throws ArgsException {
-        if (setArgument(argChar)) {
-            argsFound.add(argChar);
-        } else {
-            unexpectedArguments.add(argChar);
-        }
-    }
-
-    private boolean setArgument(char argChar) throws ArgsException {
-        ArgumentMarshaller m = marshallers.get(argChar);
-        if (m == null) {
-            return false;
-        }
-        try {
-            m.set(currentArgument);
-            return true;
-        } catch (ArgsException e) {
-            throw new ArgsException(argChar, e.getErrorParameter(), e.getErrorCode());
-        }
+        this(ArgsSchema.compile(schema), args);
+    }
+
+    /**
+     * Parse arguments against a precompiled schema, skipping the schema parsing step.
+     *
+     * @param schema the compiled schema, see {@link ArgsSchema#compile(String)}
+     * @param args   the arguments passed to the application
+     */
+    public Args(ArgsSchema schema, String[] args) throws ArgsException {
+        this(schema, args, ConversionMode.STRICT);
+    }
+
+    /**
+     * Parse arguments against a precompiled schema, converting numeric parameters as specified.
+     *
+     * @param schema the compiled schema, see {@link ArgsSchema#compile(String)}
+     * @param args   the arguments passed to the application
+     * @param mode   whether numeric parameters are validated while parsing or on first read
+     */
+    public Args(ArgsSchema schema, String[] args, ConversionMode mode) throws ArgsException {
+        this.parser = new ArgsParser(schema, mode);
+        parser.parse(args);
+    }
+
+    private Args(ArgsParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Parse arguments without throwing, collecting every error found along the way.
+     * Meant for validating many argument lists, where a large share of them may be invalid.
+     *
+     * @param schema the compiled schema, see {@link ArgsSchema#compile(String)}
+     * @param args   the arguments passed to the application
+     * @return the parsed arguments along with the errors found
+     */
+    public static ParseResult tryParse(ArgsSchema schema, String[] args) {
+        return tryParse(schema, args, ConversionMode.STRICT);
+    }
+
+    /**
+     * Parse arguments without throwing, converting numeric parameters as specified.
+     *
+     * @see #tryParse(ArgsSchema, String[])
+     */
+    public static ParseResult tryParse(ArgsSchema schema, String[] args, ConversionMode mode) {
+        ArgsParser parser = new ArgsParser(schema, mode);
+        parser.tryParse(args);
+        return new ParseResult(new Args(parser));
+    }
+
+    /**
+     * Split a raw command line into arguments and parse them without throwing.
+     *
+     * @see ArgsParser#parse(CharSequence)
+     * @see #tryParse(ArgsSchema, String[])
+     */
+    public static ParseResult tryParse(ArgsSchema schema, CharSequence commandLine) {
+        ArgsParser parser = new ArgsParser(schema);
+        parser.tryParse(commandLine);
+        return new ParseResult(new Args(parser));
+    }
+
+    /**
+     * Parse arguments without throwing, expanding the argument files ("@file") among them.
+     *
+     * @see ArgsParser#parseWithArgFiles(String[])
+     * @see #tryParse(ArgsSchema, String[])
+     */
+    public static ParseResult tryParseWithArgFiles(ArgsSchema schema, String[] args) {
+        ArgsParser parser = new ArgsParser(schema);
+        parser.tryParseWithArgFiles(args);
+        return new ParseResult(new Args(parser));
+    }
+
+    static ParseResult tryParse(ArgsSchema schema, ArgumentCursor args) {
+        ArgsParser parser = new ArgsParser(schema);
+        parser.tryParse(args);
+        return new ParseResult(new Args(parser));
+    }
+
+    ArgsParser parser() {
+        return parser;
+    }
+
+    ArgsException firstError() {
+        return parser.firstError();
+    }
+
+    List<ArgsError> errors() {
+        return parser.getErrors();
     }
 
     /**
@@ -124,12 +139,7 @@ public class Args {
      * @return the value of the argument's parameter, or false if no value could be found.
      */
     public boolean getBoolean(char arg) {
-        ArgumentMarshaller am = marshallers.get(arg);
-        try {
-            return am != null && (Boolean) am.get();
-        } catch (ClassCastException e) {
-            return false;
-        }
+        return parser.getBoolean(arg);
     }
 
     /**
@@ -139,12 +149,7 @@ public class Args {
      * @return the value of the argument's parameter, or "" if no value could be found.
      */
     public String getString(char arg) {
-        ArgumentMarshaller am = marshallers.get(arg);
-        try {
-            return am == null ? "" : (String) am.get();
-        } catch (ClassCastException e) {
-            return "";
-        }
+        return parser.getString(arg);
     }
 
     /**
@@ -152,14 +157,10 @@ public class Args {
      *
      * @param arg the name of the argument
      * @return the value of the argument's parameter, or 0 if no value could be found.
+     * @throws UncheckedArgsException if the parameter, converted lazily, is not an integer
      */
     public int getInt(char arg) {
-        ArgumentMarshaller am = marshallers.get(arg);
-        try {
-            return am == null ? 0 : (Integer) am.get();
-        } catch (ClassCastException e) {
-            return 0;
-        }
+        return parser.getInt(arg);
     }
 
     /**
@@ -167,121 +168,210 @@ public class Args {
      *
      * @param arg the name of the argument
      * @return the value of the argument's parameter, or 0 if no value could be found.
+     * @throws UncheckedArgsException if the parameter, converted lazily, is not a double
      */
     public double getDouble(char arg) {
-        ArgumentMarshaller am = marshallers.get(arg);
-        return am == null ? 0 : (Double) am.get();
+        return parser.getDouble(arg);
     }
 
     /**
-     * Print a help text that shows the argument schema to the user.
+     * Obtain the value of an argument of a {@link ValueType} (n&lt;long&gt;), as converted while parsing,
+     * e.g. the number of bytes for a size or of nanoseconds for a duration.
+     *
+     * @param arg the name of the argument
+     * @return the value of the argument's parameter, or 0 if no value could be found.
      */
-    public String usage() {
-        if (schema.length() > 0) {
-            return "-[" + schema + "]";
-        } else {
-            return "";
-        }
+    public long getLong(char arg) {
+        return parser.getLong(arg);
     }
 
     /**
-     * Returns true if the given argument has been parsed by Args.
+     * Obtain the value of a duration argument (t&lt;duration&gt;).
      *
-     * @param argChar the name of the argument to check
-     * @return true if the argument was found; false otherwise
+     * @param arg the name of the argument
+     * @return the value of the argument's parameter, or a zero duration if no value could be found.
      */
-    public boolean has(char argChar) {
-        return marshallers.containsKey(argChar);
+    public Duration getDuration(char arg) {
+        return parser.getDuration(arg);
     }
 
-    private interface ArgumentMarshaller {
-
-
-        void set(Iterator<String> currentArgument) throws ArgsException;
-
-        Object get();
-
+    /**
+     * Obtain the value of an enum argument, declared with the name its type is registered under (l&lt;level&gt;).
+     *
+     * @param arg  the name of the argument
+     * @param type the class of the enum, see {@link ValueTypes#ofEnum(Class)}
+     * @return the constant given, or null if none was, or the argument is not of the enum
+     */
+    public <E extends Enum<E>> E getEnum(char arg, Class<E> type) {
+        return parser.getEnum(arg, type);
     }
 
-    private static class BooleanArgumentMarshaller implements ArgumentMarshaller {
+    /**
+     * Obtain the values of an Integer list argument (p[#]), in the order they were given.
+     *
+     * @param arg the name of the argument
+     * @return a read-only view of the values, empty if none were given
+     */
+    public IntList getIntList(char arg) {
+        return parser.getIntList(arg);
+    }
 
-        private boolean booleanValue = false;
+    /**
+     * Obtain the values of a Double list argument (r[##]), in the order they were given.
+     *
+     * @param arg the name of the argument
+     * @return a read-only view of the values, empty if none were given
+     */
+    public DoubleList getDoubleList(char arg) {
+        return parser.getDoubleList(arg);
+    }
 
-        @Override
-        public void set(Iterator<String> currentArgument) {
-            booleanValue = true;
-        }
+    /**
+     * Obtain the values of a String list argument (i[*]), in the order they were given.
+     *
+     * @param arg the name of the argument
+     * @return a read-only view of the values, empty if none were given
+     */
+    public List<String> getStringList(char arg) {
+        return parser.getStringList(arg);
+    }
 
-        @Override
-        public Object get() {
-            return booleanValue;
-        }
+    /**
+     * Obtain the value of a Boolean argument by its name, e.g. "verbose" for --verbose.
+     *
+     * @param name the name of the argument, a single letter for a short option
+     * @return the value of the argument's parameter, or false if no value could be found.
+     */
+    public boolean getBoolean(String name) {
+        return parser.getBoolean(name);
+    }
 
+    /**
+     * Obtain the value of a String argument by its name.
+     *
+     * @see #getBoolean(String)
+     */
+    public String getString(String name) {
+        return parser.getString(name);
     }
 
-    private static class IntegerArgumentMarshaller implements ArgumentMarshaller {
+    /**
+     * Obtain the value of an Integer argument by its name.
+     *
+     * @throws UncheckedArgsException if the parameter, converted lazily, is not an integer
+     * @see #getBoolean(String)
+     */
+    public int getInt(String name) {
+        return parser.getInt(name);
+    }
 
-        private int integerValue = 0;
+    /**
+     * Obtain the value of a Double argument by its name.
+     *
+     * @throws UncheckedArgsException if the parameter, converted lazily, is not a double
+     * @see #getBoolean(String)
+     */
+    public double getDouble(String name) {
+        return parser.getDouble(name);
+    }
 
-        @Override
-        public void set(Iterator<String> currentArgument) throws ArgsException {
-            String parameter = null;
-            try {
-                parameter = currentArgument.next();
-                integerValue = Integer.parseInt(parameter);
-            } catch (NoSuchElementException e) {
-                throw new ArgsException('\0', parameter, MISSING_INTEGER);
-            } catch (NumberFormatException e) {
-                throw new ArgsException('\0', parameter, INVALID_INTEGER);
-            }
-        }
+    /**
+     * Obtain the value of an argument of a {@link ValueType} by its name.
+     *
+     * @see #getLong(char)
+     */
+    public long getLong(String name) {
+        return parser.getLong(name);
+    }
 
-        @Override
-        public Object get() {
-            return integerValue;
-        }
+    /**
+     * Obtain the value of a duration argument by its name.
+     *
+     * @see #getDuration(char)
+     */
+    public Duration getDuration(String name) {
+        return parser.getDuration(name);
+    }
 
+    /**
+     * Obtain the value of an enum argument by its name.
+     *
+     * @see #getEnum(char, Class)
+     */
+    public <E extends Enum<E>> E getEnum(String name, Class<E> type) {
+        return parser.getEnum(name, type);
     }
 
-    private static class DoubleArgumentMarshaller implements ArgumentMarshaller {
-        private double doubleValue = 0;
+    /**
+     * Obtain the values of an Integer list argument by its name.
+     *
+     * @see #getIntList(char)
+     */
+    public IntList getIntList(String name) {
+        return parser.getIntList(name);
+    }
 
-        @Override
-        public void set(Iterator<String> currentArgument) throws ArgsException {
-            String parameter = null;
-            try {
-                parameter = currentArgument.next();
-                doubleValue = Double.parseDouble(parameter);
-            } catch (NoSuchElementException e) {
-                throw new ArgsException('\0', parameter, MISSING_DOUBLE);
-            } catch (NumberFormatException e) {
-                throw new ArgsException('\0', parameter, INVALID_DOUBLE);
-            }
-        }
+    /**
+     * Obtain the values of a Double list argument by its name.
+     *
+     * @see #getDoubleList(char)
+     */
+    public DoubleList getDoubleList(String name) {
+        return parser.getDoubleList(name);
+    }
 
-        @Override
-        public Object get() {
-            return doubleValue;
-        }
+    /**
+     * Obtain the values of a String list argument by its name.
+     *
+     * @see #getStringList(char)
+     */
+    public List<String> getStringList(String name) {
+        return parser.getStringList(name);
     }
 
-    private static class StringArgumentMarshaller implements ArgumentMarshaller {
+    /**
+     * Print a help text that shows the argument schema to the user.
+     */
+    public String usage() {
+        return parser.getSchema().usage();
+    }
 
-        private String stringValue = "";
+    /**
+     * Returns true if the given argument is declared by the schema, whether or not it was given.
+     *
+     * @param argChar the name of the argument to check
+     * @return true if the argument is declared; false otherwise
+     * @see #isGiven(char)
+     */
+    public boolean has(char argChar) {
+        return parser.has(argChar);
+    }
 
-        @Override
-        public void set(Iterator<String> currentArgument) throws ArgsException {
-            try {
-                stringValue = currentArgument.next();
-            } catch (NoSuchElementException e) {
-                throw new ArgsException('\0', null, MISSING_STRING);
-            }
-        }
+    /**
+     * Returns true if the argument with the given name is declared by the schema, whether or not it was given.
+     *
+     * @param name the name of the argument, a single letter for a short option
+     */
+    public boolean has(String name) {
+        return parser.has(name);
+    }
 
-        @Override
-        public Object get() {
-            return stringValue == null ? "" : stringValue;
-        }
+    /**
+     * Returns true if the given argument was found among the arguments parsed.
+     *
+     * @param argChar the name of the argument to check
+     * @return true if the argument was found; false otherwise
+     */
+    public boolean isGiven(char argChar) {
+        return parser.isGiven(argChar);
+    }
 
+    /**
+     * Returns true if the argument with the given name was found among the arguments parsed.
+     *
+     * @param name the name of the argument, a single letter for a short option
+     */
+    public boolean isGiven(String name) {
+        return parser.isGiven(name);
     }
 }
@@ -0,0 +1,130 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Parses large numbers of argument lists against one compiled schema, spread across all available cores.
+ * <p>
+ * Usage:
+ * BatchResult result = ArgsBatch.parseAll(ArgsSchema.compile("l, p#, d*"), recordedCommandLines);
+ * <p>
+ * Every argument list is parsed as by {@link Args#tryParse(ArgsSchema, String[])}; results keep the input order.
+ */
+public final class ArgsBatch {
+    /**
+     * Argument lists parsed by a single fork-join task before it stops splitting.
+     */
+    static final int TASK_SIZE = 1024;
+
+    private ArgsBatch() {
+    }
+
+    /**
+     * Parse argument lists in the common fork-join pool.
+     *
+     * @param schema           the compiled schema, see {@link ArgsSchema#compile(String)}
+     * @param argumentVectors  the argument lists to parse
+     * @return the parse results in input order, together with the error counts
+     */
+    public static BatchResult parseAll(ArgsSchema schema, List<String[]> argumentVectors) {
+        return parseAll(schema, argumentVectors, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parse argument lists in the given fork-join pool, whose parallelism bounds the number of cores used.
+     * The list is copied to an array first, so that lists without fast random access are not read by index.
+     *
+     * @see #parseAll(ArgsSchema, List)
+     */
+    public static BatchResult parseAll(ArgsSchema schema, List<String[]> argumentVectors, ForkJoinPool pool) {
+        String[][] vectors = argumentVectors.toArray(new String[0][]);
+        ParseResult[] results = new ParseResult[vectors.length];
+        ErrorCounter errorCounter = new ErrorCounter();
+        pool.invoke(new ParseTask(schema, vectors, results, errorCounter, 0, results.length));
+        return new BatchResult(Arrays.asList(results), errorCounter.toMap());
+    }
+
+    /**
+     * Parse a stream of argument lists as a parallel stream.
+     * The input order is kept if the stream is ordered.
+     *
+     * @see #parseAll(ArgsSchema, List)
+     */
+    public static BatchResult parseAll(ArgsSchema schema, Stream<String[]> argumentVectors) {
+        ErrorCounter errorCounter = new ErrorCounter();
+        ParseResult[] results = argumentVectors.parallel()
+                .map(args -> errorCounter.count(Args.tryParse(schema, args)))
+                .toArray(ParseResult[]::new);
+        return new BatchResult(Arrays.asList(results), errorCounter.toMap());
+    }
+
+    private static class ParseTask extends RecursiveAction {
+        private final ArgsSchema schema;
+        private final String[][] argumentVectors;
+        private final ParseResult[] results;
+        private final ErrorCounter errorCounter;
+        private final int from;
+        private final int to;
+
+        ParseTask(ArgsSchema schema, String[][] argumentVectors, ParseResult[] results,
+                  ErrorCounter errorCounter, int from, int to) {
+            this.schema = schema;
+            this.argumentVectors = argumentVectors;
+            this.results = results;
+            this.errorCounter = errorCounter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = errorCounter.count(Args.tryParse(schema, argumentVectors[i]));
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(schema, argumentVectors, results, errorCounter, from, middle),
+                        new ParseTask(schema, argumentVectors, results, errorCounter, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Counts errors per error code from many threads without contending on a shared counter.
+     */
+    private static class ErrorCounter {
+        private final LongAdder[] counts = new LongAdder[ErrorCode.values().length];
+
+        ErrorCounter() {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        ParseResult count(ParseResult result) {
+            for (ArgsError error : result.getErrors()) {
+                counts[error.getErrorCode().ordinal()].increment();
+            }
+            return result;
+        }
+
+        Map<ErrorCode, Long> toMap() {
+            Map<ErrorCode, Long> sums = new EnumMap<>(ErrorCode.class);
+            for (ErrorCode errorCode : ErrorCode.values()) {
+                sums.put(errorCode, counts[errorCode.ordinal()].sum());
+            }
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A connection to an {@link ArgsServer}, sending it command lines to parse one at a time.
+ * <p>
+ * Usage:
+ * try (ArgsClient client = ArgsClient.connect(Paths.get("/run/agent/args.sock"))) {
+ *     ArgsSnapshot args = client.parse("admin", "-l -p 8080");
+ * }
+ * <p>
+ * A client holds the errors of its last request and is not thread-safe; use one client per thread.
+ * The server serves each connection on a thread of its own, so many clients may be connected at once.
+ */
+public final class ArgsClient implements Closeable {
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final SocketChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private List<ArgsError> errors = Collections.emptyList();
+    private ArgsError reported;
+
+    private ArgsClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Connect to a server listening on a Unix domain socket.
+     *
+     * @throws UnsupportedOperationException before Java 16
+     */
+    public static ArgsClient connect(Path socketFile) throws IOException {
+        return connect(ServerProtocol.unixAddress(socketFile));
+    }
+
+    /**
+     * Connect to a server listening on the given address, as returned by {@link ArgsServer#bind(SocketAddress)}.
+     */
+    public static ArgsClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = ServerProtocol.openClient(address);
+        try {
+            channel.connect(address);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new ArgsClient(channel);
+    }
+
+    /**
+     * Have the server parse a command line, tokenized as by {@link ArgsParser#parse(CharSequence)}.
+     *
+     * @param schemaName  the name the schema was registered under
+     * @param commandLine the raw command line
+     * @return a snapshot of the parsed arguments
+     * @throws ArgsException             the first invalid or missing parameter, if any, otherwise all unexpected
+     *                                   arguments
+     * @throws IllegalArgumentException  if no schema is registered under the name, or the command line or the reply
+     *                                   to it is too long
+     * @throws IOException               if the connection fails
+     */
+    public ArgsSnapshot parse(String schemaName, CharSequence commandLine) throws ArgsException, IOException {
+        ArgsSnapshot snapshot = tryParse(schemaName, commandLine);
+        if (snapshot == null) {
+            throw reported.toException();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Have the server parse a command line without throwing on invalid arguments.
+     *
+     * @return a snapshot of the parsed arguments, or null if errors were found, see {@link #getErrors()}
+     * @see #parse(String, CharSequence)
+     */
+    public ArgsSnapshot tryParse(String schemaName, CharSequence commandLine) throws IOException {
+        byte[] name = schemaName.getBytes(StandardCharsets.UTF_8);
+        byte[] line = commandLine.toString().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + name.length + line.length;
+        if (name.length > ServerProtocol.MAX_NAME_LENGTH || length > ServerProtocol.MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("The request exceeds the limit of " + ServerProtocol.MAX_FRAME_SIZE
+                    + " bytes or its schema name that of " + ServerProtocol.MAX_NAME_LENGTH + " bytes.");
+        }
+        buffer = ServerProtocol.ensureCapacity(buffer, 4 + length);
+        buffer.clear();
+        buffer.putInt(length).put((byte) name.length).put(name).put(line).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        ByteBuffer reply = ServerProtocol.readFrame(channel, buffer);
+        if (reply == null) {
+            throw new EOFException("The server closed the connection.");
+        }
+        buffer = reply;
+        switch (reply.get()) {
+            case ServerProtocol.OK:
+                errors = Collections.emptyList();
+                reported = null;
+                ByteBuffer snapshot = ByteBuffer.allocate(reply.remaining());
+                snapshot.put(reply).flip();
+                return ArgsSnapshot.wrap(snapshot);
+            case ServerProtocol.INVALID:
+                int count = reply.getInt();
+                List<ArgsError> found = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    found.add(ServerProtocol.getError(reply));
+                }
+                errors = Collections.unmodifiableList(found);
+                reported = ServerProtocol.getError(reply);
+                return null;
+            case ServerProtocol.UNKNOWN_SCHEMA:
+                throw new IllegalArgumentException("No schema is registered as '" + schemaName + "'.");
+            case ServerProtocol.REPLY_TOO_LARGE:
+                throw new IllegalArgumentException("The reply to the command line exceeds the limit of "
+                        + ServerProtocol.MAX_FRAME_SIZE + " bytes.");
+            default:
+                throw new IOException("The server sent a reply of unknown status.");
+        }
+    }
+
+    /**
+     * @return the errors the server found in the last command line sent, in the order found
+     */
+    public List<ArgsError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,619 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.AMBIGUOUS_ARGUMENT;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.UNEXPECTED_ARGUMENT;
+
+/**
+ * A parser bound to a compiled schema that can be used for any number of parses.
+ * Each parse resets the values of the previous one in place instead of reallocating them,
+ * so that once warmed up, parsing valid arguments allocates nothing.
+ * <p>
+ * Usage:
+ * ArgsParser parser = new ArgsParser(ArgsSchema.compile("l, p#, d*"));
+ * parser.parse(args);
+ * int port = parser.getInt('p');
+ * <p>
+ * Arguments are read from an array, as passed to a main method, or tokenized straight from a raw command line.
+ * Long options are given as "--port 3002" or "--port=3002", or abbreviated to any prefix that only one of them
+ * starts with, such as "--po".
+ * Parsing a raw command line stops at the end-of-options marker "--"; the arguments following it are left alone.
+ * In an array of arguments, "--" is reported as the unexpected argument '-'.
+ * <p>
+ * Each parse reports to the installed {@link ParseListener}, if any.
+ * <p>
+ * A parser holds the values of its last parse and is not thread-safe; use one parser per thread,
+ * or share a single {@link ArgsSchema} between threads and parse into immutable {@link Args} instead.
+ */
+public final class ArgsParser {
+    private final ArgsSchema schema;
+    private final ArgumentMarshaller[] marshallers;
+    private final ArrayArgumentCursor arrayArgument = new ArrayArgumentCursor();
+    private CharSequenceCursor charSequenceArgument;
+    private Utf8Cursor utf8Argument;
+    private ArgFileCursor argFileArgument;
+    private ArgumentCursor currentArgument;
+    private final BitSet unexpectedArguments = new BitSet();
+    private boolean hasUnexpectedLongOptions;
+    private final BitSet argsFound = new BitSet();
+    private final long[] givenSlots;
+    private final List<ArgsError> errors = new ArrayList<>(0);
+    private final List<ArgsError> readOnlyErrors = Collections.unmodifiableList(errors);
+    private ParseListener listener = ParseListener.NONE;
+
+    public ArgsParser(ArgsSchema schema) {
+        this(schema, ConversionMode.STRICT);
+    }
+
+    /**
+     * @param schema the compiled schema, see {@link ArgsSchema#compile(String)}
+     * @param mode   whether numeric parameters are validated while parsing or on first read
+     */
+    public ArgsParser(ArgsSchema schema, ConversionMode mode) {
+        this.schema = schema;
+        this.marshallers = new ArgumentMarshaller[schema.size()];
+        this.givenSlots = new long[(schema.size() + 63) >>> 6];
+        for (int slot = 0; slot < marshallers.length; slot++) {
+            marshallers[slot] = schema.newMarshaller(slot, mode);
+        }
+    }
+
+    /**
+     * Parse arguments, replacing the values of the previous parse.
+     *
+     * @param args the arguments passed to the application
+     * @throws ArgsException the first invalid or missing parameter, if any, otherwise all unexpected arguments
+     */
+    public void parse(String[] args) throws ArgsException {
+        throwFirstErrorUnless(tryParse(args));
+    }
+
+    /**
+     * Split a raw command line into arguments and parse them, replacing the values of the previous parse.
+     * The command line is tokenized in the same pass that parses it, honouring quotes and backslash escapes
+     * the way a shell does.
+     *
+     * @param commandLine the command line, e.g. "-l -p 3002 -d '/var/my tmp/'"
+     * @throws ArgsException the first invalid or missing parameter, if any, otherwise all unexpected arguments
+     */
+    public void parse(CharSequence commandLine) throws ArgsException {
+        throwFirstErrorUnless(tryParse(commandLine));
+    }
+
+    /**
+     * Split a raw, UTF-8 encoded command line into arguments and parse them,
+     * replacing the values of the previous parse.
+     *
+     * @see #parse(CharSequence)
+     */
+    public void parse(byte[] utf8CommandLine) throws ArgsException {
+        throwFirstErrorUnless(tryParse(utf8CommandLine));
+    }
+
+    /**
+     * Parse arguments, replacing the values of the previous parse, and expand the argument files among them:
+     * "@file" is replaced by the arguments the file holds, separated by whitespace and quoted as on a command line.
+     * Argument files may name further argument files; "@@" stands for a literal '@'.
+     * Files are streamed as they are parsed, so even files with millions of arguments take constant memory.
+     *
+     * @param args the arguments passed to the application
+     * @throws ArgsException the first unreadable argument file, invalid or missing parameter, if any,
+     *                       otherwise all unexpected arguments
+     */
+    public void parseWithArgFiles(String[] args) throws ArgsException {
+        throwFirstErrorUnless(tryParseWithArgFiles(args));
+    }
+
+    private void throwFirstErrorUnless(boolean valid) throws ArgsException {
+        ArgsException firstError = valid ? null : firstError();
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    /**
+     * Parse arguments without throwing, replacing the values and errors of the previous parse.
+     *
+     * @param args the arguments passed to the application
+     * @return true if no errors were found, see {@link #getErrors()} otherwise
+     */
+    public boolean tryParse(String[] args) {
+        arrayArgument.reset(args);
+        return tryParse(arrayArgument);
+    }
+
+    /**
+     * Parse the tokens of a command line without throwing, stopping at the end-of-options marker "--"
+     * as {@link #tryParse(CharSequence)} does.
+     */
+    boolean tryParseTokens(String[] tokens) {
+        arrayArgument.resetTokens(tokens);
+        return tryParse(arrayArgument);
+    }
+
+    /**
+     * Split a raw command line into arguments and parse them without throwing,
+     * replacing the values and errors of the previous parse.
+     *
+     * @see #parse(CharSequence)
+     */
+    public boolean tryParse(CharSequence commandLine) {
+        if (charSequenceArgument == null) {
+            charSequenceArgument = new CharSequenceCursor();
+        }
+        charSequenceArgument.reset(commandLine);
+        return tryParse(charSequenceArgument);
+    }
+
+    /**
+     * Split a raw, UTF-8 encoded command line into arguments and parse them without throwing,
+     * replacing the values and errors of the previous parse.
+     *
+     * @see #parse(CharSequence)
+     */
+    public boolean tryParse(byte[] utf8CommandLine) {
+        return tryParse(ByteBuffer.wrap(utf8CommandLine), 0, utf8CommandLine.length);
+    }
+
+    /**
+     * Parse the UTF-8 encoded command line between two offsets of a buffer, such as a request read from a socket.
+     */
+    boolean tryParse(ByteBuffer utf8CommandLine, int from, int to) {
+        if (utf8Argument == null) {
+            utf8Argument = new Utf8Cursor();
+        }
+        utf8Argument.reset(utf8CommandLine, from, to);
+        return tryParse(utf8Argument);
+    }
+
+    /**
+     * Parse arguments without throwing, expanding the argument files among them,
+     * replacing the values and errors of the previous parse.
+     * Error token indexes count the arguments read from argument files in place of the "@file" tokens.
+     *
+     * @see #parseWithArgFiles(String[])
+     */
+    public boolean tryParseWithArgFiles(String[] args) {
+        if (argFileArgument == null) {
+            argFileArgument = new ArgFileCursor(this::addError);
+        }
+        arrayArgument.reset(args);
+        argFileArgument.reset(arrayArgument);
+        return tryParse(argFileArgument);
+    }
+
+    boolean tryParse(ArgumentCursor args) {
+        listener = ParseListener.installed();
+        long start = listener == ParseListener.NONE ? 0 : System.nanoTime();
+        reset();
+        currentArgument = args;
+        parseArguments();
+        checkConstraints();
+        boolean valid = errors.isEmpty();
+        if (listener != ParseListener.NONE) {
+            listener.parseCompleted(schema, valid, System.nanoTime() - start);
+        }
+        return valid;
+    }
+
+    /**
+     * Only resets the marshallers the previous parse used, so that the cost of a parse hardly grows
+     * with the number of arguments the schema declares.
+     */
+    private void reset() {
+        for (int word = 0; word < givenSlots.length; word++) {
+            for (long given = givenSlots[word]; given != 0; given &= given - 1) {
+                marshallers[(word << 6) + Long.numberOfTrailingZeros(given)].reset();
+            }
+            givenSlots[word] = 0;
+        }
+        unexpectedArguments.clear();
+        hasUnexpectedLongOptions = false;
+        argsFound.clear();
+        errors.clear();
+    }
+
+    /**
+     * Check the schema's constraints against the arguments given, including those whose parameters were invalid,
+     * so that an invalid parameter is not reported as a missing argument, too.
+     */
+    private void checkConstraints() {
+        for (int i = 0; i < schema.constraintCount(); i++) {
+            ArgsError error = schema.constraintAt(i).check(givenSlots, schema);
+            if (error != null) {
+                addError(error);
+            }
+        }
+    }
+
+    private void parseArguments() {
+        while (currentArgument.hasNext()) {
+            CharSequence arg = currentArgument.nextArgument();
+            if (currentArgument.isEndOfOptions(arg)) {
+                return;
+            }
+            parseArgument(arg);
+        }
+    }
+
+    private void parseArgument(CharSequence arg) {
+        if (arg.length() > 2 && arg.charAt(0) == '-' && arg.charAt(1) == '-') {
+            parseLongOption(arg);
+        } else if (arg.length() > 0 && arg.charAt(0) == '-') {
+            parseElements(arg);
+        }
+    }
+
+    private void parseLongOption(CharSequence arg) {
+        int tokenIndex = currentArgument.position();
+        int nameEnd = 2;
+        while (nameEnd < arg.length() && arg.charAt(nameEnd) != '=') {
+            nameEnd++;
+        }
+        int slot = schema.resolveLongOption(arg, 2, nameEnd);
+        if (slot == OptionTrie.AMBIGUOUS) {
+            addError(new ArgsError('\0', arg.subSequence(0, nameEnd).toString(), AMBIGUOUS_ARGUMENT, tokenIndex));
+        } else if (slot < 0) {
+            addUnexpectedLongOption(arg.subSequence(0, nameEnd).toString(), tokenIndex);
+        } else if (nameEnd == arg.length()) {
+            parseSlot(slot, tokenIndex);
+        } else if (schema.typeAt(slot) == ArgumentType.BOOLEAN) {
+            addUnexpectedLongOption(arg.toString(), tokenIndex);
+        } else {
+            currentArgument.setInlineParameter(arg, nameEnd + 1, arg.length());
+            parseSlot(slot, tokenIndex);
+            currentArgument.clearInlineParameter();
+        }
+    }
+
+    private void addUnexpectedLongOption(String option, int tokenIndex) {
+        hasUnexpectedLongOptions = true;
+        addError(new ArgsError(option, option, UNEXPECTED_ARGUMENT, tokenIndex));
+    }
+
+    private void parseElements(CharSequence arg) {
+        int tokenIndex = currentArgument.position();
+        for (int i = 1; i < arg.length(); i++) {
+            parseElement(arg.charAt(i), tokenIndex);
+        }
+    }
+
+    private void parseElement(char argChar, int tokenIndex) {
+        int slot = schema.slotOf(argChar);
+        if (slot < 0) {
+            unexpectedArguments.set(argChar);
+            addError(new ArgsError(argChar, String.valueOf(argChar), UNEXPECTED_ARGUMENT, tokenIndex));
+        } else {
+            parseSlot(slot, tokenIndex);
+        }
+    }
+
+    private void parseSlot(int slot, int tokenIndex) {
+        if (setArgument(slot, tokenIndex)) {
+            argsFound.set(slot);
+            listener.argumentSet(schema.nameAt(slot));
+        }
+    }
+
+    private boolean setArgument(int slot, int tokenIndex) {
+        int readsBefore = currentArgument.reads();
+        givenSlots[slot >>> 6] |= 1L << slot;
+        ErrorCode errorCode = marshallers[slot].set(currentArgument);
+        if (errorCode == null) {
+            return true;
+        }
+        if (currentArgument.reads() > readsBefore) {
+            addError(new ArgsError(schema.nameAt(slot), currentArgument.current(), errorCode,
+                    currentArgument.position()));
+        } else {
+            addError(new ArgsError(schema.nameAt(slot), null, errorCode, tokenIndex));
+        }
+        return false;
+    }
+
+    private void addError(ArgsError error) {
+        errors.add(error);
+        listener.errorFound(error);
+    }
+
+    /**
+     * The error the throwing parse reports: the first invalid or missing parameter, if any,
+     * otherwise all unexpected arguments at once.
+     */
+    ArgsException firstError() {
+        for (ArgsError error : errors) {
+            if (error.getErrorCode() != UNEXPECTED_ARGUMENT) {
+                return error.toException();
+            }
+        }
+        if (hasUnexpectedLongOptions) {
+            String ids = unexpectedIds();
+            String longOptions = unexpectedLongOptions();
+            return new ArgsException(longOptions, ids.isEmpty() ? longOptions : ids + " " + longOptions,
+                    UNEXPECTED_ARGUMENT);
+        }
+        if (!unexpectedArguments.isEmpty()) {
+            return new ArgsException('\0', unexpectedIds(), UNEXPECTED_ARGUMENT);
+        }
+        return null;
+    }
+
+    /**
+     * @return the unexpected ids, e.g. "xy"
+     */
+    private String unexpectedIds() {
+        StringBuilder ids = new StringBuilder();
+        for (int id = unexpectedArguments.nextSetBit(0); id >= 0; id = unexpectedArguments.nextSetBit(id + 1)) {
+            ids.append((char) id);
+        }
+        return ids.toString();
+    }
+
+    /**
+     * @return the unexpected long options as they were given, e.g. "--colour --verbose=yes"
+     */
+    private String unexpectedLongOptions() {
+        StringBuilder options = new StringBuilder();
+        for (ArgsError error : errors) {
+            if (error.getErrorCode() == UNEXPECTED_ARGUMENT && error.getErrorArgumentId() == '\0') {
+                options.append(options.length() > 0 ? " " : "").append(error.getErrorArgumentName());
+            }
+        }
+        return options.toString();
+    }
+
+    /**
+     * @return the errors found by the last parse, in the order of the argument tokens
+     */
+    public List<ArgsError> getErrors() {
+        return readOnlyErrors;
+    }
+
+    private int slotOf(char arg, ArgumentType type) {
+        int slot = schema.slotOf(arg);
+        return slot >= 0 && schema.typeAt(slot) == type ? slot : -1;
+    }
+
+    /**
+     * @see Args#getBoolean(char)
+     */
+    public boolean getBoolean(char arg) {
+        int slot = slotOf(arg, ArgumentType.BOOLEAN);
+        return slot >= 0 && ((ArgumentMarshaller.OfBoolean) marshallers[slot]).getBoolean();
+    }
+
+    /**
+     * @see Args#getString(char)
+     */
+    public String getString(char arg) {
+        int slot = slotOf(arg, ArgumentType.STRING);
+        return slot < 0 ? "" : ((ArgumentMarshaller.OfString) marshallers[slot]).getString();
+    }
+
+    /**
+     * @see Args#getInt(char)
+     */
+    public int getInt(char arg) {
+        int slot = slotOf(arg, ArgumentType.INTEGER);
+        return slot < 0 ? 0 : ((ArgumentMarshaller.OfInt) marshallers[slot]).getInt();
+    }
+
+    /**
+     * @see Args#getDouble(char)
+     */
+    public double getDouble(char arg) {
+        int slot = slotOf(arg, ArgumentType.DOUBLE);
+        return slot < 0 ? 0 : ((ArgumentMarshaller.OfDouble) marshallers[slot]).getDouble();
+    }
+
+    /**
+     * @see Args#getLong(char)
+     */
+    public long getLong(char arg) {
+        return longAt(slotOf(arg, ArgumentType.VALUE));
+    }
+
+    /**
+     * @see Args#getDuration(char)
+     */
+    public Duration getDuration(char arg) {
+        return durationAt(schema.typedSlot(schema.slotOf(arg), ValueTypes.DURATION));
+    }
+
+    /**
+     * @see Args#getEnum(char, Class)
+     */
+    public <E extends Enum<E>> E getEnum(char arg, Class<E> type) {
+        return enumAt(schema.enumTypedSlot(schema.slotOf(arg), type), type);
+    }
+
+    private long longAt(int slot) {
+        return slot < 0 ? 0 : ((ArgumentMarshaller.OfLong) marshallers[slot]).getLong();
+    }
+
+    private Duration durationAt(int slot) {
+        return slot < 0 ? Duration.ZERO : Duration.ofNanos(longAt(slot));
+    }
+
+    private <E extends Enum<E>> E enumAt(int slot, Class<E> type) {
+        return slot < 0 || !argsFound.get(slot) ? null
+                : type.cast(((EnumValueType) schema.valueTypeAt(slot)).constantAt(longAt(slot)));
+    }
+
+    /**
+     * @see Args#has(char)
+     */
+    public boolean has(char argChar) {
+        return schema.slotOf(argChar) >= 0;
+    }
+
+    /**
+     * @see Args#isGiven(char)
+     */
+    public boolean isGiven(char argChar) {
+        int slot = schema.slotOf(argChar);
+        return slot >= 0 && argsFound.get(slot);
+    }
+
+    /**
+     * @see Args#getIntList(char)
+     */
+    public IntList getIntList(char arg) {
+        return intListAt(slotOf(arg, ArgumentType.INTEGER_LIST));
+    }
+
+    /**
+     * @see Args#getDoubleList(char)
+     */
+    public DoubleList getDoubleList(char arg) {
+        return doubleListAt(slotOf(arg, ArgumentType.DOUBLE_LIST));
+    }
+
+    /**
+     * @see Args#getStringList(char)
+     */
+    public List<String> getStringList(char arg) {
+        return stringListAt(slotOf(arg, ArgumentType.STRING_LIST));
+    }
+
+    private IntList intListAt(int slot) {
+        return slot < 0 ? IntList.EMPTY : ((ArgumentMarshaller.OfIntList) marshallers[slot]).getIntList();
+    }
+
+    private DoubleList doubleListAt(int slot) {
+        return slot < 0 ? DoubleList.EMPTY : ((ArgumentMarshaller.OfDoubleList) marshallers[slot]).getDoubleList();
+    }
+
+    private List<String> stringListAt(int slot) {
+        return slot < 0
+                ? Collections.<String>emptyList()
+                : ((ArgumentMarshaller.OfStringList) marshallers[slot]).getStringList();
+    }
+
+    private int slotOf(String name, ArgumentType type) {
+        int slot = schema.slotOf(name);
+        return slot >= 0 && schema.typeAt(slot) == type ? slot : -1;
+    }
+
+    /**
+     * @see Args#getBoolean(String)
+     */
+    public boolean getBoolean(String name) {
+        int slot = slotOf(name, ArgumentType.BOOLEAN);
+        return slot >= 0 && ((ArgumentMarshaller.OfBoolean) marshallers[slot]).getBoolean();
+    }
+
+    /**
+     * @see Args#getString(String)
+     */
+    public String getString(String name) {
+        int slot = slotOf(name, ArgumentType.STRING);
+        return slot < 0 ? "" : ((ArgumentMarshaller.OfString) marshallers[slot]).getString();
+    }
+
+    /**
+     * @see Args#getInt(String)
+     */
+    public int getInt(String name) {
+        int slot = slotOf(name, ArgumentType.INTEGER);
+        return slot < 0 ? 0 : ((ArgumentMarshaller.OfInt) marshallers[slot]).getInt();
+    }
+
+    /**
+     * @see Args#getDouble(String)
+     */
+    public double getDouble(String name) {
+        int slot = slotOf(name, ArgumentType.DOUBLE);
+        return slot < 0 ? 0 : ((ArgumentMarshaller.OfDouble) marshallers[slot]).getDouble();
+    }
+
+    /**
+     * @see Args#getIntList(String)
+     */
+    public IntList getIntList(String name) {
+        return intListAt(slotOf(name, ArgumentType.INTEGER_LIST));
+    }
+
+    /**
+     * @see Args#getDoubleList(String)
+     */
+    public DoubleList getDoubleList(String name) {
+        return doubleListAt(slotOf(name, ArgumentType.DOUBLE_LIST));
+    }
+
+    /**
+     * @see Args#getStringList(String)
+     */
+    public List<String> getStringList(String name) {
+        return stringListAt(slotOf(name, ArgumentType.STRING_LIST));
+    }
+
+    /**
+     * @see Args#getLong(String)
+     */
+    public long getLong(String name) {
+        return longAt(slotOf(name, ArgumentType.VALUE));
+    }
+
+    /**
+     * @see Args#getDuration(String)
+     */
+    public Duration getDuration(String name) {
+        return durationAt(schema.typedSlot(schema.slotOf(name), ValueTypes.DURATION));
+    }
+
+    /**
+     * @see Args#getEnum(String, Class)
+     */
+    public <E extends Enum<E>> E getEnum(String name, Class<E> type) {
+        return enumAt(schema.enumTypedSlot(schema.slotOf(name), type), type);
+    }
+
+    /**
+     * @see Args#has(String)
+     */
+    public boolean has(String name) {
+        return schema.slotOf(name) >= 0;
+    }
+
+    /**
+     * @see Args#isGiven(String)
+     */
+    public boolean isGiven(String name) {
+        int slot = schema.slotOf(name);
+        return slot >= 0 && argsFound.get(slot);
+    }
+
+    ArgumentMarshaller marshallerAt(int slot) {
+        return marshallers[slot];
+    }
+
+    /**
+     * @return whether the argument in the slot was set by the last parse
+     */
+    boolean isSet(int slot) {
+        return argsFound.get(slot);
+    }
+
+    /**
+     * Record whether the argument in the slot was set, for values maintained outside a parse,
+     * see {@link IncrementalParser}.
+     */
+    void markSet(int slot, boolean set) {
+        argsFound.set(slot, set);
+    }
+
+    public ArgsSchema getSchema() {
+        return schema;
+    }
+}
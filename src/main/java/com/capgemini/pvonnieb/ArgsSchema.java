@@ -0,0 +1,404 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_ARGUMENT_NAME;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_CONSTRAINT;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_FORMAT;
+
+/**
+ * A compiled, immutable argument schema.
+ * Compiling a schema string once and reusing the result keeps the schema parsing
+ * out of every subsequent argument parse.
+ * <p>
+ * Usage:
+ * ArgsSchema schema = ArgsSchema.compile("l, p#, d*, v##");
+ * Args args = new Args(schema, args);
+ * <p>
+ * Instances are immutable and thread-safe; any number of threads may parse against the same schema at once.
+ * <p>
+ * Every argument is assigned a slot number in declaration order. Argument ids are resolved to slots through a
+ * table indexed by the id itself for ASCII letters, and through a binary search over the sorted remaining ids
+ * for other letters, so that no lookup has to box or hash a char.
+ * <p>
+ * Long options, declared as "--name" followed by the type suffix, e.g. "l, --port#, --log-dir*", are resolved
+ * through an {@link OptionTrie}, which also resolves unambiguous abbreviations such as "--po".
+ * <p>
+ * Arguments of a {@link ValueType} are declared by the name it is registered under in angle brackets,
+ * e.g. "t&lt;duration&gt;, --max-heap&lt;size&gt;", see {@link ValueTypes}. The names are resolved to the types
+ * as the schema compiles, so a parse only creates their converters.
+ * <p>
+ * Constraints on which arguments may be given together follow the arguments, separated by a semicolon,
+ * e.g. "l, v, p#, d*; !p, l^v, d>p":
+ * "!p" requires p, "l^v" allows at most one of l and v (of any number joined by '^'), and "d>p" requires p
+ * whenever d is given. Long options are named without their dashes. Constraints are compiled into
+ * {@link OptionConstraint}s, checked against the arguments given once they are all parsed.
+ */
+public final class ArgsSchema {
+    static final int CACHE_SIZE = 256;
+    private static final int ASCII_TABLE_SIZE = 128;
+    private static final String LONG_OPTION_PREFIX = "--";
+    private static final char CONSTRAINTS_SEPARATOR = ';';
+
+    private static final Map<String, ArgsSchema> cache = Collections.synchronizedMap(
+            new LinkedHashMap<String, ArgsSchema>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ArgsSchema> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private final String schema;
+    private final String[] names;
+    private final char[] ids;
+    private final ArgumentType[] types;
+    private final ValueType[] valueTypes;
+    private final int[] asciiSlots = new int[ASCII_TABLE_SIZE];
+    private final char[] extendedIds;
+    private final int[] extendedSlots;
+    private final OptionTrie longOptions;
+    private final OptionConstraint[] constraints;
+
+    private ArgsSchema(String schema, Map<String, ArgumentType> elements, Map<String, ValueType> valueTypes,
+                       String constraints) throws ArgsException {
+        this.schema = schema;
+        this.names = new String[elements.size()];
+        this.ids = new char[elements.size()];
+        this.types = new ArgumentType[elements.size()];
+        this.valueTypes = new ValueType[elements.size()];
+        int slot = 0;
+        for (Map.Entry<String, ArgumentType> element : elements.entrySet()) {
+            names[slot] = element.getKey();
+            ids[slot] = element.getKey().length() == 1 ? element.getKey().charAt(0) : '\0';
+            types[slot] = element.getValue();
+            this.valueTypes[slot] = valueTypes.get(element.getKey());
+            slot++;
+        }
+        Arrays.fill(asciiSlots, -1);
+        char[] extendedIds = new char[ids.length];
+        int[] extendedSlots = new int[ids.length];
+        int extendedCount = 0;
+        List<Integer> longNamed = new ArrayList<>();
+        for (slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] == '\0') {
+                longNamed.add(slot);
+            } else if (ids[slot] < ASCII_TABLE_SIZE) {
+                asciiSlots[ids[slot]] = slot;
+            } else {
+                int i = extendedCount++;
+                for (; i > 0 && extendedIds[i - 1] > ids[slot]; i--) {
+                    extendedIds[i] = extendedIds[i - 1];
+                    extendedSlots[i] = extendedSlots[i - 1];
+                }
+                extendedIds[i] = ids[slot];
+                extendedSlots[i] = slot;
+            }
+        }
+        this.extendedIds = Arrays.copyOf(extendedIds, extendedCount);
+        this.extendedSlots = Arrays.copyOf(extendedSlots, extendedCount);
+        String[] longNames = new String[longNamed.size()];
+        int[] longSlots = new int[longNamed.size()];
+        for (int i = 0; i < longNamed.size(); i++) {
+            longSlots[i] = longNamed.get(i);
+            longNames[i] = names[longSlots[i]];
+        }
+        this.longOptions = new OptionTrie(longNames, longSlots);
+        this.constraints = parseConstraints(constraints);
+    }
+
+    /**
+     * Obtain the compiled form of a schema string.
+     * Recently used schemas are served from a bounded cache instead of being parsed again.
+     *
+     * @param schema a schema string defining the types and names of the arguments
+     * @return the compiled schema
+     * @throws ArgsException if the schema string is malformed
+     */
+    public static ArgsSchema compile(String schema) throws ArgsException {
+        ParseListener listener = ParseListener.installed();
+        if (listener == ParseListener.NONE) {
+            ArgsSchema cached = cache.get(schema);
+            return cached != null ? cached : compileAndCache(schema);
+        }
+        long start = System.nanoTime();
+        try {
+            ArgsSchema cached = cache.get(schema);
+            ArgsSchema compiled = cached != null ? cached : compileAndCache(schema);
+            listener.schemaCompiled(compiled, cached != null, System.nanoTime() - start);
+            return compiled;
+        } catch (ArgsException e) {
+            listener.schemaRejected(schema, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Compile a schema string that was not found in the cache, and cache the result.
+     * The caller tells a hit from a miss by its own lookup, so a concurrent compile or eviction between the lookup
+     * and this call cannot make it report the wrong one.
+     */
+    private static ArgsSchema compileAndCache(String schema) throws ArgsException {
+        int constraintsStart = schema.indexOf(CONSTRAINTS_SEPARATOR);
+        String arguments = constraintsStart < 0 ? schema : schema.substring(0, constraintsStart);
+        String constraints = constraintsStart < 0 ? "" : schema.substring(constraintsStart + 1);
+        Map<String, ValueType> valueTypes = new HashMap<>();
+        ArgsSchema compiled = new ArgsSchema(schema, parseSchema(schema, arguments, valueTypes), valueTypes,
+                constraints);
+        cache.put(schema, compiled);
+        return compiled;
+    }
+
+    /**
+     * @param valueTypes receives the value types of the arguments declared with one
+     */
+    private static Map<String, ArgumentType> parseSchema(String schema, String arguments,
+                                                         Map<String, ValueType> valueTypes) throws ArgsException {
+        Map<String, ArgumentType> types = new LinkedHashMap<>();
+        for (String element : arguments.split(",")) {
+            if (element.length() > 0) {
+                parseSchemaElement(schema, element.trim(), types, valueTypes);
+            }
+        }
+        return types;
+    }
+
+    private static void parseSchemaElement(String schema, String element, Map<String, ArgumentType> types,
+                                           Map<String, ValueType> valueTypes) throws ArgsException {
+        if (element.startsWith(LONG_OPTION_PREFIX)) {
+            parseLongSchemaElement(schema, element, types, valueTypes);
+            return;
+        }
+        char elementId = element.charAt(0);
+        String elementTail = element.substring(1);
+        validateSchemaElementId(schema, elementId);
+        ArgumentType type = typeOf(String.valueOf(elementId), elementTail, valueTypes);
+        if (type == null) {
+            throw new ArgsException(elementId, elementTail, INVALID_FORMAT);
+        }
+        types.put(String.valueOf(elementId), type);
+    }
+
+    /**
+     * Look up the type a suffix declares, resolving a value type by its registered name.
+     *
+     * @return the type, or null if the suffix is unknown
+     */
+    private static ArgumentType typeOf(String name, String suffix, Map<String, ValueType> valueTypes) {
+        String valueTypeName = ArgumentType.valueTypeNameOf(suffix);
+        if (valueTypeName == null) {
+            return ArgumentType.forSuffix(suffix);
+        }
+        ValueType valueType = ValueTypes.forName(valueTypeName);
+        if (valueType == null) {
+            return null;
+        }
+        valueTypes.put(name, valueType);
+        return ArgumentType.VALUE;
+    }
+
+    /**
+     * A long option is declared as "--" followed by its name, at least two letters, digits or dashes
+     * starting with a letter, and the type suffix, e.g. "--log-dir*".
+     */
+    private static void parseLongSchemaElement(String schema, String element, Map<String, ArgumentType> types,
+                                               Map<String, ValueType> valueTypes) throws ArgsException {
+        int nameEnd = LONG_OPTION_PREFIX.length();
+        while (nameEnd < element.length() && isLongNameChar(element.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String name = element.substring(LONG_OPTION_PREFIX.length(), nameEnd);
+        String elementTail = element.substring(nameEnd);
+        if (name.length() < 2) {
+            throw new ArgsException(name.isEmpty() ? '-' : name.charAt(0), schema, INVALID_ARGUMENT_NAME);
+        }
+        validateSchemaElementId(schema, name.charAt(0));
+        ArgumentType type = typeOf(name, elementTail, valueTypes);
+        if (type == null) {
+            throw elementTail.isEmpty() || ArgumentType.isSuffixChar(elementTail.charAt(0))
+                    ? new ArgsException(name, elementTail, INVALID_FORMAT)
+                    : new ArgsException(elementTail.charAt(0), schema, INVALID_ARGUMENT_NAME);
+        }
+        types.put(name, type);
+    }
+
+    private OptionConstraint[] parseConstraints(String constraints) throws ArgsException {
+        List<OptionConstraint> rules = new ArrayList<>();
+        for (String element : constraints.split(",")) {
+            String constraint = element.trim();
+            if (constraint.length() > 0) {
+                rules.add(parseConstraint(constraint));
+            }
+        }
+        return rules.toArray(new OptionConstraint[0]);
+    }
+
+    private OptionConstraint parseConstraint(String constraint) throws ArgsException {
+        if (constraint.charAt(0) == '!') {
+            return new OptionConstraint(OptionConstraint.Kind.REQUIRED, -1,
+                    new int[]{constrainedSlot(constraint, constraint.substring(1))});
+        }
+        int requires = constraint.indexOf('>');
+        if (requires >= 0) {
+            return new OptionConstraint(OptionConstraint.Kind.REQUIRES,
+                    constrainedSlot(constraint, constraint.substring(0, requires)),
+                    new int[]{constrainedSlot(constraint, constraint.substring(requires + 1))});
+        }
+        String[] names = constraint.split("\\^", -1);
+        if (names.length < 2) {
+            throw new ArgsException('\0', constraint, INVALID_CONSTRAINT);
+        }
+        int[] group = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            group[i] = constrainedSlot(constraint, names[i]);
+        }
+        return new OptionConstraint(OptionConstraint.Kind.EXCLUSIVE, -1, group);
+    }
+
+    /**
+     * @return the slot of an argument named by a constraint
+     * @throws ArgsException if the schema does not declare the argument
+     */
+    private int constrainedSlot(String constraint, String name) throws ArgsException {
+        String trimmed = name.trim();
+        int slot = trimmed.isEmpty() ? -1 : slotOf(trimmed);
+        if (slot < 0) {
+            throw new ArgsException('\0', constraint, INVALID_CONSTRAINT);
+        }
+        return slot;
+    }
+
+    private static boolean isLongNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-';
+    }
+
+    private static void validateSchemaElementId(String schema, char elementId) throws ArgsException {
+        if (!Character.isLetter(elementId)) {
+            throw new ArgsException(elementId, schema, INVALID_ARGUMENT_NAME);
+        }
+    }
+
+    /**
+     * @return the number of arguments declared by this schema
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Resolve an argument id to its slot.
+     *
+     * @param id the name of the argument
+     * @return the slot of the argument, or -1 if the schema does not declare it
+     */
+    int slotOf(char id) {
+        if (id < ASCII_TABLE_SIZE) {
+            return asciiSlots[id];
+        }
+        int index = Arrays.binarySearch(extendedIds, id);
+        return index < 0 ? -1 : extendedSlots[index];
+    }
+
+    /**
+     * Resolve an argument name to its slot, a single letter to a short option and anything longer to a long option.
+     *
+     * @param name the name of the argument, e.g. "p" or "port"
+     * @return the slot of the argument, or -1 if the schema does not declare it
+     */
+    int slotOf(String name) {
+        if (name.length() == 1) {
+            return slotOf(name.charAt(0));
+        }
+        return longOptions.slotOf(name, 0, name.length());
+    }
+
+    /**
+     * Resolve the name of a long option, or a prefix that abbreviates only one of them, to its slot.
+     *
+     * @param chars the characters holding the name
+     * @param from  the index of the first character of the name
+     * @param to    the index following the last character of the name
+     * @return the slot of the option, {@link OptionTrie#NOT_FOUND} or {@link OptionTrie#AMBIGUOUS}
+     */
+    int resolveLongOption(CharSequence chars, int from, int to) {
+        return longOptions.resolve(chars, from, to);
+    }
+
+    /**
+     * @return the id of the argument in the given slot, or '\0' if it is a long option
+     */
+    char idAt(int slot) {
+        return ids[slot];
+    }
+
+    String nameAt(int slot) {
+        return names[slot];
+    }
+
+    ArgumentType typeAt(int slot) {
+        return types[slot];
+    }
+
+    /**
+     * @return the value type of the argument in the slot, or null if it has a built-in type
+     */
+    ValueType valueTypeAt(int slot) {
+        return valueTypes[slot];
+    }
+
+    /**
+     * @return the slot if it holds an argument of the value type, otherwise -1
+     */
+    int typedSlot(int slot, ValueType valueType) {
+        return slot >= 0 && valueTypes[slot] == valueType ? slot : -1;
+    }
+
+    /**
+     * @return the slot if it holds an argument of the enum class, otherwise -1
+     */
+    int enumTypedSlot(int slot, Class<?> enumType) {
+        return slot >= 0 && valueTypes[slot] instanceof EnumValueType
+                && ((EnumValueType) valueTypes[slot]).isOf(enumType) ? slot : -1;
+    }
+
+    ArgumentMarshaller newMarshaller(int slot, ConversionMode mode) {
+        return types[slot] == ArgumentType.VALUE ? new ValueArgumentMarshaller(valueTypes[slot].newConverter())
+                : types[slot].newMarshaller(names[slot], mode);
+    }
+
+    int constraintCount() {
+        return constraints.length;
+    }
+
+    OptionConstraint constraintAt(int index) {
+        return constraints[index];
+    }
+
+    /**
+     * Print a help text that shows the argument schema to the user, without the constraints.
+     */
+    public String usage() {
+        String arguments = schema;
+        int constraintsStart = schema.indexOf(CONSTRAINTS_SEPARATOR);
+        if (constraintsStart >= 0) {
+            arguments = schema.substring(0, constraintsStart).trim();
+        }
+        if (arguments.length() > 0) {
+            return "-[" + arguments + "]";
+        } else {
+            return "";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return schema;
+    }
+}
@@ -0,0 +1,388 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses command lines sent over a local socket against registered schemas, for long-lived agents that would
+ * otherwise launch a JVM per command, and replies with an {@link ArgsSnapshot} of the arguments or their errors.
+ * <p>
+ * Usage:
+ * ArgsServer server = new ArgsServer(64);
+ * server.register("admin", ArgsSchema.compile("l, p#, d*"));
+ * server.bind(Paths.get("/run/agent/args.sock"));
+ * ...
+ * ArgsSnapshot args = ArgsClient.connect(Paths.get("/run/agent/args.sock")).parse("admin", "-l -p 8080");
+ * <p>
+ * The server listens on a Unix domain socket, from Java 16 on, or on the loopback interface, and serves each
+ * connection on a thread of its own: a virtual thread where the runtime has them, from Java 21 on, otherwise
+ * a thread of the executor given. Each connection keeps one {@link ArgsParser} per schema it uses, so that
+ * parsing a request allocates no more than the reply.
+ * <p>
+ * At most the given number of requests are parsed at once. A connection reads its next request only once it has
+ * replied to the previous one, and a request read waits for a parse to complete while the limit is reached, so that
+ * clients sending faster than the server parses are slowed down by their socket buffers filling up, instead of
+ * queueing requests in the server without bound.
+ * <p>
+ * At most the given number of connections are open at once, 1024 by default, so that clients opening idle
+ * connections cannot exhaust the threads serving them; a connection accepted beyond the limit is closed at once.
+ * See {@link ServerProtocol} for the wire format.
+ */
+public final class ArgsServer implements Closeable {
+    static final int DEFAULT_MAX_CONNECTIONS = 1024;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final Map<String, ArgsSchema> schemas = new ConcurrentHashMap<>();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService connectionExecutor;
+    private final int maxConnections;
+    private final Semaphore connectionPermits;
+    private final LongAdder refused = new LongAdder();
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final AtomicInteger parsing = new AtomicInteger();
+    private final LongAccumulator maxParsing = new LongAccumulator(Math::max, 0);
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder unknownSchema = new LongAdder();
+    private final LongAdder replyTooLarge = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private ServerSocketChannel serverChannel;
+    private Path socketFile;
+    private Thread acceptor;
+
+    /**
+     * Serve up to {@value #DEFAULT_MAX_CONNECTIONS} connections on virtual threads if the runtime has them,
+     * otherwise on a cached pool of daemon threads.
+     *
+     * @param maxInFlight the number of requests parsed at once, at most
+     */
+    public ArgsServer(int maxInFlight) {
+        this(maxInFlight, DEFAULT_MAX_CONNECTIONS, newConnectionExecutor());
+    }
+
+    /**
+     * @param maxInFlight        the number of requests parsed at once, at most
+     * @param connectionExecutor runs one task per connection for as long as it is open, and is shut down on close
+     */
+    public ArgsServer(int maxInFlight, ExecutorService connectionExecutor) {
+        this(maxInFlight, DEFAULT_MAX_CONNECTIONS, connectionExecutor);
+    }
+
+    /**
+     * @param maxInFlight        the number of requests parsed at once, at most
+     * @param maxConnections     the number of connections open at once, at most, and so of connection tasks
+     * @param connectionExecutor runs one task per connection for as long as it is open, and is shut down on close
+     */
+    public ArgsServer(int maxInFlight, int maxConnections, ExecutorService connectionExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight.");
+        }
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("At least one connection must be allowed.");
+        }
+        this.maxConnections = maxConnections;
+        this.connectionPermits = new Semaphore(maxConnections);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.connectionExecutor = connectionExecutor;
+    }
+
+    static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "args-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Register a schema under a name, replacing any schema registered under that name before.
+     * Connections pick up the new schema with their next request.
+     *
+     * @param name   the name requests refer to the schema by, of at most 255 UTF-8 bytes
+     * @param schema the compiled schema, see {@link ArgsSchema#compile(String)}
+     */
+    public void register(String name, ArgsSchema schema) {
+        if (ServerProtocol.utf8(name).length > ServerProtocol.MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Schema name '" + name + "' is longer than "
+                    + ServerProtocol.MAX_NAME_LENGTH + " bytes.");
+        }
+        schemas.put(name, schema);
+    }
+
+    /**
+     * Listen on a Unix domain socket, which only the users the file permissions allow can connect to.
+     *
+     * @param socketFile the socket file to create; it must not exist yet and is deleted on close
+     * @return the address listened on
+     * @throws UnsupportedOperationException before Java 16
+     */
+    public synchronized SocketAddress bind(Path socketFile) throws IOException {
+        SocketAddress address = bind(ServerProtocol.unixAddress(socketFile));
+        this.socketFile = socketFile;
+        return address;
+    }
+
+    /**
+     * Listen on a loopback address, e.g. {@code new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)}
+     * for any free port, or on a Unix domain socket address.
+     *
+     * @return the address listened on, including the port chosen
+     * @throws IllegalArgumentException if the address is not a loopback address
+     */
+    public synchronized SocketAddress bind(SocketAddress address) throws IOException {
+        if (address instanceof InetSocketAddress && !((InetSocketAddress) address).getAddress().isLoopbackAddress()) {
+            throw new IllegalArgumentException("The server only listens on the loopback interface, not on "
+                    + address + ".");
+        }
+        if (serverChannel != null) {
+            throw new IllegalStateException("The server is already bound to " + serverChannel.getLocalAddress() + ".");
+        }
+        ServerSocketChannel channel = ServerProtocol.openServer(address);
+        try {
+            channel.bind(address);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        serverChannel = channel;
+        acceptor = new Thread(this::acceptConnections, "args-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return serverChannel.getLocalAddress();
+    }
+
+    private void acceptConnections() {
+        try {
+            while (true) {
+                SocketChannel connection = serverChannel.accept();
+                if (!connectionPermits.tryAcquire()) {
+                    refused.increment();
+                    closeQuietly(connection);
+                    continue;
+                }
+                connections.add(connection);
+                try {
+                    connectionExecutor.execute(() -> serve(connection));
+                } catch (RejectedExecutionException e) {
+                    connections.remove(connection);
+                    connectionPermits.release();
+                    closeQuietly(connection);
+                }
+            }
+        } catch (IOException e) {
+            // The server channel was closed.
+        }
+    }
+
+    private void serve(SocketChannel connection) {
+        Map<String, ArgsParser> parsers = new HashMap<>();
+        ByteBuffer request = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        ByteBuffer reply = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        try {
+            while ((request = ServerProtocol.readFrame(connection, request)) != null) {
+                long start = System.nanoTime();
+                inFlight.acquire();
+                try {
+                    maxParsing.accumulate(parsing.incrementAndGet());
+                    try {
+                        reply = handle(request, reply, parsers);
+                    } finally {
+                        parsing.decrementAndGet();
+                    }
+                    latency.record(System.nanoTime() - start);
+                } finally {
+                    inFlight.release();
+                }
+                while (reply.hasRemaining()) {
+                    connection.write(reply);
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // The client went away, sent a malformed frame, or the server is closing.
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+            connectionPermits.release();
+        }
+    }
+
+    /**
+     * Parse a request and write the reply frame into the buffer, growing it as needed.
+     *
+     * @return the buffer holding the reply frame between its position and limit
+     */
+    private ByteBuffer handle(ByteBuffer request, ByteBuffer reply, Map<String, ArgsParser> parsers)
+            throws IOException {
+        if (request.limit() < 1) {
+            throw new IOException("The request holds no schema name length.");
+        }
+        int nameLength = request.get(0) & 0xFF;
+        if (1 + nameLength > request.limit()) {
+            throw new IOException("The schema name exceeds the request.");
+        }
+        String name = new String(request.array(), 1, nameLength, StandardCharsets.UTF_8);
+        ArgsSchema schema = schemas.get(name);
+        if (schema == null) {
+            unknownSchema.increment();
+            putStatus(reply, ServerProtocol.UNKNOWN_SCHEMA).flip();
+            return reply;
+        }
+        ArgsParser parser = parsers.get(name);
+        if (parser == null || parser.getSchema() != schema) {
+            parser = new ArgsParser(schema);
+            parsers.put(name, parser);
+        }
+        if (parser.tryParse(request, 1 + nameLength, request.limit())) {
+            int size = ArgsSnapshot.sizeOf(parser);
+            if (1 + size > ServerProtocol.MAX_FRAME_SIZE) {
+                replyTooLarge.increment();
+                putStatus(reply, ServerProtocol.REPLY_TOO_LARGE);
+            } else {
+                reply = ServerProtocol.ensureCapacity(reply, 5 + size);
+                reply.clear();
+                reply.putInt(1 + size).put(ServerProtocol.OK);
+                ArgsSnapshot.encode(parser, reply);
+            }
+        } else {
+            invalid.increment();
+            reply = putErrors(reply, parser.getErrors(), parser.firstError());
+        }
+        reply.flip();
+        return reply;
+    }
+
+    private static ByteBuffer putStatus(ByteBuffer reply, byte status) {
+        reply.clear();
+        return reply.putInt(1).put(status);
+    }
+
+    /**
+     * Write the errors, followed by the error a throwing parse reports, see {@link ArgsParser#parse(String[])},
+     * or only {@link ServerProtocol#REPLY_TOO_LARGE} if they exceed the frame size.
+     */
+    private ByteBuffer putErrors(ByteBuffer reply, List<ArgsError> errors, ArgsException reported) {
+        List<ArgsError> written = new ArrayList<>(errors);
+        written.add(ServerProtocol.errorOf(reported.getErrorArgumentId(), reported.getErrorArgumentName(),
+                reported.getErrorParameter(), reported.getErrorCode(), ServerProtocol.NO_TOKEN));
+        byte[][] strings = new byte[written.size() * 3][];
+        int size = 1 + 4;
+        for (int i = 0; i < written.size(); i++) {
+            ArgsError error = written.get(i);
+            strings[3 * i] = ServerProtocol.utf8(error.getErrorCode().name());
+            strings[3 * i + 1] = ServerProtocol.utf8(error.getErrorArgumentName());
+            strings[3 * i + 2] = ServerProtocol.utf8(error.getErrorParameter());
+            size += ServerProtocol.sizeOf(strings[3 * i]) + 2 + ServerProtocol.sizeOf(strings[3 * i + 1])
+                    + ServerProtocol.sizeOf(strings[3 * i + 2]) + 4;
+        }
+        if (size > ServerProtocol.MAX_FRAME_SIZE) {
+            replyTooLarge.increment();
+            return putStatus(reply, ServerProtocol.REPLY_TOO_LARGE);
+        }
+        ByteBuffer out = ServerProtocol.ensureCapacity(reply, 4 + size);
+        out.clear();
+        out.putInt(size).put(ServerProtocol.INVALID).putInt(errors.size());
+        for (int i = 0; i < written.size(); i++) {
+            ServerProtocol.putString(out, strings[3 * i]);
+            out.putChar(written.get(i).getErrorArgumentId());
+            ServerProtocol.putString(out, strings[3 * i + 1]);
+            ServerProtocol.putString(out, strings[3 * i + 2]);
+            out.putInt(written.get(i).getTokenIndex());
+        }
+        return out;
+    }
+
+    /**
+     * Take a snapshot of the counters, e.g. to publish them to a metrics registry:
+     * <ul>
+     * <li>server.connections, server.connections.limit, server.connections.refused: the connections open,
+     * the limit of connections open at once, and the connections closed at once for exceeding it</li>
+     * <li>server.requests, server.invalid, server.unknownSchema, server.replyTooLarge: the requests served,
+     * those with invalid arguments, those naming no registered schema, and those whose reply exceeded the frame
+     * size</li>
+     * <li>server.inFlight.limit, server.inFlight.max: the limit of requests parsed at once, and the most
+     * that were</li>
+     * <li>server.nanos.p50, .p90, .p99, .max: the time from reading a request to having its reply ready</li>
+     * </ul>
+     *
+     * @return the sorted, unmodifiable snapshot
+     */
+    public Map<String, Long> snapshot() {
+        SortedMap<String, Long> snapshot = new TreeMap<>();
+        snapshot.put("server.connections", (long) connections.size());
+        snapshot.put("server.connections.limit", (long) maxConnections);
+        snapshot.put("server.connections.refused", refused.sum());
+        snapshot.put("server.requests", latency.count());
+        snapshot.put("server.invalid", invalid.sum());
+        snapshot.put("server.unknownSchema", unknownSchema.sum());
+        snapshot.put("server.replyTooLarge", replyTooLarge.sum());
+        snapshot.put("server.inFlight.limit", (long) maxInFlight);
+        snapshot.put("server.inFlight.max", maxParsing.get());
+        snapshot.put("server.nanos.p50", latency.quantileNanos(0.5));
+        snapshot.put("server.nanos.p90", latency.quantileNanos(0.9));
+        snapshot.put("server.nanos.p99", latency.quantileNanos(0.99));
+        snapshot.put("server.nanos.max", latency.maxNanos());
+        return Collections.unmodifiableSortedMap(snapshot);
+    }
+
+    /**
+     * Stop listening, close all connections and shut down the connection executor.
+     * Requests being parsed are completed, but their replies are not sent.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+                acceptor.interrupt();
+            }
+            for (SocketChannel connection : connections) {
+                closeQuietly(connection);
+            }
+            connectionExecutor.shutdownNow();
+        } finally {
+            if (socketFile != null) {
+                Files.deleteIfExists(socketFile);
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // Nothing left to do with the connection.
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compact binary form of parsed {@link Args}, for handing a parsed configuration to another process,
+ * such as a forked worker, without passing the raw arguments along and parsing them again.
+ * <p>
+ * Usage:
+ * ByteBuffer buffer = ArgsSnapshot.encode(args);
+ * ...
+ * ArgsSnapshot snapshot = ArgsSnapshot.wrap(buffer);
+ * int port = snapshot.getInt('p');
+ * <p>
+ * A snapshot holds the schema string, a table with one fixed-size entry per argument, and a data area.
+ * Each entry holds a tag, the argument's type and whether it was set, followed by its value: booleans, integers,
+ * doubles and the longs of value types in place, strings and lists as the offset and length of their bytes in the
+ * data area, where strings are UTF-8 encoded. All numbers are big-endian.
+ * <p>
+ * Wrapping a snapshot checks the header, the tags, and that the data of strings and lists, and the ordinals of
+ * enums, lie within bounds; values are read straight from the buffer on each get, whether it is a heap or a direct
+ * buffer. Only strings and lists are copied out of it, when they are read.
+ * Errors found while parsing are not part of a snapshot, so only snapshots of valid arguments should be passed on.
+ * <p>
+ * The buffer must not change while it is wrapped. Snapshots are immutable otherwise, and can be shared between
+ * threads without synchronization.
+ */
+public final class ArgsSnapshot {
+    private static final int MAGIC = 0x41524753;
+    private static final byte VERSION = 1;
+    private static final int SCHEMA_OFFSET = 9;
+    private static final int ENTRY_SIZE = 9;
+    private static final int SET_FLAG = 0x80;
+    private static final int TYPE_MASK = 0x7F;
+    private static final ArgumentType[] TYPES = ArgumentType.values();
+
+    private final ByteBuffer buffer;
+    private final int base;
+    private final ArgsSchema schema;
+    private final int table;
+
+    private ArgsSnapshot(ByteBuffer buffer, int base, ArgsSchema schema, int table) {
+        this.buffer = buffer;
+        this.base = base;
+        this.schema = schema;
+        this.table = table;
+    }
+
+    /**
+     * @return the number of bytes the snapshot of the arguments takes
+     */
+    public static int sizeOf(Args args) {
+        return sizeOf(args.parser());
+    }
+
+    static int sizeOf(ArgsParser parser) {
+        ArgsSchema schema = parser.getSchema();
+        int size = SCHEMA_OFFSET + utf8Length(schema.toString()) + 4 + schema.size() * ENTRY_SIZE;
+        for (int slot = 0; slot < schema.size(); slot++) {
+            size += dataSize(schema.typeAt(slot), parser.marshallerAt(slot));
+        }
+        return size;
+    }
+
+    private static int dataSize(ArgumentType type, ArgumentMarshaller marshaller) {
+        switch (type) {
+            case STRING:
+                return utf8Length(((ArgumentMarshaller.OfString) marshaller).getString());
+            case INTEGER_LIST:
+                return ((ArgumentMarshaller.OfIntList) marshaller).getIntList().size() * 4;
+            case DOUBLE_LIST:
+                return ((ArgumentMarshaller.OfDoubleList) marshaller).getDoubleList().size() * 8;
+            case STRING_LIST:
+                int size = 0;
+                for (String value : ((ArgumentMarshaller.OfStringList) marshaller).getStringList()) {
+                    size += 8 + utf8Length(value);
+                }
+                return size;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Encode the arguments into a new heap buffer of the exact size.
+     *
+     * @return the buffer, positioned at the start of the snapshot
+     * @throws com.capgemini.pvonnieb.exception.UncheckedArgsException if a lazily converted parameter is invalid
+     */
+    public static ByteBuffer encode(Args args) {
+        ByteBuffer buffer = ByteBuffer.allocate(sizeOf(args));
+        encode(args, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encode the arguments into a buffer, e.g. a direct buffer shared with another process,
+     * starting at its position and advancing the position past the snapshot.
+     *
+     * @param args   the parsed arguments
+     * @param target the buffer receiving the snapshot
+     * @throws BufferOverflowException if the buffer has fewer bytes remaining than {@link #sizeOf(Args)}
+     * @throws com.capgemini.pvonnieb.exception.UncheckedArgsException if a lazily converted parameter is invalid
+     */
+    public static void encode(Args args, ByteBuffer target) {
+        encode(args.parser(), target);
+    }
+
+    /**
+     * Encode the values of the last parse of a parser, see {@link #encode(Args, ByteBuffer)}.
+     */
+    static void encode(ArgsParser parser, ByteBuffer target) {
+        int size = sizeOf(parser);
+        if (target.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        ByteBuffer out = target.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int base = out.position();
+        ArgsSchema schema = parser.getSchema();
+        byte[] schemaBytes = schema.toString().getBytes(StandardCharsets.UTF_8);
+        out.putInt(MAGIC).put(VERSION).putInt(schemaBytes.length).put(schemaBytes).putInt(schema.size());
+        int entry = out.position();
+        int data = entry + schema.size() * ENTRY_SIZE;
+        for (int slot = 0; slot < schema.size(); slot++, entry += ENTRY_SIZE) {
+            ArgumentType type = schema.typeAt(slot);
+            out.put(entry, (byte) (type.ordinal() | (parser.isSet(slot) ? SET_FLAG : 0)));
+            data = encodeValue(out, base, entry + 1, data, type, parser.marshallerAt(slot));
+        }
+        target.position(base + size);
+    }
+
+    /**
+     * Write a value into its entry and, for strings and lists, into the data area.
+     *
+     * @return the offset following the data written
+     */
+    private static int encodeValue(ByteBuffer out, int base, int value, int data, ArgumentType type,
+                                   ArgumentMarshaller marshaller) {
+        switch (type) {
+            case BOOLEAN:
+                out.put(value, (byte) (((ArgumentMarshaller.OfBoolean) marshaller).getBoolean() ? 1 : 0));
+                return data;
+            case INTEGER:
+                out.putInt(value, ((ArgumentMarshaller.OfInt) marshaller).getInt());
+                return data;
+            case DOUBLE:
+                out.putDouble(value, ((ArgumentMarshaller.OfDouble) marshaller).getDouble());
+                return data;
+            case VALUE:
+                out.putLong(value, ((ArgumentMarshaller.OfLong) marshaller).getLong());
+                return data;
+            case STRING:
+                return putString(out, base, value, data, ((ArgumentMarshaller.OfString) marshaller).getString());
+            case INTEGER_LIST:
+                IntList ints = ((ArgumentMarshaller.OfIntList) marshaller).getIntList();
+                out.putInt(value, data - base).putInt(value + 4, ints.size());
+                for (int i = 0; i < ints.size(); i++, data += 4) {
+                    out.putInt(data, ints.get(i));
+                }
+                return data;
+            case DOUBLE_LIST:
+                DoubleList doubles = ((ArgumentMarshaller.OfDoubleList) marshaller).getDoubleList();
+                out.putInt(value, data - base).putInt(value + 4, doubles.size());
+                for (int i = 0; i < doubles.size(); i++, data += 8) {
+                    out.putDouble(data, doubles.get(i));
+                }
+                return data;
+            default:
+                List<String> strings = ((ArgumentMarshaller.OfStringList) marshaller).getStringList();
+                out.putInt(value, data - base).putInt(value + 4, strings.size());
+                int stringEntry = data;
+                data += strings.size() * 8;
+                for (String string : strings) {
+                    data = putString(out, base, stringEntry, data, string);
+                    stringEntry += 8;
+                }
+                return data;
+        }
+    }
+
+    private static int putString(ByteBuffer out, int base, int value, int data, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.putInt(value, data - base).putInt(value + 4, bytes.length);
+        out.position(data);
+        out.put(bytes);
+        return data + bytes.length;
+    }
+
+    /**
+     * The number of bytes UTF-8 takes for the string, counted without encoding it.
+     */
+    private static int utf8Length(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < string.length()
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Read a snapshot without copying it, starting at the position of the buffer.
+     * The buffer's position, limit and byte order are left alone.
+     *
+     * @param buffer the buffer holding a snapshot written by {@link #encode(Args, ByteBuffer)}
+     * @return the snapshot, reading its values from the buffer
+     * @throws IllegalArgumentException if the buffer does not hold a snapshot, or holds a truncated or corrupt one
+     */
+    public static ArgsSnapshot wrap(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int base = in.position();
+        if (in.remaining() < SCHEMA_OFFSET || in.getInt(base) != MAGIC) {
+            throw new IllegalArgumentException("The buffer does not hold an Args snapshot.");
+        }
+        if (in.get(base + 4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported Args snapshot version " + in.get(base + 4) + ".");
+        }
+        int schemaLength = in.getInt(base + 5);
+        if (schemaLength < 0 || schemaLength > in.limit() - base - SCHEMA_OFFSET - 4) {
+            throw corrupt();
+        }
+        byte[] schemaBytes = new byte[schemaLength];
+        in.position(base + SCHEMA_OFFSET);
+        in.get(schemaBytes);
+        ArgsSchema schema;
+        try {
+            schema = ArgsSchema.compile(new String(schemaBytes, StandardCharsets.UTF_8));
+        } catch (ArgsException e) {
+            throw new IllegalArgumentException("The Args snapshot holds an invalid schema.", e);
+        }
+        int table = in.position() + 4;
+        if (in.getInt(in.position()) != schema.size()) {
+            throw new IllegalArgumentException("The Args snapshot does not match its schema.");
+        }
+        if ((in.limit() - table) / ENTRY_SIZE < schema.size()) {
+            throw corrupt();
+        }
+        for (int slot = 0; slot < schema.size(); slot++) {
+            int entry = table + slot * ENTRY_SIZE;
+            int tag = in.get(entry) & TYPE_MASK;
+            if (tag >= TYPES.length || TYPES[tag] != schema.typeAt(slot)) {
+                throw new IllegalArgumentException("The Args snapshot does not match its schema.");
+            }
+            checkValue(in, base, entry, schema.typeAt(slot), schema.valueTypeAt(slot));
+        }
+        return new ArgsSnapshot(in, base, schema, table);
+    }
+
+    /**
+     * Check that the data of a string or list lies within the buffer, and that an enum holds an ordinal of its
+     * constants, so that no get reads out of bounds.
+     */
+    private static void checkValue(ByteBuffer in, int base, int entry, ArgumentType type, ValueType valueType) {
+        switch (type) {
+            case STRING:
+                checkData(in, base, entry + 1, 1);
+                break;
+            case INTEGER_LIST:
+                checkData(in, base, entry + 1, 4);
+                break;
+            case DOUBLE_LIST:
+                checkData(in, base, entry + 1, 8);
+                break;
+            case STRING_LIST:
+                int offset = base + checkData(in, base, entry + 1, 8);
+                for (int i = 0; i < in.getInt(entry + 5); i++) {
+                    checkData(in, base, offset + i * 8, 1);
+                }
+                break;
+            case VALUE:
+                if (valueType instanceof EnumValueType && (in.get(entry) & SET_FLAG) != 0
+                        && !((EnumValueType) valueType).hasOrdinal(in.getLong(entry + 1))) {
+                    throw corrupt();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @param value       the offset of the data's offset and length
+     * @param elementSize the number of bytes each element of the data takes
+     * @return the data's offset
+     */
+    private static int checkData(ByteBuffer in, int base, int value, int elementSize) {
+        int offset = in.getInt(value);
+        int length = in.getInt(value + 4);
+        if (offset < 0 || length < 0 || base + (long) offset + (long) length * elementSize > in.limit()) {
+            throw corrupt();
+        }
+        return offset;
+    }
+
+    private static IllegalArgumentException corrupt() {
+        return new IllegalArgumentException("The Args snapshot is truncated or corrupt.");
+    }
+
+    public ArgsSchema getSchema() {
+        return schema;
+    }
+
+    private int valueAt(int slot) {
+        return table + slot * ENTRY_SIZE + 1;
+    }
+
+    private int slotOf(char arg, ArgumentType type) {
+        int slot = schema.slotOf(arg);
+        return slot >= 0 && schema.typeAt(slot) == type ? slot : -1;
+    }
+
+    private int slotOf(String name, ArgumentType type) {
+        int slot = schema.slotOf(name);
+        return slot >= 0 && schema.typeAt(slot) == type ? slot : -1;
+    }
+
+    /**
+     * @see Args#getBoolean(char)
+     */
+    public boolean getBoolean(char arg) {
+        return booleanAt(slotOf(arg, ArgumentType.BOOLEAN));
+    }
+
+    /**
+     * @see Args#getString(char)
+     */
+    public String getString(char arg) {
+        return stringAt(slotOf(arg, ArgumentType.STRING));
+    }
+
+    /**
+     * @see Args#getInt(char)
+     */
+    public int getInt(char arg) {
+        return intAt(slotOf(arg, ArgumentType.INTEGER));
+    }
+
+    /**
+     * @see Args#getDouble(char)
+     */
+    public double getDouble(char arg) {
+        return doubleAt(slotOf(arg, ArgumentType.DOUBLE));
+    }
+
+    /**
+     * @see Args#getLong(char)
+     */
+    public long getLong(char arg) {
+        return longAt(slotOf(arg, ArgumentType.VALUE));
+    }
+
+    /**
+     * @see Args#getDuration(char)
+     */
+    public Duration getDuration(char arg) {
+        return durationAt(schema.typedSlot(schema.slotOf(arg), ValueTypes.DURATION));
+    }
+
+    /**
+     * @see Args#getEnum(char, Class)
+     */
+    public <E extends Enum<E>> E getEnum(char arg, Class<E> type) {
+        return enumAt(schema.enumTypedSlot(schema.slotOf(arg), type), type);
+    }
+
+    /**
+     * @return a copy of the values
+     * @see Args#getIntList(char)
+     */
+    public IntList getIntList(char arg) {
+        return intListAt(slotOf(arg, ArgumentType.INTEGER_LIST));
+    }
+
+    /**
+     * @return a copy of the values
+     * @see Args#getDoubleList(char)
+     */
+    public DoubleList getDoubleList(char arg) {
+        return doubleListAt(slotOf(arg, ArgumentType.DOUBLE_LIST));
+    }
+
+    /**
+     * @return a copy of the values
+     * @see Args#getStringList(char)
+     */
+    public List<String> getStringList(char arg) {
+        return stringListAt(slotOf(arg, ArgumentType.STRING_LIST));
+    }
+
+    /**
+     * @see Args#has(char)
+     */
+    public boolean has(char arg) {
+        return schema.slotOf(arg) >= 0;
+    }
+
+    /**
+     * @see Args#isGiven(char)
+     */
+    public boolean isGiven(char arg) {
+        return isSet(schema.slotOf(arg));
+    }
+
+    /**
+     * @see Args#getBoolean(String)
+     */
+    public boolean getBoolean(String name) {
+        return booleanAt(slotOf(name, ArgumentType.BOOLEAN));
+    }
+
+    /**
+     * @see Args#getString(String)
+     */
+    public String getString(String name) {
+        return stringAt(slotOf(name, ArgumentType.STRING));
+    }
+
+    /**
+     * @see Args#getInt(String)
+     */
+    public int getInt(String name) {
+        return intAt(slotOf(name, ArgumentType.INTEGER));
+    }
+
+    /**
+     * @see Args#getDouble(String)
+     */
+    public double getDouble(String name) {
+        return doubleAt(slotOf(name, ArgumentType.DOUBLE));
+    }
+
+    /**
+     * @see Args#getLong(String)
+     */
+    public long getLong(String name) {
+        return longAt(slotOf(name, ArgumentType.VALUE));
+    }
+
+    /**
+     * @see Args#getDuration(String)
+     */
+    public Duration getDuration(String name) {
+        return durationAt(schema.typedSlot(schema.slotOf(name), ValueTypes.DURATION));
+    }
+
+    /**
+     * @see Args#getEnum(String, Class)
+     */
+    public <E extends Enum<E>> E getEnum(String name, Class<E> type) {
+        return enumAt(schema.enumTypedSlot(schema.slotOf(name), type), type);
+    }
+
+    /**
+     * @see #getIntList(char)
+     */
+    public IntList getIntList(String name) {
+        return intListAt(slotOf(name, ArgumentType.INTEGER_LIST));
+    }
+
+    /**
+     * @see #getDoubleList(char)
+     */
+    public DoubleList getDoubleList(String name) {
+        return doubleListAt(slotOf(name, ArgumentType.DOUBLE_LIST));
+    }
+
+    /**
+     * @see #getStringList(char)
+     */
+    public List<String> getStringList(String name) {
+        return stringListAt(slotOf(name, ArgumentType.STRING_LIST));
+    }
+
+    /**
+     * @see Args#has(String)
+     */
+    public boolean has(String name) {
+        return schema.slotOf(name) >= 0;
+    }
+
+    /**
+     * @see Args#isGiven(String)
+     */
+    public boolean isGiven(String name) {
+        return isSet(schema.slotOf(name));
+    }
+
+    private boolean isSet(int slot) {
+        return slot >= 0 && (buffer.get(table + slot * ENTRY_SIZE) & SET_FLAG) != 0;
+    }
+
+    private boolean booleanAt(int slot) {
+        return slot >= 0 && buffer.get(valueAt(slot)) != 0;
+    }
+
+    private int intAt(int slot) {
+        return slot < 0 ? 0 : buffer.getInt(valueAt(slot));
+    }
+
+    private double doubleAt(int slot) {
+        return slot < 0 ? 0 : buffer.getDouble(valueAt(slot));
+    }
+
+    private long longAt(int slot) {
+        return slot < 0 ? 0 : buffer.getLong(valueAt(slot));
+    }
+
+    private Duration durationAt(int slot) {
+        return slot < 0 ? Duration.ZERO : Duration.ofNanos(longAt(slot));
+    }
+
+    private <E extends Enum<E>> E enumAt(int slot, Class<E> type) {
+        return !isSet(slot) ? null : type.cast(((EnumValueType) schema.valueTypeAt(slot)).constantAt(longAt(slot)));
+    }
+
+    private String stringAt(int slot) {
+        return slot < 0 ? "" : stringAtEntry(valueAt(slot));
+    }
+
+    /**
+     * @param value the offset of the string's offset and length
+     */
+    private String stringAtEntry(int value) {
+        int offset = base + buffer.getInt(value);
+        int length = buffer.getInt(value + 4);
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private IntList intListAt(int slot) {
+        IntList values = new IntList();
+        if (slot >= 0) {
+            int offset = base + buffer.getInt(valueAt(slot));
+            int size = buffer.getInt(valueAt(slot) + 4);
+            for (int i = 0; i < size; i++) {
+                values.add(buffer.getInt(offset + i * 4));
+            }
+        }
+        return values;
+    }
+
+    private DoubleList doubleListAt(int slot) {
+        DoubleList values = new DoubleList();
+        if (slot >= 0) {
+            int offset = base + buffer.getInt(valueAt(slot));
+            int size = buffer.getInt(valueAt(slot) + 4);
+            for (int i = 0; i < size; i++) {
+                values.add(buffer.getDouble(offset + i * 8));
+            }
+        }
+        return values;
+    }
+
+    private List<String> stringListAt(int slot) {
+        if (slot < 0) {
+            return Collections.emptyList();
+        }
+        int offset = base + buffer.getInt(valueAt(slot));
+        int size = buffer.getInt(valueAt(slot) + 4);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(stringAtEntry(offset + i * 8));
+        }
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,125 @@
+package com.capgemini.pvonnieb;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the argument tokens while keeping track of the position of the token returned last,
+ * so that errors can be attributed to the token they were found in.
+ * Subclasses supply the tokens, whether from an array or by tokenizing raw input on the fly,
+ * and can be reset so that repeated parses need not allocate a new cursor.
+ * <p>
+ * Besides materializing tokens as Strings through {@link #next()}, a cursor hands out views of them:
+ * {@link #nextArgument()} for the tokens the parse walks through, and {@link #nextParameter()} for the
+ * parameters consumed by marshallers. A view stays valid until the next token of the same kind is read.
+ * <p>
+ * A parameter given inline with its option, as in "--port=3002", is set aside through
+ * {@link #setInlineParameter(CharSequence, int, int)} and handed out as the next parameter
+ * without advancing the position.
+ */
+abstract class ArgumentCursor implements Iterator<String> {
+    private CharSlice inlineParameter;
+    private boolean inlineParameterPending;
+    private int position = -1;
+    private int reads;
+    private CharSequence current;
+
+    @Override
+    public final boolean hasNext() {
+        return inlineParameterPending || hasNextToken();
+    }
+
+    @Override
+    public String next() {
+        return nextParameter().toString();
+    }
+
+    CharSequence nextParameter() {
+        return read(true);
+    }
+
+    CharSequence nextArgument() {
+        return read(false);
+    }
+
+    private CharSequence read(boolean parameter) {
+        reads++;
+        if (parameter && inlineParameterPending) {
+            inlineParameterPending = false;
+            current = inlineParameter;
+            return current;
+        }
+        inlineParameterPending = false;
+        if (!hasNextToken()) {
+            throw new NoSuchElementException();
+        }
+        current = readToken(parameter);
+        position++;
+        return current;
+    }
+
+    /**
+     * Make a range of the current argument the next parameter, until it is read or cleared.
+     */
+    void setInlineParameter(CharSequence chars, int from, int to) {
+        if (inlineParameter == null) {
+            inlineParameter = new CharSlice();
+        }
+        inlineParameter.set(chars, from, to);
+        inlineParameterPending = true;
+    }
+
+    void clearInlineParameter() {
+        inlineParameterPending = false;
+    }
+
+    /**
+     * @return whether another token follows, not counting an inline parameter
+     */
+    protected abstract boolean hasNextToken();
+
+    /**
+     * Read the next token; only called when {@link #hasNextToken()} is true.
+     *
+     * @param parameter whether the token is read as a parameter or as an argument
+     */
+    protected abstract CharSequence readToken(boolean parameter);
+
+    protected void restart() {
+        position = -1;
+        reads = 0;
+        current = null;
+        inlineParameterPending = false;
+    }
+
+    /**
+     * @return the index of the token returned last, or -1 before the first token was read
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * @return the number of tokens and inline parameters read so far, which tells whether a read took place
+     * even if it did not advance the position
+     */
+    int reads() {
+        return reads;
+    }
+
+    String current() {
+        return current.toString();
+    }
+
+    /**
+     * @return whether the argument ends the options, after which the parse stops; only the end-of-options marker
+     * "--" of a command line does, while in an array as passed to a main method "--" is the unexpected argument '-'
+     */
+    boolean isEndOfOptions(CharSequence argument) {
+        return false;
+    }
+
+    static boolean isEndOfOptionsMarker(CharSequence argument) {
+        return argument.length() == 2 && argument.charAt(0) == '-' && argument.charAt(1) == '-';
+    }
+}
@@ -0,0 +1,58 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.util.List;
+
+/**
+ * Consumes an argument's parameters, if any, and holds the resulting value.
+ * Values are read through the typed specializations, so that primitive values never have to be boxed.
+ * <p>
+ * Marshallers report invalid or missing parameters through their return value rather than by throwing,
+ * leaving it to the caller whether an error is collected or thrown.
+ */
+interface ArgumentMarshaller {
+
+    /**
+     * @param currentArgument the remaining argument tokens, positioned after the argument itself
+     * @return null if the argument was set, otherwise the code of the error that prevented it
+     */
+    ErrorCode set(ArgumentCursor currentArgument);
+
+    /**
+     * Restore the value the marshaller had before its first {@link #set(ArgumentCursor)}, so it can be reused.
+     */
+    void reset();
+
+    interface OfBoolean extends ArgumentMarshaller {
+        boolean getBoolean();
+    }
+
+    interface OfInt extends ArgumentMarshaller {
+        int getInt();
+    }
+
+    interface OfLong extends ArgumentMarshaller {
+        long getLong();
+    }
+
+    interface OfDouble extends ArgumentMarshaller {
+        double getDouble();
+    }
+
+    interface OfString extends ArgumentMarshaller {
+        String getString();
+    }
+
+    interface OfIntList extends ArgumentMarshaller {
+        IntList getIntList();
+    }
+
+    interface OfDoubleList extends ArgumentMarshaller {
+        DoubleList getDoubleList();
+    }
+
+    interface OfStringList extends ArgumentMarshaller {
+        List<String> getStringList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * The value types an argument can be declared with in a schema,
+ * identified by the suffix following the argument's name.
+ * The type doubles as the tag the getters check before reading a marshaller's value.
+ */
+enum ArgumentType {
+    BOOLEAN(""),
+    STRING("*"),
+    INTEGER("#"),
+    DOUBLE("##"),
+    STRING_LIST("[*]"),
+    INTEGER_LIST("[#]"),
+    DOUBLE_LIST("[##]"),
+    /**
+     * A {@link ValueType} declared by its name in angle brackets, e.g. "t&lt;duration&gt;", which the schema resolves.
+     */
+    VALUE(null);
+
+    private static final char VALUE_TYPE_START = '<';
+    private static final char VALUE_TYPE_END = '>';
+
+    private final String suffix;
+
+    ArgumentType(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /**
+     * Look up the type declared by a schema element's suffix.
+     *
+     * @param suffix the part of the schema element following the argument's name
+     * @return the matching type, or null if the suffix is unknown
+     */
+    static ArgumentType forSuffix(String suffix) {
+        for (ArgumentType type : values()) {
+            if (suffix.equals(type.suffix)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the character can start a type suffix
+     */
+    static boolean isSuffixChar(char c) {
+        return c == '*' || c == '#' || c == '[' || c == VALUE_TYPE_START;
+    }
+
+    /**
+     * @return the name of the value type the suffix declares, e.g. "duration" for "&lt;duration&gt;",
+     * or null if it declares none
+     */
+    static String valueTypeNameOf(String suffix) {
+        return suffix.length() > 2 && suffix.charAt(0) == VALUE_TYPE_START
+                && suffix.charAt(suffix.length() - 1) == VALUE_TYPE_END
+                ? suffix.substring(1, suffix.length() - 1) : null;
+    }
+
+    /**
+     * @return whether the argument collects the values of all its occurrences rather than keeping the last
+     */
+    boolean isList() {
+        return this == STRING_LIST || this == INTEGER_LIST || this == DOUBLE_LIST;
+    }
+
+    ArgumentMarshaller newMarshaller(String argumentName, ConversionMode mode) {
+        switch (this) {
+            case STRING:
+                return new StringArgumentMarshaller();
+            case INTEGER:
+                return mode == ConversionMode.LAZY
+                        ? new LazyIntegerArgumentMarshaller(argumentName) : new IntegerArgumentMarshaller();
+            case DOUBLE:
+                return mode == ConversionMode.LAZY
+                        ? new LazyDoubleArgumentMarshaller(argumentName) : new DoubleArgumentMarshaller();
+            case STRING_LIST:
+                return new StringListArgumentMarshaller();
+            case INTEGER_LIST:
+                return new IntegerListArgumentMarshaller();
+            case DOUBLE_LIST:
+                return new DoubleListArgumentMarshaller();
+            default:
+                return new BooleanArgumentMarshaller();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * Iterates over arguments that have already been split into an array, as passed to a main method,
+ * or over the tokens of a command line, which end the options at "--".
+ */
+class ArrayArgumentCursor extends ArgumentCursor {
+    private String[] args = new String[0];
+    private boolean tokens;
+
+    void reset(String[] args) {
+        this.args = args;
+        this.tokens = false;
+        restart();
+    }
+
+    void resetTokens(String[] tokens) {
+        this.args = tokens;
+        this.tokens = true;
+        restart();
+    }
+
+    @Override
+    boolean isEndOfOptions(CharSequence argument) {
+        return tokens && isEndOfOptionsMarker(argument);
+    }
+
+    @Override
+    protected boolean hasNextToken() {
+        return position() + 1 < args.length;
+    }
+
+    @Override
+    protected CharSequence readToken(boolean parameter) {
+        return args[position() + 1];
+    }
+}
@@ -0,0 +1,45 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of {@link ArgsBatch#parseAll(ArgsSchema, List)}: one parse result per argument list in input order,
+ * and how often each error code occurred across all of them.
+ */
+public final class BatchResult {
+    private final List<ParseResult> results;
+    private final Map<ErrorCode, Long> errorCounts;
+
+    BatchResult(List<ParseResult> results, Map<ErrorCode, Long> errorCounts) {
+        this.results = Collections.unmodifiableList(results);
+        this.errorCounts = Collections.unmodifiableMap(errorCounts);
+    }
+
+    public List<ParseResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the number of errors found per error code, including codes that never occurred
+     */
+    public Map<ErrorCode, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    /**
+     * @return the number of argument lists with at least one error
+     */
+    public long getInvalidCount() {
+        long invalidCount = 0;
+        for (ParseResult result : results) {
+            if (!result.isValid()) {
+                invalidCount++;
+            }
+        }
+        return invalidCount;
+    }
+}
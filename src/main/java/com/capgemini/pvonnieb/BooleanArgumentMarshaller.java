@@ -0,0 +1,25 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+class BooleanArgumentMarshaller implements ArgumentMarshaller.OfBoolean {
+
+    private boolean booleanValue = false;
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        booleanValue = true;
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        booleanValue = false;
+    }
+
+    @Override
+    public boolean getBoolean() {
+        return booleanValue;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * Tokenizes a character sequence, see {@link TokenizingCursor} for the quoting rules.
+ * Tokens without quotes or escapes are handed out as views of the input itself, without copying.
+ */
+class CharSequenceCursor extends TokenizingCursor {
+    private CharSequence input;
+
+    void reset(CharSequence input) {
+        this.input = input;
+        reset(0, input.length());
+    }
+
+    @Override
+    int unitAt(int offset) {
+        return input.charAt(offset);
+    }
+
+    @Override
+    CharSequence verbatimToken(TokenBuffer token, int from, int to) {
+        return token.view.set(input, from, to);
+    }
+
+    @Override
+    CharSequence collectedToken(TokenBuffer token) {
+        char[] chars = token.chars(token.length);
+        for (int i = 0; i < token.length; i++) {
+            chars[i] = (char) token.units[i];
+        }
+        return token.view.set(chars, 0, token.length);
+    }
+}
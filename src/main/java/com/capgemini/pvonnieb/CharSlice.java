@@ -0,0 +1,59 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * A reusable view of a range of characters, backed either by another character sequence or by a char array.
+ * Views are handed out without copying; only {@link #toString()} materializes a String.
+ */
+final class CharSlice implements CharSequence {
+    private CharSequence sequence;
+    private char[] array;
+    private int from;
+    private int to;
+
+    CharSlice set(CharSequence sequence, int from, int to) {
+        this.sequence = sequence;
+        this.array = null;
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    CharSlice set(char[] array, int from, int to) {
+        this.sequence = null;
+        this.array = array;
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return to - from;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        }
+        return array != null ? array[from + index] : sequence.charAt(from + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+        }
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (array != null) {
+            return new String(array, from, length());
+        } else if (sequence instanceof String) {
+            return ((String) sequence).substring(from, to);
+        }
+        return new StringBuilder(length()).append(sequence, from, to).toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.capgemini.pvonnieb;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses a file holding one command line per line, such as an audit log of recorded invocations,
+ * against a compiled schema.
+ * <p>
+ * Usage:
+ * new CommandLineFileParser(ArgsSchema.compile("l, p#, d*")).parse(auditFile, (line, result) -> ...);
+ * <p>
+ * The file is memory-mapped one window at a time and every line is tokenized straight from the mapped bytes
+ * (see {@link TokenizingCursor} for the quoting rules), without splitting it into a String array first.
+ * Results are handed to the handler as soon as their line is parsed, so the memory used does not depend on
+ * the size of the file. Lines are separated by '\n'; a line must fit into a single window.
+ */
+public final class CommandLineFileParser {
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final ArgsSchema schema;
+    private final int windowSize;
+    private final Utf8Cursor currentLine = new Utf8Cursor();
+
+    public CommandLineFileParser(ArgsSchema schema) {
+        this(schema, DEFAULT_WINDOW_SIZE);
+    }
+
+    CommandLineFileParser(ArgsSchema schema, int windowSize) {
+        this.schema = schema;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Receives the parse result of each line, in file order.
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+        /**
+         * @param lineNumber the number of the line, starting at 1
+         * @param result     the parse result of the line, as by {@link Args#tryParse(ArgsSchema, String[])}
+         */
+        void handle(long lineNumber, ParseResult result);
+    }
+
+    /**
+     * Parse every line of a file.
+     *
+     * @param file    a UTF-8 encoded file with one command line per line
+     * @param handler receives the parse result of each line
+     * @return the number of lines parsed
+     * @throws IOException if the file cannot be read, or holds a line longer than the mapping window
+     */
+    public long parse(Path file, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowStart = 0;
+            long lineNumber = 0;
+            while (windowStart < size) {
+                int length = (int) Math.min(windowSize, size - windowStart);
+                boolean lastWindow = windowStart + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        handler.handle(++lineNumber, parseLine(window, lineStart, i));
+                        lineStart = i + 1;
+                    }
+                }
+                if (lastWindow && lineStart < length) {
+                    handler.handle(++lineNumber, parseLine(window, lineStart, length));
+                    lineStart = length;
+                } else if (!lastWindow && lineStart == 0) {
+                    throw new IOException("Line " + (lineNumber + 1) + " of " + file
+                            + " does not fit into a window of " + windowSize + " bytes.");
+                }
+                windowStart += lineStart;
+            }
+            return lineNumber;
+        }
+    }
+
+    private ParseResult parseLine(MappedByteBuffer window, int from, int to) {
+        currentLine.reset(window, from, to);
+        return Args.tryParse(schema, currentLine);
+    }
+}
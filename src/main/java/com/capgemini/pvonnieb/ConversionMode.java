@@ -0,0 +1,18 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * When numeric parameters are converted to their values.
+ */
+public enum ConversionMode {
+    /**
+     * Convert and validate every parameter while parsing; invalid parameters are parse errors.
+     */
+    STRICT,
+    /**
+     * Only record the parameter while parsing and convert it on the first read of its value.
+     * Invalid parameters surface as an {@link com.capgemini.pvonnieb.exception.UncheckedArgsException}
+     * from that read. Missing parameters are still parse errors.
+     * The values of list arguments are always converted while parsing.
+     */
+    LAZY
+}
@@ -0,0 +1,34 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_DOUBLE;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_DOUBLE;
+
+class DoubleArgumentMarshaller implements ArgumentMarshaller.OfDouble {
+    private final NumberParser numbers = new NumberParser();
+    private double doubleValue = 0;
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_DOUBLE;
+        }
+        CharSequence parameter = currentArgument.nextParameter();
+        if (!numbers.parseDouble(parameter, 0, parameter.length())) {
+            return INVALID_DOUBLE;
+        }
+        doubleValue = numbers.doubleValue();
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        doubleValue = 0;
+    }
+
+    @Override
+    public double getDouble() {
+        return doubleValue;
+    }
+}
@@ -0,0 +1,48 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_DOUBLE;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_DOUBLE;
+
+/**
+ * Collects the values of a double list argument, given repeatedly as in "-r 0.5 -r 2",
+ * comma-separated as in "-r 0.5,2", or both.
+ * A parameter holding an invalid value adds none of its values.
+ */
+class DoubleListArgumentMarshaller implements ArgumentMarshaller.OfDoubleList {
+
+    private final NumberParser numbers = new NumberParser();
+    private final DoubleList values = new DoubleList();
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_DOUBLE;
+        }
+        CharSequence parameter = currentArgument.nextParameter();
+        int sizeBefore = values.size();
+        int from = 0;
+        while (from <= parameter.length()) {
+            int to = ListParameters.endOfValue(parameter, from);
+            if (!numbers.parseDouble(parameter, from, to)) {
+                values.truncate(sizeBefore);
+                return INVALID_DOUBLE;
+            }
+            values.add(numbers.doubleValue());
+            from = to + 1;
+        }
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        values.truncate(0);
+    }
+
+    @Override
+    public DoubleList getDoubleList() {
+        return values;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.capgemini.pvonnieb;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The value type of an enum, see {@link ValueTypes#ofEnum(Class)}.
+ * The names of the constants, and their names in lower case where that is no other constant's name,
+ * are compiled into an {@link OptionTrie} once, so that converting a parameter is an exact lookup that neither
+ * allocates nor throws. Arguments hold the ordinal of the constant given. Value types of the same enum are equal.
+ */
+final class EnumValueType implements ValueType {
+    private final Class<?> type;
+    private final Enum<?>[] constants;
+    private final OptionTrie names;
+
+    EnumValueType(Class<? extends Enum<?>> type) {
+        this.type = type;
+        this.constants = type.getEnumConstants();
+        Set<String> taken = new HashSet<>();
+        for (Enum<?> constant : constants) {
+            taken.add(constant.name());
+        }
+        List<String> spellings = new ArrayList<>();
+        List<Integer> ordinals = new ArrayList<>();
+        for (Enum<?> constant : constants) {
+            spellings.add(constant.name());
+            ordinals.add(constant.ordinal());
+            String lowerCase = constant.name().toLowerCase(Locale.ROOT);
+            if (taken.add(lowerCase)) {
+                spellings.add(lowerCase);
+                ordinals.add(constant.ordinal());
+            }
+        }
+        int[] slots = new int[ordinals.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = ordinals.get(i);
+        }
+        this.names = new OptionTrie(spellings.toArray(new String[0]), slots);
+    }
+
+    /**
+     * @return whether the constants are those of the enum class
+     */
+    boolean isOf(Class<?> enumType) {
+        return type == enumType;
+    }
+
+    boolean hasOrdinal(long ordinal) {
+        return ordinal >= 0 && ordinal < constants.length;
+    }
+
+    Enum<?> constantAt(long ordinal) {
+        return constants[(int) ordinal];
+    }
+
+    @Override
+    public ValueConverter newConverter() {
+        return new Converter();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EnumValueType)) {
+            return false;
+        }
+        return type == ((EnumValueType) o).type;
+    }
+
+    @Override
+    public int hashCode() {
+        return type.hashCode();
+    }
+
+    private final class Converter implements ValueConverter {
+        private int ordinal;
+
+        @Override
+        public boolean convert(CharSequence chars, int from, int to) {
+            int found = from < to ? names.slotOf(chars, from, to) : OptionTrie.NOT_FOUND;
+            if (found < 0) {
+                return false;
+            }
+            ordinal = found;
+            return true;
+        }
+
+        @Override
+        public long value() {
+            return ordinal;
+        }
+    }
+}
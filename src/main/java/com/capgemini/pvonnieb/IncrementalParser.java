@@ -0,0 +1,732 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.AMBIGUOUS_ARGUMENT;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.UNEXPECTED_ARGUMENT;
+
+/**
+ * Keeps the arguments of a command line parsed while it is edited token by token, as in an interactive console
+ * that validates and completes the line on every keystroke.
+ * <p>
+ * Usage:
+ * IncrementalParser parser = new IncrementalParser(ArgsSchema.compile("l, p#, d*"));
+ * parser.insert(0, "-p");
+ * parser.insert(1, "30");
+ * parser.replace(1, "3002");
+ * int port = parser.getInt('p');
+ * List<String> options = parser.completionsAt(2);
+ * <p>
+ * After every edit the values, errors and given arguments are those {@link ArgsParser#tryParse(CharSequence)}
+ * would find for the command line of the current tokens, which ends the options at "--", but only the edited tokens and the tokens whose role they change are parsed again.
+ * An option token owns the parameter tokens following it, one for each option in it that takes a parameter, so
+ * an edit can only change the role of the tokens up to where the options line up with the previous parse again.
+ * Each argument keeps its occurrences in token order, and only the arguments whose occurrences changed have their
+ * values recomputed, from the last valid occurrence, or from all of them for lists.
+ * <p>
+ * An incremental parser does not report to the installed {@link ParseListener}. It is not thread-safe.
+ */
+public final class IncrementalParser {
+    private static final byte UNPARSED = 0;
+    private static final byte OPTION = 1;
+    private static final byte PARAMETER = 2;
+    private static final byte OPERAND = 3;
+    private static final byte END_OF_OPTIONS = 4;
+    private static final byte IGNORED = 5;
+
+    private static final long ORDER_GAP = 1L << 32;
+    private static final Element[] NO_ELEMENTS = new Element[0];
+    private static final String[] NO_ARGS = new String[0];
+
+    private final ArgsSchema schema;
+    private final ArgsParser values;
+    private final List<Token> tokens = new ArrayList<>();
+    private final List<List<Element>> occurrences;
+    private final long[] givenSlots;
+    private final long[] dirtySlots;
+    private final ArrayArgumentCursor replay = new ArrayArgumentCursor();
+    private int tokenErrorCount;
+
+    public IncrementalParser(ArgsSchema schema) {
+        this.schema = schema;
+        this.values = new ArgsParser(schema);
+        this.occurrences = new ArrayList<>(schema.size());
+        for (int slot = 0; slot < schema.size(); slot++) {
+            occurrences.add(new ArrayList<>(1));
+        }
+        this.givenSlots = new long[(schema.size() + 63) >>> 6];
+        this.dirtySlots = new long[givenSlots.length];
+    }
+
+    /**
+     * Replace all tokens, parsing them from scratch.
+     */
+    public void reset(String[] args) {
+        edit(0, tokens.size(), args);
+    }
+
+    /**
+     * @param index the index the token is inserted at, from 0 to {@link #size()}
+     */
+    public void insert(int index, String token) {
+        if (index < 0 || index > tokens.size()) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + tokens.size());
+        }
+        edit(index, 0, new String[]{token});
+    }
+
+    public void replace(int index, String token) {
+        checkIndex(index);
+        edit(index, 1, new String[]{token});
+    }
+
+    public void remove(int index) {
+        checkIndex(index);
+        edit(index, 1, NO_ARGS);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= tokens.size()) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + tokens.size());
+        }
+    }
+
+    /**
+     * Replace a range of tokens and parse the tokens whose role may have changed.
+     */
+    private void edit(int from, int removed, String[] inserted) {
+        for (int i = from; i < from + removed; i++) {
+            detach(tokens.get(i));
+        }
+        tokens.subList(from, from + removed).clear();
+        for (int i = 0; i < inserted.length; i++) {
+            tokens.add(from + i, new Token(inserted[i], orderBetween(from + i)));
+        }
+        int start = from > 0 ? segmentStart(from - 1) : 0;
+        reparse(start, from + inserted.length);
+        recomputeDirtySlots();
+    }
+
+    /**
+     * @return the index of the token that starts the segment the token at the index belongs to
+     */
+    private int segmentStart(int index) {
+        while (tokens.get(index).role == PARAMETER) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Parse the segments from the start on, up to the first segment after the edited range that starts where one
+     * started before, from where on the tokens keep their roles.
+     */
+    private void reparse(int start, int editEnd) {
+        boolean ignored = start > 0 && (tokens.get(start - 1).role == END_OF_OPTIONS
+                || tokens.get(start - 1).role == IGNORED);
+        int index = start;
+        while (index < tokens.size()) {
+            Token token = tokens.get(index);
+            if (ignored) {
+                if (token.role == IGNORED && index >= editEnd) {
+                    return;
+                }
+                detach(token);
+                token.role = IGNORED;
+                index++;
+            } else if (index >= editEnd && (token.role == OPTION || token.role == OPERAND
+                    || token.role == END_OF_OPTIONS)) {
+                return;
+            } else {
+                index += parseSegment(index);
+                ignored = token.role == END_OF_OPTIONS;
+            }
+        }
+    }
+
+    /**
+     * @return the number of tokens the segment takes, the option token and its parameters
+     */
+    private int parseSegment(int index) {
+        Token token = tokens.get(index);
+        detach(token);
+        String text = token.text;
+        if (text.length() == 2 && text.charAt(0) == '-' && text.charAt(1) == '-') {
+            token.role = END_OF_OPTIONS;
+            return 1;
+        }
+        if (text.isEmpty() || text.charAt(0) != '-') {
+            token.role = OPERAND;
+            return 1;
+        }
+        token.role = OPTION;
+        int parameters = text.length() > 2 && text.charAt(1) == '-'
+                ? parseLongOption(token, index) : parseElements(token, index);
+        tokenErrorCount += token.errorCount();
+        return 1 + parameters;
+    }
+
+    private int parseLongOption(Token token, int index) {
+        String text = token.text;
+        int nameEnd = 2;
+        while (nameEnd < text.length() && text.charAt(nameEnd) != '=') {
+            nameEnd++;
+        }
+        int slot = schema.resolveLongOption(text, 2, nameEnd);
+        if (slot == OptionTrie.AMBIGUOUS) {
+            token.addError(new TokenError('\0', null, text.substring(0, nameEnd), AMBIGUOUS_ARGUMENT, 0));
+        } else if (slot < 0) {
+            String option = text.substring(0, nameEnd);
+            token.addError(new TokenError('\0', option, option, UNEXPECTED_ARGUMENT, 0));
+        } else if (nameEnd == text.length()) {
+            token.elements = new Element[1];
+            return addElement(token, index, 0, slot, 0);
+        } else if (schema.typeAt(slot) == ArgumentType.BOOLEAN) {
+            token.addError(new TokenError('\0', text, text, UNEXPECTED_ARGUMENT, 0));
+        } else {
+            token.elements = new Element[]{new Element(token, 0, slot)};
+            setElement(token, token.elements[0], 0, text.substring(nameEnd + 1));
+        }
+        return 0;
+    }
+
+    private int parseElements(Token token, int index) {
+        String text = token.text;
+        token.elements = new Element[text.length() - 1];
+        int parameters = 0;
+        for (int i = 1; i < text.length(); i++) {
+            char id = text.charAt(i);
+            int slot = schema.slotOf(id);
+            if (slot < 0) {
+                token.addError(new TokenError(id, null, String.valueOf(id), UNEXPECTED_ARGUMENT, 0));
+            } else {
+                parameters += addElement(token, index, i - 1, slot, parameters);
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Add an occurrence of an argument, taking the next token as its parameter if the argument has one.
+     *
+     * @param parameters the number of parameters the options before it in the token took
+     * @return the number of parameter tokens taken
+     */
+    private int addElement(Token token, int index, int position, int slot, int parameters) {
+        Element element = new Element(token, position, slot);
+        token.elements[position] = element;
+        int parameterIndex = index + 1 + parameters;
+        if (schema.typeAt(slot) == ArgumentType.BOOLEAN || parameterIndex >= tokens.size()) {
+            setElement(token, element, 0, null);
+            return 0;
+        }
+        Token parameter = tokens.get(parameterIndex);
+        detach(parameter);
+        parameter.role = PARAMETER;
+        setElement(token, element, 1 + parameters, parameter.text);
+        return 1;
+    }
+
+    /**
+     * Set the argument from the parameter to find out whether the occurrence is valid, and file it with the
+     * argument's occurrences, whose value is recomputed once the edit is parsed.
+     *
+     * @param offset    the offset of the parameter token from the option token, or 0 for an inline parameter
+     * @param parameter the parameter, or null if there is none
+     */
+    private void setElement(Token token, Element element, int offset, String parameter) {
+        element.parameter = parameter;
+        element.error = set(element.slot, parameter);
+        if (element.error != null) {
+            token.addError(parameter == null
+                    ? new TokenError('\0', schema.nameAt(element.slot), null, element.error, 0)
+                    : new TokenError('\0', schema.nameAt(element.slot), parameter, element.error, offset));
+        }
+        List<Element> slotOccurrences = occurrences.get(element.slot);
+        int insertAt = slotOccurrences.size();
+        while (insertAt > 0 && slotOccurrences.get(insertAt - 1).compareTo(element) > 0) {
+            insertAt--;
+        }
+        slotOccurrences.add(insertAt, element);
+        markDirty(element.slot);
+    }
+
+    private ErrorCode set(int slot, String parameter) {
+        replay.reset(NO_ARGS);
+        if (parameter != null) {
+            replay.setInlineParameter(parameter, 0, parameter.length());
+        }
+        return values.marshallerAt(slot).set(replay);
+    }
+
+    /**
+     * Withdraw what the token contributed as an option, so that it can be parsed again or removed.
+     */
+    private void detach(Token token) {
+        tokenErrorCount -= token.errorCount();
+        token.errors = null;
+        for (Element element : token.elements) {
+            if (element != null) {
+                occurrences.get(element.slot).remove(element);
+                markDirty(element.slot);
+            }
+        }
+        token.elements = NO_ELEMENTS;
+        token.role = UNPARSED;
+    }
+
+    private void markDirty(int slot) {
+        dirtySlots[slot >>> 6] |= 1L << slot;
+    }
+
+    /**
+     * Recompute the values of the arguments whose occurrences changed: a single-valued argument takes the value
+     * of its last valid occurrence, a list the values of all of them.
+     */
+    private void recomputeDirtySlots() {
+        for (int word = 0; word < dirtySlots.length; word++) {
+            for (long dirty = dirtySlots[word]; dirty != 0; dirty &= dirty - 1) {
+                recompute((word << 6) + Long.numberOfTrailingZeros(dirty));
+            }
+            dirtySlots[word] = 0;
+        }
+    }
+
+    private void recompute(int slot) {
+        values.marshallerAt(slot).reset();
+        List<Element> slotOccurrences = occurrences.get(slot);
+        boolean set = false;
+        if (schema.typeAt(slot).isList()) {
+            for (Element element : slotOccurrences) {
+                if (element.error == null) {
+                    set(slot, element.parameter);
+                    set = true;
+                }
+            }
+        } else {
+            for (int i = slotOccurrences.size() - 1; i >= 0 && !set; i--) {
+                if (slotOccurrences.get(i).error == null) {
+                    set(slot, slotOccurrences.get(i).parameter);
+                    set = true;
+                }
+            }
+        }
+        values.markSet(slot, set);
+        if (slotOccurrences.isEmpty()) {
+            givenSlots[slot >>> 6] &= ~(1L << slot);
+        } else {
+            givenSlots[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    /**
+     * @return an order key between those of the tokens around the index, renumbering all tokens if there is none
+     */
+    private long orderBetween(int index) {
+        long before = index > 0 ? tokens.get(index - 1).order : 0;
+        long after = index < tokens.size() ? tokens.get(index).order : before + 2 * ORDER_GAP;
+        if (after - before < 2) {
+            for (int i = 0; i < tokens.size(); i++) {
+                tokens.get(i).order = (i + 1) * ORDER_GAP;
+            }
+            return orderBetween(index);
+        }
+        return before + (after - before) / 2;
+    }
+
+    /**
+     * @return the number of tokens
+     */
+    public int size() {
+        return tokens.size();
+    }
+
+    /**
+     * @return the current tokens
+     */
+    public String[] tokens() {
+        String[] texts = new String[tokens.size()];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = tokens.get(i).text;
+        }
+        return texts;
+    }
+
+    /**
+     * @return true if the current tokens hold no errors, see {@link #getErrors()} otherwise
+     */
+    public boolean isValid() {
+        return tokenErrorCount == 0 && firstConstraintError() == null;
+    }
+
+    private ArgsError firstConstraintError() {
+        for (int i = 0; i < schema.constraintCount(); i++) {
+            ArgsError error = schema.constraintAt(i).check(givenSlots, schema);
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the errors of the current tokens, in the order {@link ArgsParser#getErrors()} lists them
+     */
+    public List<ArgsError> getErrors() {
+        if (isValid()) {
+            return Collections.emptyList();
+        }
+        List<ArgsError> errors = new ArrayList<>();
+        for (int index = 0; index < tokens.size() && errors.size() < tokenErrorCount; index++) {
+            List<TokenError> tokenErrors = tokens.get(index).errors;
+            if (tokenErrors != null) {
+                for (TokenError error : tokenErrors) {
+                    errors.add(error.at(index));
+                }
+            }
+        }
+        for (int i = 0; i < schema.constraintCount(); i++) {
+            ArgsError error = schema.constraintAt(i).check(givenSlots, schema);
+            if (error != null) {
+                errors.add(error);
+            }
+        }
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * List the options that can be given at a token, e.g. to complete what the user is typing:
+     * those starting with the token typed so far that are not given by other tokens, unless they take a list,
+     * and that no constraint rules out alongside the arguments given by other tokens.
+     *
+     * @param index the index of the token being typed, or {@link #size()} for a token yet to be typed
+     * @return the options in declaration order, as "-p" or "--port", or none if the token is a parameter
+     */
+    public List<String> completionsAt(int index) {
+        if (index < 0 || index > tokens.size()) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + tokens.size());
+        }
+        Token token = index < tokens.size() ? tokens.get(index) : null;
+        if (token != null ? token.role == PARAMETER || token.role == IGNORED : awaitsToken()) {
+            return Collections.emptyList();
+        }
+        String prefix = token == null ? "" : token.text;
+        long[] givenByOthers = Arrays.copyOf(givenSlots, givenSlots.length);
+        if (token != null) {
+            for (Element element : token.elements) {
+                if (element != null && occurrences.get(element.slot).size() == countIn(token, element.slot)) {
+                    givenByOthers[element.slot >>> 6] &= ~(1L << element.slot);
+                }
+            }
+        }
+        List<String> completions = new ArrayList<>();
+        for (int slot = 0; slot < schema.size(); slot++) {
+            String option = schema.idAt(slot) == '\0' ? "--" + schema.nameAt(slot) : "-" + schema.idAt(slot);
+            boolean given = (givenByOthers[slot >>> 6] & 1L << slot) != 0;
+            if (option.startsWith(prefix) && (!given || schema.typeAt(slot).isList()) && !isExcluded(slot,
+                    givenByOthers)) {
+                completions.add(option);
+            }
+        }
+        return completions;
+    }
+
+    /**
+     * @return whether a token appended to the tokens would be a parameter, or follow the end of options
+     */
+    private boolean awaitsToken() {
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        Token last = tokens.get(tokens.size() - 1);
+        if (last.role == END_OF_OPTIONS || last.role == IGNORED) {
+            return true;
+        }
+        Token option = tokens.get(segmentStart(tokens.size() - 1));
+        for (Element element : option.elements) {
+            if (element != null && element.parameter == null && schema.typeAt(element.slot) != ArgumentType.BOOLEAN
+                    && !isInline(option)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isInline(Token option) {
+        return option.text.startsWith("--") && option.text.indexOf('=') >= 0;
+    }
+
+    private static int countIn(Token token, int slot) {
+        int count = 0;
+        for (Element element : token.elements) {
+            if (element != null && element.slot == slot) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isExcluded(int slot, long[] given) {
+        for (int i = 0; i < schema.constraintCount(); i++) {
+            if (schema.constraintAt(i).excludes(slot, given)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @see Args#getBoolean(char)
+     */
+    public boolean getBoolean(char arg) {
+        return values.getBoolean(arg);
+    }
+
+    /**
+     * @see Args#getString(char)
+     */
+    public String getString(char arg) {
+        return values.getString(arg);
+    }
+
+    /**
+     * @see Args#getInt(char)
+     */
+    public int getInt(char arg) {
+        return values.getInt(arg);
+    }
+
+    /**
+     * @see Args#getDouble(char)
+     */
+    public double getDouble(char arg) {
+        return values.getDouble(arg);
+    }
+
+    /**
+     * @see Args#getIntList(char)
+     */
+    public IntList getIntList(char arg) {
+        return values.getIntList(arg);
+    }
+
+    /**
+     * @see Args#getDoubleList(char)
+     */
+    public DoubleList getDoubleList(char arg) {
+        return values.getDoubleList(arg);
+    }
+
+    /**
+     * @see Args#getStringList(char)
+     */
+    public List<String> getStringList(char arg) {
+        return values.getStringList(arg);
+    }
+
+    /**
+     * @see Args#getLong(char)
+     */
+    public long getLong(char arg) {
+        return values.getLong(arg);
+    }
+
+    /**
+     * @see Args#getDuration(char)
+     */
+    public Duration getDuration(char arg) {
+        return values.getDuration(arg);
+    }
+
+    /**
+     * @see Args#getEnum(char, Class)
+     */
+    public <E extends Enum<E>> E getEnum(char arg, Class<E> type) {
+        return values.getEnum(arg, type);
+    }
+
+    /**
+     * @see Args#has(char)
+     */
+    public boolean has(char arg) {
+        return values.has(arg);
+    }
+
+    /**
+     * @see Args#isGiven(char)
+     */
+    public boolean isGiven(char arg) {
+        return values.isGiven(arg);
+    }
+
+    /**
+     * @see Args#getBoolean(String)
+     */
+    public boolean getBoolean(String name) {
+        return values.getBoolean(name);
+    }
+
+    /**
+     * @see Args#getString(String)
+     */
+    public String getString(String name) {
+        return values.getString(name);
+    }
+
+    /**
+     * @see Args#getInt(String)
+     */
+    public int getInt(String name) {
+        return values.getInt(name);
+    }
+
+    /**
+     * @see Args#getDouble(String)
+     */
+    public double getDouble(String name) {
+        return values.getDouble(name);
+    }
+
+    /**
+     * @see Args#getIntList(String)
+     */
+    public IntList getIntList(String name) {
+        return values.getIntList(name);
+    }
+
+    /**
+     * @see Args#getDoubleList(String)
+     */
+    public DoubleList getDoubleList(String name) {
+        return values.getDoubleList(name);
+    }
+
+    /**
+     * @see Args#getStringList(String)
+     */
+    public List<String> getStringList(String name) {
+        return values.getStringList(name);
+    }
+
+    /**
+     * @see Args#getLong(String)
+     */
+    public long getLong(String name) {
+        return values.getLong(name);
+    }
+
+    /**
+     * @see Args#getDuration(String)
+     */
+    public Duration getDuration(String name) {
+        return values.getDuration(name);
+    }
+
+    /**
+     * @see Args#getEnum(String, Class)
+     */
+    public <E extends Enum<E>> E getEnum(String name, Class<E> type) {
+        return values.getEnum(name, type);
+    }
+
+    /**
+     * @see Args#has(String)
+     */
+    public boolean has(String name) {
+        return values.has(name);
+    }
+
+    /**
+     * @see Args#isGiven(String)
+     */
+    public boolean isGiven(String name) {
+        return values.isGiven(name);
+    }
+
+    public ArgsSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * A token of the command line, with the role the parse gave it and, for an option token, the occurrences of
+     * the arguments it gives and the errors found in it and its parameters.
+     */
+    private static final class Token {
+        final String text;
+        long order;
+        byte role = UNPARSED;
+        Element[] elements = NO_ELEMENTS;
+        List<TokenError> errors;
+
+        Token(String text, long order) {
+            this.text = text;
+            this.order = order;
+        }
+
+        void addError(TokenError error) {
+            if (errors == null) {
+                errors = new ArrayList<>(1);
+            }
+            errors.add(error);
+        }
+
+        int errorCount() {
+            return errors == null ? 0 : errors.size();
+        }
+    }
+
+    /**
+     * An occurrence of an argument in an option token, ordered by the position of the token, then within it.
+     */
+    private static final class Element implements Comparable<Element> {
+        final Token token;
+        final int position;
+        final int slot;
+        String parameter;
+        ErrorCode error;
+
+        Element(Token token, int position, int slot) {
+            this.token = token;
+            this.position = position;
+            this.slot = slot;
+        }
+
+        @Override
+        public int compareTo(Element other) {
+            int byToken = Long.compare(token.order, other.token.order);
+            return byToken != 0 ? byToken : Integer.compare(position, other.position);
+        }
+    }
+
+    /**
+     * An error found in an option token or in one of its parameters, given as the offset from the option token,
+     * so that it need not change when tokens before it are inserted or removed.
+     */
+    private static final class TokenError {
+        final char id;
+        final String name;
+        final String parameter;
+        final ErrorCode errorCode;
+        final int offset;
+
+        TokenError(char id, String name, String parameter, ErrorCode errorCode, int offset) {
+            this.id = id;
+            this.name = name;
+            this.parameter = parameter;
+            this.errorCode = errorCode;
+            this.offset = offset;
+        }
+
+        ArgsError at(int index) {
+            return name != null ? new ArgsError(name, parameter, errorCode, index + offset)
+                    : new ArgsError(id, parameter, errorCode, index + offset);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * Holds the installed listener, which interfaces cannot do themselves.
+ * The field is volatile so that a listener installed on one thread is seen by the parses on all others.
+ */
+final class InstalledListener {
+    static volatile ParseListener current = ParseListener.NONE;
+
+    private InstalledListener() {
+    }
+}
@@ -0,0 +1,67 @@
+package com.capgemini.pvonnieb;
+
+import java.util.Arrays;
+
+/**
+ * A read-only view of the values of an integer list argument (p[#]), backed by a growable int array,
+ * so that thousands of values can be held and read without boxing any of them.
+ * <p>
+ * The list belongs to the parse that filled it: the list of an {@link Args} never changes, while the list of an
+ * {@link ArgsParser} is refilled by its next parse. Use {@link #toArray()} to keep the values beyond that.
+ */
+public final class IntList {
+    static final IntList EMPTY = new IntList();
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] values = new int[0];
+    private int size;
+
+    IntList() {
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Drop the values from the given index on, keeping the capacity for the next values.
+     */
+    void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index of the value, in the order the values were given
+     * @return the value at the index
+     * @throws IndexOutOfBoundsException if the index is not less than {@link #size()}
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * @return a copy of the values
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,36 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_INTEGER;
+
+class IntegerArgumentMarshaller implements ArgumentMarshaller.OfInt {
+
+    private final NumberParser numbers = new NumberParser();
+    private int integerValue = 0;
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_INTEGER;
+        }
+        CharSequence parameter = currentArgument.nextParameter();
+        if (!numbers.parseInt(parameter, 0, parameter.length())) {
+            return INVALID_INTEGER;
+        }
+        integerValue = numbers.intValue();
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        integerValue = 0;
+    }
+
+    @Override
+    public int getInt() {
+        return integerValue;
+    }
+
+}
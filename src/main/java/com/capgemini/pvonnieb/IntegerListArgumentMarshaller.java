@@ -0,0 +1,48 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_INTEGER;
+
+/**
+ * Collects the values of an integer list argument, given repeatedly as in "-p 1 -p 2",
+ * comma-separated as in "-p 1,2", or both.
+ * A parameter holding an invalid value adds none of its values.
+ */
+class IntegerListArgumentMarshaller implements ArgumentMarshaller.OfIntList {
+
+    private final NumberParser numbers = new NumberParser();
+    private final IntList values = new IntList();
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_INTEGER;
+        }
+        CharSequence parameter = currentArgument.nextParameter();
+        int sizeBefore = values.size();
+        int from = 0;
+        while (from <= parameter.length()) {
+            int to = ListParameters.endOfValue(parameter, from);
+            if (!numbers.parseInt(parameter, from, to)) {
+                values.truncate(sizeBefore);
+                return INVALID_INTEGER;
+            }
+            values.add(numbers.intValue());
+            from = to + 1;
+        }
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        values.truncate(0);
+    }
+
+    @Override
+    public IntList getIntList() {
+        return values;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import com.capgemini.pvonnieb.exception.UncheckedArgsException;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_DOUBLE;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_DOUBLE;
+
+/**
+ * Records the parameter of a double argument and converts it on the first read, see {@link ConversionMode#LAZY}.
+ * <p>
+ * The conversion may run on any thread reading the value. The result is published by the write to
+ * {@code converted}, which comes last; threads racing to convert compute the same result.
+ */
+class LazyDoubleArgumentMarshaller implements ArgumentMarshaller.OfDouble {
+    private final String argumentName;
+
+    private String parameter;
+    private boolean valid = true;
+    private volatile boolean converted = true;
+    private double doubleValue = 0;
+
+    LazyDoubleArgumentMarshaller(String argumentName) {
+        this.argumentName = argumentName;
+    }
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_DOUBLE;
+        }
+        parameter = currentArgument.next();
+        converted = false;
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        parameter = null;
+        converted = true;
+        valid = true;
+        doubleValue = 0;
+    }
+
+    @Override
+    public double getDouble() {
+        if (!converted) {
+            convert();
+        }
+        if (!valid) {
+            throw new UncheckedArgsException(new ArgsException(argumentName, parameter, INVALID_DOUBLE));
+        }
+        return doubleValue;
+    }
+
+    private void convert() {
+        NumberParser numbers = new NumberParser();
+        valid = numbers.parseDouble(parameter, 0, parameter.length());
+        doubleValue = valid ? numbers.doubleValue() : 0;
+        converted = true;
+    }
+
+}
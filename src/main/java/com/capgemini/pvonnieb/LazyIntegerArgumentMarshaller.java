@@ -0,0 +1,64 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import com.capgemini.pvonnieb.exception.UncheckedArgsException;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_INTEGER;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_INTEGER;
+
+/**
+ * Records the parameter of an integer argument and converts it on the first read, see {@link ConversionMode#LAZY}.
+ * <p>
+ * The conversion may run on any thread reading the value. The result is published by the write to
+ * {@code converted}, which comes last; threads racing to convert compute the same result.
+ */
+class LazyIntegerArgumentMarshaller implements ArgumentMarshaller.OfInt {
+    private final String argumentName;
+
+    private String parameter;
+    private boolean valid = true;
+    private volatile boolean converted = true;
+    private int integerValue = 0;
+
+    LazyIntegerArgumentMarshaller(String argumentName) {
+        this.argumentName = argumentName;
+    }
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_INTEGER;
+        }
+        parameter = currentArgument.next();
+        converted = false;
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        parameter = null;
+        converted = true;
+        valid = true;
+        integerValue = 0;
+    }
+
+    @Override
+    public int getInt() {
+        if (!converted) {
+            convert();
+        }
+        if (!valid) {
+            throw new UncheckedArgsException(new ArgsException(argumentName, parameter, INVALID_INTEGER));
+        }
+        return integerValue;
+    }
+
+    private void convert() {
+        NumberParser numbers = new NumberParser();
+        valid = numbers.parseInt(parameter, 0, parameter.length());
+        integerValue = valid ? numbers.intValue() : 0;
+        converted = true;
+    }
+
+}
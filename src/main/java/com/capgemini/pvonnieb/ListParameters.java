@@ -0,0 +1,24 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * Splits the parameters of numeric list arguments into their comma-separated values, without copying them.
+ */
+final class ListParameters {
+    static final char SEPARATOR = ',';
+
+    private ListParameters() {
+    }
+
+    /**
+     * @param parameter the parameter holding one or more values
+     * @param from      the index of the first character of the value
+     * @return the index of the separator following the value, or the length of the parameter for the last value
+     */
+    static int endOfValue(CharSequence parameter, int from) {
+        int to = from;
+        while (to < parameter.length() && parameter.charAt(to) != SEPARATOR) {
+            to++;
+        }
+        return to;
+    }
+}
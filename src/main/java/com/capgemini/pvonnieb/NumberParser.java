@@ -0,0 +1,254 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * Parses numbers from a range of a character sequence without allocating and without throwing.
+ * Each parse method reports through its return value whether the range held a valid number,
+ * and the number itself is read from the parser afterwards.
+ * <p>
+ * Usage:
+ * NumberParser numbers = new NumberParser();
+ * if (numbers.parseInt(line, from, to)) { int port = numbers.intValue(); }
+ * <p>
+ * Results are identical to those of {@link Integer#parseInt(String)}, {@link Long#parseLong(String)} and
+ * {@link Double#parseDouble(String)}, including which inputs are rejected.
+ * Decimal numbers with up to 15 significant digits and a decimal exponent of at most 22 are converted exactly
+ * with a single rounding step; rarer inputs, such as hexadecimal floating point literals or numbers with more
+ * significant digits, are handed to {@link Double#parseDouble(String)}.
+ * <p>
+ * A parser holds the result of its last parse and is not thread-safe.
+ */
+public final class NumberParser {
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private long longValue;
+    private double doubleValue;
+
+    /**
+     * @return the result of the last successful {@link #parseInt(CharSequence, int, int)}
+     */
+    public int intValue() {
+        return (int) longValue;
+    }
+
+    /**
+     * @return the result of the last successful {@link #parseLong(CharSequence, int, int)}
+     */
+    public long longValue() {
+        return longValue;
+    }
+
+    /**
+     * @return the result of the last successful {@link #parseDouble(CharSequence, int, int)}
+     */
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * Parse a decimal integer, as {@link Integer#parseInt(String)} does.
+     *
+     * @param chars the characters to parse
+     * @param from  the index of the first character of the number
+     * @param to    the index following the last character of the number
+     * @return true if the range holds an integer, which is then available from {@link #intValue()}
+     */
+    public boolean parseInt(CharSequence chars, int from, int to) {
+        return parseInteger(chars, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parse a decimal long, as {@link Long#parseLong(String)} does.
+     *
+     * @return true if the range holds a long, which is then available from {@link #longValue()}
+     * @see #parseInt(CharSequence, int, int)
+     */
+    public boolean parseLong(CharSequence chars, int from, int to) {
+        return parseInteger(chars, from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Accumulates the digits negatively, so that the minimum value can be parsed without overflowing.
+     */
+    private boolean parseInteger(CharSequence chars, int from, int to, long minValue, long maxValue) {
+        if (from >= to) {
+            return false;
+        }
+        boolean negative = false;
+        long limit = -maxValue;
+        int i = from;
+        char first = chars.charAt(i);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = minValue;
+            } else if (first != '+') {
+                return false;
+            }
+            if (++i == to) {
+                return false;
+            }
+        }
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = Character.digit(chars.charAt(i), 10);
+            if (digit < 0 || result < multiplicationLimit) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        longValue = negative ? result : -result;
+        return true;
+    }
+
+    /**
+     * Parse a floating point number, as {@link Double#parseDouble(String)} does.
+     *
+     * @param chars the characters to parse
+     * @param from  the index of the first character of the number
+     * @param to    the index following the last character of the number
+     * @return true if the range holds a number, which is then available from {@link #doubleValue()}
+     */
+    public boolean parseDouble(CharSequence chars, int from, int to) {
+        while (from < to && chars.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && chars.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return false;
+        }
+        int i = from;
+        boolean negative = false;
+        if (chars.charAt(i) == '-' || chars.charAt(i) == '+') {
+            negative = chars.charAt(i) == '-';
+            i++;
+        }
+        if (i < to && (chars.charAt(i) == 'N' || chars.charAt(i) == 'I')) {
+            return parseSpecialValue(chars, i, to, negative);
+        }
+        if (i + 1 < to && chars.charAt(i) == '0' && (chars.charAt(i + 1) == 'x' || chars.charAt(i + 1) == 'X')) {
+            return parseWithFallback(chars, from, to);
+        }
+        return parseDecimal(chars, from, i, to, negative);
+    }
+
+    private boolean parseSpecialValue(CharSequence chars, int from, int to, boolean negative) {
+        if (matches(chars, from, to, "NaN")) {
+            doubleValue = Double.NaN;
+            return true;
+        } else if (matches(chars, from, to, "Infinity")) {
+            doubleValue = negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(CharSequence chars, int from, int to, String expected) {
+        if (to - from != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (chars.charAt(from + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validates [digits][.digits][(e|E)[+|-]digits][f|F|d|D], starting after the sign, and converts the number
+     * exactly if its digits and exponent are small enough.
+     */
+    private boolean parseDecimal(CharSequence chars, int from, int start, int to, boolean negative) {
+        int i = start;
+        long significand = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < to; i++) {
+            char c = chars.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significantDigits > 0 || c != '0') {
+                    significantDigits++;
+                    significand = significantDigits <= MAX_EXACT_DIGITS ? significand * 10 + (c - '0') : significand;
+                }
+                if (inFraction) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        long exponent = 0;
+        if (i < to && (chars.charAt(i) == 'e' || chars.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (chars.charAt(i) == '-' || chars.charAt(i) == '+')) {
+                negativeExponent = chars.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < to && chars.charAt(i) >= '0' && chars.charAt(i) <= '9'; i++) {
+                if (exponent < Integer.MAX_VALUE) {
+                    exponent = exponent * 10 + (chars.charAt(i) - '0');
+                }
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+            exponent = negativeExponent ? -exponent : exponent;
+        }
+        if (i < to && isTypeSuffix(chars.charAt(i))) {
+            i++;
+        }
+        if (i != to) {
+            return false;
+        }
+        if (significantDigits > MAX_EXACT_DIGITS) {
+            return parseWithFallback(chars, from, to);
+        }
+        long decimalExponent = exponent - fractionDigits;
+        double value;
+        if (significand == 0) {
+            value = 0;
+        } else if (decimalExponent >= 0 && decimalExponent < EXACT_POWERS_OF_TEN.length) {
+            value = significand * EXACT_POWERS_OF_TEN[(int) decimalExponent];
+        } else if (decimalExponent < 0 && -decimalExponent < EXACT_POWERS_OF_TEN.length) {
+            value = significand / EXACT_POWERS_OF_TEN[(int) -decimalExponent];
+        } else {
+            return parseWithFallback(chars, from, to);
+        }
+        doubleValue = negative ? -value : value;
+        return true;
+    }
+
+    private static boolean isTypeSuffix(char c) {
+        return c == 'f' || c == 'F' || c == 'd' || c == 'D';
+    }
+
+    private boolean parseWithFallback(CharSequence chars, int from, int to) {
+        try {
+            doubleValue = Double.parseDouble(chars.subSequence(from, to).toString());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+
+import java.util.Arrays;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.EXCLUSIVE_ARGUMENTS;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_DEPENDENCY;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_REQUIRED_ARGUMENT;
+
+/**
+ * A rule on which arguments may be given together, compiled from a constraint of the schema:
+ * "!p" requires p, "l^v" allows at most one of l and v, and "d>p" requires p whenever d is given.
+ * <p>
+ * The arguments a rule concerns are held as bit masks over the slots, one mask per 64 slots the rule touches,
+ * and checked against the slots given by a parse word by word. A rule thus costs a few bit operations,
+ * however many arguments the schema declares or the parse was given.
+ */
+final class OptionConstraint {
+    static final int NO_TOKEN = -1;
+
+    enum Kind {
+        REQUIRED, EXCLUSIVE, REQUIRES
+    }
+
+    private final Kind kind;
+    private final int condition;
+    private final int[] words;
+    private final long[] masks;
+
+    /**
+     * @param kind      the kind of the rule
+     * @param condition the slot that has to be given for a {@link Kind#REQUIRES} rule to apply, otherwise -1
+     * @param group     the slots that are required, or of which at most one may be given
+     */
+    OptionConstraint(Kind kind, int condition, int[] group) {
+        this.kind = kind;
+        this.condition = condition;
+        int[] words = new int[group.length];
+        long[] masks = new long[group.length];
+        int count = 0;
+        for (int slot : group) {
+            int word = slot >>> 6;
+            int index = 0;
+            while (index < count && words[index] != word) {
+                index++;
+            }
+            if (index == count) {
+                words[count++] = word;
+            }
+            masks[index] |= 1L << slot;
+        }
+        this.words = Arrays.copyOf(words, count);
+        this.masks = Arrays.copyOf(masks, count);
+    }
+
+    /**
+     * @param given the slots given by a parse, 64 to a word
+     * @return the error if the rule is violated, otherwise null
+     */
+    ArgsError check(long[] given, ArgsSchema schema) {
+        switch (kind) {
+            case REQUIRED:
+                return containsAll(given) ? null
+                        : new ArgsError(schema.nameAt(firstMissing(given)), null, MISSING_REQUIRED_ARGUMENT, NO_TOKEN);
+            case REQUIRES:
+                return !isGiven(given, condition) || containsAll(given) ? null
+                        : new ArgsError(schema.nameAt(condition), schema.nameAt(firstMissing(given)),
+                        MISSING_DEPENDENCY, NO_TOKEN);
+            default:
+                return countGiven(given) <= 1 ? null
+                        : new ArgsError('\0', givenOptions(given, schema), EXCLUSIVE_ARGUMENTS, NO_TOKEN);
+        }
+    }
+
+    /**
+     * @param given the slots given so far, 64 to a word
+     * @return whether giving the slot as well would violate the rule, i.e. it is exclusive with a given slot
+     */
+    boolean excludes(int slot, long[] given) {
+        if (kind != Kind.EXCLUSIVE || isGiven(given, slot)) {
+            return false;
+        }
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] == slot >>> 6 && (masks[i] & 1L << slot) != 0) {
+                return countGiven(given) > 0;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGiven(long[] given, int slot) {
+        return (given[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    private boolean containsAll(long[] given) {
+        for (int i = 0; i < words.length; i++) {
+            if ((given[words[i]] & masks[i]) != masks[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int countGiven(long[] given) {
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            count += Long.bitCount(given[words[i]] & masks[i]);
+        }
+        return count;
+    }
+
+    private int firstMissing(long[] given) {
+        for (int i = 0; i < words.length; i++) {
+            long missing = masks[i] & ~given[words[i]];
+            if (missing != 0) {
+                return (words[i] << 6) + Long.numberOfTrailingZeros(missing);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the given arguments of the group as options, e.g. "-l --verbose"
+     */
+    private String givenOptions(long[] given, ArgsSchema schema) {
+        StringBuilder options = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            for (long found = given[words[i]] & masks[i]; found != 0; found &= found - 1) {
+                String name = schema.nameAt((words[i] << 6) + Long.numberOfTrailingZeros(found));
+                options.append(options.length() > 0 ? " " : "").append(name.length() == 1 ? "-" : "--").append(name);
+            }
+        }
+        return options.toString();
+    }
+}
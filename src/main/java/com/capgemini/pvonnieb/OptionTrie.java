@@ -0,0 +1,145 @@
+package com.capgemini.pvonnieb;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resolves the names of long options, or unique prefixes of them, to their slots.
+ * <p>
+ * The trie is laid out breadth first in flat arrays, with the children of each node next to each other and sorted
+ * by their character. A lookup steps down one node per character of the name, finding the child by a binary search
+ * over at most the size of the alphabet, so its cost grows with the length of the name but not with the number of
+ * options. Every node also records which option, if only one, its prefix abbreviates, so abbreviations are resolved
+ * by the same walk.
+ */
+final class OptionTrie {
+    static final int NOT_FOUND = -1;
+    static final int AMBIGUOUS = -2;
+
+    private static final int ROOT = 0;
+
+    private final char[] labels;
+    private final int[] firstChildren;
+    private final int[] childCounts;
+    private final int[] slots;
+    private final int[] abbreviatedSlots;
+
+    /**
+     * @param names     the names of the long options
+     * @param nameSlots the slot of each name
+     */
+    OptionTrie(String[] names, int[] nameSlots) {
+        Node root = new Node();
+        int nodeCount = 1;
+        for (int i = 0; i < names.length; i++) {
+            nodeCount += root.insert(names[i], nameSlots[i]);
+        }
+        labels = new char[nodeCount];
+        firstChildren = new int[nodeCount];
+        childCounts = new int[nodeCount];
+        slots = new int[nodeCount];
+        abbreviatedSlots = new int[nodeCount];
+        layOutBreadthFirst(root);
+    }
+
+    private void layOutBreadthFirst(Node root) {
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        int nextFree = 1;
+        for (int index = 0; !queue.isEmpty(); index++) {
+            Node node = queue.poll();
+            slots[index] = node.slot;
+            abbreviatedSlots[index] = node.abbreviatedSlot;
+            firstChildren[index] = nextFree;
+            childCounts[index] = node.children.size();
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                labels[nextFree++] = child.getKey();
+                queue.add(child.getValue());
+            }
+        }
+    }
+
+    /**
+     * Resolve a name, or a prefix that only one name starts with, to its slot; an exact match wins over
+     * any longer name it is a prefix of.
+     *
+     * @param name the characters holding the name
+     * @param from the index of the first character of the name
+     * @param to   the index following the last character of the name
+     * @return the slot, {@link #NOT_FOUND} if no name starts with the given one,
+     * or {@link #AMBIGUOUS} if several names do, but none equals it
+     */
+    int resolve(CharSequence name, int from, int to) {
+        int node = nodeOf(name, from, to);
+        if (node <= ROOT) {
+            return NOT_FOUND;
+        }
+        return slots[node] >= 0 ? slots[node] : abbreviatedSlots[node];
+    }
+
+    /**
+     * Resolve a name without accepting abbreviations.
+     *
+     * @return the slot, or {@link #NOT_FOUND}
+     * @see #resolve(CharSequence, int, int)
+     */
+    int slotOf(CharSequence name, int from, int to) {
+        int node = nodeOf(name, from, to);
+        return node <= ROOT ? NOT_FOUND : slots[node];
+    }
+
+    private int nodeOf(CharSequence name, int from, int to) {
+        int node = ROOT;
+        for (int i = from; i < to && node >= 0; i++) {
+            node = childOf(node, name.charAt(i));
+        }
+        return node;
+    }
+
+    private int childOf(int node, char label) {
+        int low = firstChildren[node];
+        int high = low + childCounts[node] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (labels[middle] < label) {
+                low = middle + 1;
+            } else if (labels[middle] > label) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * A node of the trie while it is being built.
+     */
+    private static final class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+        private int slot = NOT_FOUND;
+        private int abbreviatedSlot = NOT_FOUND;
+
+        /**
+         * @return the number of nodes added
+         */
+        int insert(String name, int nameSlot) {
+            int added = 0;
+            Node node = this;
+            for (int i = 0; i < name.length(); i++) {
+                Node child = node.children.get(name.charAt(i));
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(name.charAt(i), child);
+                    added++;
+                }
+                node = child;
+                node.abbreviatedSlot = node.abbreviatedSlot == NOT_FOUND ? nameSlot : AMBIGUOUS;
+            }
+            node.slot = nameSlot;
+            return added;
+        }
+    }
+}
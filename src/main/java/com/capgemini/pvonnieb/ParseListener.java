@@ -0,0 +1,83 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+/**
+ * Observes schema compilation and argument parsing, e.g. to collect metrics, see {@link ParseMetrics}.
+ * <p>
+ * Usage:
+ * ParseMetrics metrics = new ParseMetrics();
+ * ParseListener.install(metrics);
+ * ...
+ * Map<String, Long> snapshot = metrics.snapshot();
+ * <p>
+ * One listener is installed for the whole application. It is called on the parsing thread, from any number of
+ * threads at once, so implementations must be thread-safe and should return quickly.
+ * While no listener is installed, parsing neither calls into a listener nor reads the clock.
+ * <p>
+ * All methods do nothing by default, so implementations only override the events they are interested in.
+ */
+public interface ParseListener {
+
+    /**
+     * The listener installed while no other is, which ignores all events.
+     */
+    ParseListener NONE = new ParseListener() {
+    };
+
+    /**
+     * Install the listener that is notified of all subsequent compiles and parses, replacing the current one.
+     *
+     * @param listener the listener, or {@link #NONE} to stop listening
+     */
+    static void install(ParseListener listener) {
+        InstalledListener.current = listener == null ? NONE : listener;
+    }
+
+    /**
+     * @return the installed listener, {@link #NONE} if there is none
+     */
+    static ParseListener installed() {
+        return InstalledListener.current;
+    }
+
+    /**
+     * @param schema        the compiled schema
+     * @param cached        whether it was served from the schema cache rather than compiled
+     * @param durationNanos the time the lookup and, if not cached, the compilation took
+     */
+    default void schemaCompiled(ArgsSchema schema, boolean cached, long durationNanos) {
+    }
+
+    /**
+     * @param schema the schema string that failed to compile
+     * @param error  the reason it failed
+     */
+    default void schemaRejected(String schema, ArgsException error) {
+    }
+
+    /**
+     * Called for each argument that was set successfully; an argument given more than once is reported each time.
+     *
+     * @param argumentName the name of the argument, e.g. "p" or "port"
+     */
+    default void argumentSet(String argumentName) {
+    }
+
+    /**
+     * Called for each error as it is found.
+     */
+    default void errorFound(ArgsError error) {
+    }
+
+    /**
+     * Called after all arguments were parsed.
+     *
+     * @param schema        the schema the arguments were parsed against
+     * @param valid         whether no errors were found
+     * @param durationNanos the time the parse took
+     */
+    default void parseCompleted(ArgsSchema schema, boolean valid, long durationNanos) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A listener counting parses, schema compilations, the arguments used and the errors found,
+ * and recording a histogram of parse latencies.
+ * Counters are striped, so that threads parsing at the same time do not contend on them.
+ * <p>
+ * Usage:
+ * ParseMetrics metrics = new ParseMetrics();
+ * ParseListener.install(metrics);
+ * ...
+ * metrics.snapshot().forEach(myRegistry::gauge);
+ */
+public final class ParseMetrics implements ParseListener {
+    private static final int ASCII_TABLE_SIZE = 128;
+
+    private final LongAdder schemaCompiles = new LongAdder();
+    private final LongAdder schemaCacheHits = new LongAdder();
+    private final LongAdder schemaRejections = new LongAdder();
+    private final LongAdder schemaNanos = new LongAdder();
+    private final LongAdder invalidParses = new LongAdder();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final LongAdder[] errors = new LongAdder[ErrorCode.values().length];
+    private final LongAdder[] asciiArguments = new LongAdder[ASCII_TABLE_SIZE];
+    private final ConcurrentMap<String, LongAdder> otherArguments = new ConcurrentHashMap<>();
+
+    public ParseMetrics() {
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = new LongAdder();
+        }
+        for (int i = 0; i < asciiArguments.length; i++) {
+            asciiArguments[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void schemaCompiled(ArgsSchema schema, boolean cached, long durationNanos) {
+        (cached ? schemaCacheHits : schemaCompiles).increment();
+        schemaNanos.add(durationNanos);
+    }
+
+    @Override
+    public void schemaRejected(String schema, ArgsException error) {
+        schemaRejections.increment();
+        errors[error.getErrorCode().ordinal()].increment();
+    }
+
+    @Override
+    public void argumentSet(String argumentName) {
+        if (argumentName.length() == 1 && argumentName.charAt(0) < ASCII_TABLE_SIZE) {
+            asciiArguments[argumentName.charAt(0)].increment();
+            return;
+        }
+        LongAdder count = otherArguments.get(argumentName);
+        if (count == null) {
+            count = otherArguments.computeIfAbsent(argumentName, name -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @Override
+    public void errorFound(ArgsError error) {
+        errors[error.getErrorCode().ordinal()].increment();
+    }
+
+    @Override
+    public void parseCompleted(ArgsSchema schema, boolean valid, long durationNanos) {
+        parseLatency.record(durationNanos);
+        if (!valid) {
+            invalidParses.increment();
+        }
+    }
+
+    /**
+     * Read all counters into a map, to be pushed into a metrics system.
+     * The counters are read one at a time while parsing goes on, so the values need not add up exactly.
+     * <p>
+     * The keys are:
+     * parses.count, parses.invalid, parses.nanos.total, parses.nanos.p50, parses.nanos.p90, parses.nanos.p99,
+     * parses.nanos.max; schema.compiles, schema.cacheHits, schema.rejected, schema.nanos.total;
+     * errors.&lt;error code&gt; for every error code; and arguments.&lt;name&gt; for every argument that was set.
+     *
+     * @return the sorted, unmodifiable snapshot
+     */
+    public Map<String, Long> snapshot() {
+        SortedMap<String, Long> snapshot = new TreeMap<>();
+        snapshot.put("parses.count", parseLatency.count());
+        snapshot.put("parses.invalid", invalidParses.sum());
+        snapshot.put("parses.nanos.total", parseLatency.totalNanos());
+        snapshot.put("parses.nanos.p50", parseLatency.quantileNanos(0.5));
+        snapshot.put("parses.nanos.p90", parseLatency.quantileNanos(0.9));
+        snapshot.put("parses.nanos.p99", parseLatency.quantileNanos(0.99));
+        snapshot.put("parses.nanos.max", parseLatency.maxNanos());
+        snapshot.put("schema.compiles", schemaCompiles.sum());
+        snapshot.put("schema.cacheHits", schemaCacheHits.sum());
+        snapshot.put("schema.rejected", schemaRejections.sum());
+        snapshot.put("schema.nanos.total", schemaNanos.sum());
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            snapshot.put("errors." + errorCode, errors[errorCode.ordinal()].sum());
+        }
+        for (char id = 0; id < ASCII_TABLE_SIZE; id++) {
+            putArgumentCount(snapshot, String.valueOf(id), asciiArguments[id]);
+        }
+        otherArguments.forEach((name, count) -> putArgumentCount(snapshot, name, count));
+        return Collections.unmodifiableSortedMap(snapshot);
+    }
+
+    private static void putArgumentCount(Map<String, Long> snapshot, String name, LongAdder count) {
+        long sum = count.sum();
+        if (sum > 0) {
+            snapshot.put("arguments." + name, sum);
+        }
+    }
+}
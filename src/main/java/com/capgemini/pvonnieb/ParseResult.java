@@ -0,0 +1,55 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+import java.util.List;
+
+/**
+ * The outcome of {@link Args#tryParse(ArgsSchema, String[])}: the parsed arguments together with every error
+ * found while parsing them, in the order of the argument tokens.
+ * Arguments whose parameters were invalid or missing keep their default values.
+ * <p>
+ * Parse results are immutable and can be shared between threads without synchronization.
+ */
+public final class ParseResult {
+    private final Args args;
+    private final List<ArgsError> errors;
+
+    ParseResult(Args args) {
+        this.args = args;
+        this.errors = args.errors();
+    }
+
+    /**
+     * @return true if no errors were found
+     */
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<ArgsError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the parsed arguments, whether or not errors were found
+     */
+    public Args getArgs() {
+        return args;
+    }
+
+    /**
+     * Obtain the parsed arguments if they are valid.
+     *
+     * @return the parsed arguments
+     * @throws ArgsException the same exception the {@link Args} constructors would have thrown
+     */
+    public Args getArgsOrThrow() throws ArgsException {
+        ArgsException firstError = args.firstError();
+        if (firstError != null) {
+            throw firstError;
+        }
+        return args;
+    }
+}
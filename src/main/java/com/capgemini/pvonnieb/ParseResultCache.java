@@ -0,0 +1,245 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of parse results, for applications that parse the same argument lists over and over,
+ * such as a scheduler relaunching the same tasks.
+ * <p>
+ * Usage:
+ * ParseResultCache cache = new ParseResultCache(10_000, 16 * 1024 * 1024);
+ * ParseResult result = cache.tryParse(ArgsSchema.compile("l, p#, d*"), args);
+ * <p>
+ * Results are keyed by the compiled schema and the contents of the argument list, and are shared between all
+ * callers passing the same arguments; since parse results are immutable, that is safe. Invalid argument lists
+ * are cached together with their errors.
+ * <p>
+ * The cache is split into segments, each evicting its least recently used entries once it holds more than its
+ * share of the entries or of the weight, the number of characters of the cached arguments. The limits are split
+ * so that the shares add up to them exactly, and a cache of fewer than {@value #SEGMENTS} entries has fewer
+ * segments, so that each can hold at least one. Eviction is least recently used per segment, not over the whole
+ * cache. Each segment has its own lock, so threads looking up different argument lists rarely contend, and no lock
+ * is held while parsing.
+ * <p>
+ * The weight only counts the characters of the arguments. Each entry also holds the {@link ArgsParser} of its
+ * result, with the parsed values, and both the caller's argument array, which the parser keeps, and a copy of it
+ * as the key; size the limits with that overhead of a few hundred bytes per entry in mind.
+ */
+public final class ParseResultCache {
+    static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumEntries the number of parse results the cache holds at most
+     * @param maximumWeight  the number of characters of arguments the cached results may have been parsed from,
+     *                       at most; an argument list heavier than the share of a segment is not cached
+     */
+    public ParseResultCache(int maximumEntries, long maximumWeight) {
+        if (maximumEntries < 0 || maximumWeight < 0) {
+            throw new IllegalArgumentException("Cache limits must not be negative.");
+        }
+        int count = Math.min(SEGMENTS, Integer.highestOneBit(Math.max(maximumEntries, 1)));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maximumEntries / count + (i < maximumEntries % count ? 1 : 0),
+                    maximumWeight / count + (i < maximumWeight % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Look up the result of parsing the arguments, parsing them on a miss, as by
+     * {@link Args#tryParse(ArgsSchema, String[])}.
+     *
+     * @param schema the compiled schema, see {@link ArgsSchema#compile(String)}
+     * @param args   the arguments passed to the application, which are copied before they are parsed on a miss
+     * @return the parse result, shared with all callers passing the same schema and arguments
+     */
+    public ParseResult tryParse(ArgsSchema schema, String[] args) {
+        Key key = new Key(schema, args);
+        Segment segment = segments[key.hash & (segments.length - 1)];
+        ParseResult result = segment.get(key);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        Key copied = key.copied();
+        result = Args.tryParse(schema, copied.args);
+        return segment.putIfAbsent(copied, result);
+    }
+
+    /**
+     * Look up the arguments parsed from the argument list, parsing it on a miss.
+     *
+     * @return the parsed arguments, shared with all callers passing the same schema and arguments
+     * @throws ArgsException the same exception the {@link Args} constructors would have thrown
+     * @see #tryParse(ArgsSchema, String[])
+     */
+    public Args parse(ArgsSchema schema, String[] args) throws ArgsException {
+        return tryParse(schema, args).getArgsOrThrow();
+    }
+
+    /**
+     * Drop all cached results; the statistics are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Read the cache statistics into a map, to be pushed into a metrics system.
+     * The values are read one at a time while the cache is in use, so they need not add up exactly.
+     * <p>
+     * The keys are: cache.hits, cache.misses, cache.evictions, cache.entries and cache.weight.
+     *
+     * @return the sorted, unmodifiable snapshot
+     */
+    public Map<String, Long> snapshot() {
+        long entries = 0;
+        long weight = 0;
+        for (Segment segment : segments) {
+            entries += segment.size();
+            weight += segment.weight();
+        }
+        SortedMap<String, Long> snapshot = new TreeMap<>();
+        snapshot.put("cache.hits", hits.sum());
+        snapshot.put("cache.misses", misses.sum());
+        snapshot.put("cache.evictions", evictions.sum());
+        snapshot.put("cache.entries", entries);
+        snapshot.put("cache.weight", weight);
+        return Collections.unmodifiableSortedMap(snapshot);
+    }
+
+    /**
+     * A schema and an argument list, compared by the identity of the schema and the contents of the list.
+     */
+    private static final class Key {
+        private final ArgsSchema schema;
+        private final String[] args;
+        private final int hash;
+        private final long weight;
+
+        Key(ArgsSchema schema, String[] args) {
+            this(schema, args, hashOf(schema, args), weightOf(args));
+        }
+
+        private Key(ArgsSchema schema, String[] args, int hash, long weight) {
+            this.schema = schema;
+            this.args = args;
+            this.hash = hash;
+            this.weight = weight;
+        }
+
+        /**
+         * @return the key with a copy of the argument list, which the caller might change after the lookup
+         */
+        Key copied() {
+            return new Key(schema, args.clone(), hash, weight);
+        }
+
+        /**
+         * Spreads the higher bits into the lower ones, which select the segment.
+         */
+        private static int hashOf(ArgsSchema schema, String[] args) {
+            int hash = System.identityHashCode(schema) * 31 + Arrays.hashCode(args);
+            return hash ^ (hash >>> 16);
+        }
+
+        private static long weightOf(String[] args) {
+            long weight = 0;
+            for (String arg : args) {
+                weight += arg == null ? 0 : arg.length();
+            }
+            return weight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && schema == other.schema && Arrays.equals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A least recently used share of the cache, guarded by its own monitor.
+     */
+    private final class Segment {
+        private final LinkedHashMap<Key, ParseResult> results = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maximumEntries;
+        private final long maximumWeight;
+        private long weight;
+
+        Segment(int maximumEntries, long maximumWeight) {
+            this.maximumEntries = maximumEntries;
+            this.maximumWeight = maximumWeight;
+        }
+
+        synchronized ParseResult get(Key key) {
+            return results.get(key);
+        }
+
+        /**
+         * @return the result cached for the key by now, which is the given one unless another thread was faster
+         */
+        synchronized ParseResult putIfAbsent(Key key, ParseResult result) {
+            if (key.weight > maximumWeight || maximumEntries == 0) {
+                return result;
+            }
+            ParseResult cached = results.putIfAbsent(key, result);
+            if (cached != null) {
+                return cached;
+            }
+            weight += key.weight;
+            evictEldest();
+            return result;
+        }
+
+        private void evictEldest() {
+            Iterator<Key> eldest = results.keySet().iterator();
+            while (results.size() > maximumEntries || weight > maximumWeight) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized int size() {
+            return results.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        synchronized void clear() {
+            results.clear();
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * The wire format spoken between {@link ArgsServer} and {@link ArgsClient}, and the sockets it is spoken over.
+ * <p>
+ * Every message is a frame of a 4-byte length followed by that many bytes; all numbers are big-endian.
+ * A request holds the length of the schema name in one byte, the UTF-8 encoded schema name, and the UTF-8 encoded
+ * command line. A reply holds a status byte, followed by an {@link ArgsSnapshot} of the parsed arguments for
+ * {@link #OK}, by the errors for {@link #INVALID}, or by nothing for {@link #UNKNOWN_SCHEMA} and for
+ * {@link #REPLY_TOO_LARGE}, which the server replies instead of a snapshot or errors exceeding {@link #MAX_FRAME_SIZE}.
+ * The errors are written as their number, the errors in the order found, and the error a throwing parse reports.
+ * An error is written as its error code name, argument id, argument name, parameter and token index,
+ * where strings are a 4-byte length, -1 for null, followed by their UTF-8 bytes.
+ * <p>
+ * Unix domain sockets are only available from Java 16 on, so they are opened reflectively.
+ */
+final class ServerProtocol {
+    static final int MAX_FRAME_SIZE = 1 << 20;
+    static final int MAX_NAME_LENGTH = 255;
+
+    static final int NO_TOKEN = -1;
+
+    static final byte OK = 0;
+    static final byte INVALID = 1;
+    static final byte UNKNOWN_SCHEMA = 2;
+    static final byte REPLY_TOO_LARGE = 3;
+
+    private ServerProtocol() {
+    }
+
+    /**
+     * Read the next frame into the buffer, growing it as needed.
+     *
+     * @return the buffer holding the frame between position 0 and its limit, or null at the end of the stream
+     * @throws IOException if the frame is larger than {@link #MAX_FRAME_SIZE} or the stream ends within it
+     */
+    static ByteBuffer readFrame(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear().limit(4);
+        if (!readFully(channel, buffer, true)) {
+            return null;
+        }
+        int length = buffer.getInt(0);
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Frame of " + length + " bytes exceeds the limit of " + MAX_FRAME_SIZE + " bytes.");
+        }
+        ByteBuffer frame = ensureCapacity(buffer, length);
+        frame.clear().limit(length);
+        readFully(channel, frame, false);
+        frame.flip();
+        return frame;
+    }
+
+    private static boolean readFully(ReadableByteChannel channel, ByteBuffer buffer, boolean endAllowed)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (endAllowed && buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("The connection was closed within a frame.");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the buffer if it holds at least the given number of bytes, otherwise a cleared larger one
+     */
+    static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        if (buffer.capacity() >= capacity) {
+            return buffer;
+        }
+        return ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+    }
+
+    static int sizeOf(byte[] utf8) {
+        return 4 + (utf8 == null ? 0 : utf8.length);
+    }
+
+    static byte[] utf8(String string) {
+        return string == null ? null : string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static void putString(ByteBuffer out, byte[] utf8) {
+        if (utf8 == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(utf8.length).put(utf8);
+        }
+    }
+
+    /**
+     * @return the error, keyed by its long name if it has one, otherwise by its id
+     */
+    static ArgsError errorOf(char id, String name, String parameter, ErrorCode errorCode, int tokenIndex) {
+        return name != null && id == '\0' ? new ArgsError(name, parameter, errorCode, tokenIndex)
+                : new ArgsError(id, parameter, errorCode, tokenIndex);
+    }
+
+    static ArgsError getError(ByteBuffer in) {
+        ErrorCode errorCode = ErrorCode.valueOf(getString(in));
+        char id = in.getChar();
+        String name = getString(in);
+        String parameter = getString(in);
+        return errorOf(id, name, parameter, errorCode, in.getInt());
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String string = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return string;
+    }
+
+    /**
+     * @param socketFile the path of the socket file
+     * @return the address of a Unix domain socket
+     * @throws UnsupportedOperationException before Java 16
+     */
+    static SocketAddress unixAddress(Path socketFile) {
+        try {
+            return (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress")
+                    .getMethod("of", Path.class).invoke(null, socketFile);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Unix domain sockets require Java 16 or later.", e);
+        }
+    }
+
+    static ServerSocketChannel openServer(SocketAddress address) throws IOException {
+        if (address instanceof InetSocketAddress) {
+            return ServerSocketChannel.open();
+        }
+        return (ServerSocketChannel) openUnix(ServerSocketChannel.class);
+    }
+
+    static SocketChannel openClient(SocketAddress address) throws IOException {
+        if (address instanceof InetSocketAddress) {
+            return SocketChannel.open();
+        }
+        return (SocketChannel) openUnix(SocketChannel.class);
+    }
+
+    private static Object openUnix(Class<?> channelType) throws IOException {
+        try {
+            ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+            return channelType.getMethod("open", ProtocolFamily.class).invoke(null, unix);
+        } catch (IllegalArgumentException | NoSuchMethodException | IllegalAccessException e) {
+            throw new UnsupportedOperationException("Unix domain sockets require Java 16 or later.", e);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+                    : new IOException(e.getCause());
+        }
+    }
+}
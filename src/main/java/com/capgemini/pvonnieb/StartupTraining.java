@@ -0,0 +1,37 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+
+/**
+ * A short-lived command line tool in miniature, run to record the classes a tool loads when it parses its
+ * arguments, and to measure how long a fresh JVM takes to get there.
+ * <p>
+ * Run without arguments, it parses a valid argument array, a raw command line and an invalid argument array,
+ * rendering the error message, so that the AppCDS archive built by the appcds profile covers both the success
+ * and the error path. Run with arguments, it parses them against "l, p#, d*, v##, --log-dir*" like a tool would,
+ * printing the error message and exiting with status 2 if they are invalid.
+ */
+final class StartupTraining {
+    static final String SCHEMA = "l, p#, d*, v##, --log-dir*";
+
+    private StartupTraining() {
+    }
+
+    public static void main(String[] args) throws ArgsException {
+        if (args.length > 0) {
+            ParseResult result = Args.tryParse(ArgsSchema.compile(SCHEMA), args);
+            if (!result.isValid()) {
+                System.err.println(result.getErrors().get(0).getMessage());
+                System.exit(2);
+            }
+            return;
+        }
+        ArgsSchema schema = ArgsSchema.compile(SCHEMA);
+        Args valid = new Args(schema, new String[]{"-l", "-p", "3002", "-d", "/var/tmp/", "--log-dir", "/tmp"});
+        valid.getBoolean('l');
+        valid.getInt('p');
+        valid.getString("log-dir");
+        Args.tryParse(schema, "-l -p 3002 -d '/var/my tmp/' -v 1.5");
+        Args.tryParse(schema, new String[]{"-p", "port", "-x"}).getErrors().get(0).getMessage();
+    }
+}
@@ -0,0 +1,30 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_STRING;
+
+class StringArgumentMarshaller implements ArgumentMarshaller.OfString {
+
+    private String stringValue = "";
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_STRING;
+        }
+        stringValue = currentArgument.next();
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        stringValue = "";
+    }
+
+    @Override
+    public String getString() {
+        return stringValue == null ? "" : stringValue;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_STRING;
+
+/**
+ * Collects the values of a string list argument, given repeatedly as in "-i a.txt -i b.txt".
+ * Unlike numeric values, strings may contain commas, so each parameter is taken as one value.
+ */
+class StringListArgumentMarshaller implements ArgumentMarshaller.OfStringList {
+
+    private final List<String> values = new ArrayList<>();
+    private final List<String> readOnlyValues = Collections.unmodifiableList(values);
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_STRING;
+        }
+        values.add(currentArgument.next());
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        values.clear();
+    }
+
+    @Override
+    public List<String> getStringList() {
+        return readOnlyValues;
+    }
+
+}
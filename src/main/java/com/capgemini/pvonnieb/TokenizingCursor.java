@@ -0,0 +1,133 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * Splits raw command line input into tokens on the fly, in a single pass, the way a shell does:
+ * tokens are separated by whitespace, single quotes preserve everything up to the closing quote,
+ * double quotes preserve everything but backslash escapes of '"' and '\', and outside quotes a backslash
+ * escapes the unit following it. A quote left open ends with the input.
+ * <p>
+ * Tokens are handed out as reusable views. Argument tokens and parameter tokens are kept in separate buffers,
+ * so that a group of flags such as "-sd" stays readable while its flags consume their parameters.
+ * Subclasses supply the input units, chars or bytes, and turn the units of a token into characters.
+ */
+abstract class TokenizingCursor extends ArgumentCursor {
+    private final TokenBuffer argumentToken = new TokenBuffer();
+    private final TokenBuffer parameterToken = new TokenBuffer();
+    private int offset;
+    private int end;
+
+    void reset(int from, int to) {
+        this.offset = from;
+        this.end = to;
+        restart();
+    }
+
+    /**
+     * @return the char, or the unsigned byte, at the given offset of the input
+     */
+    abstract int unitAt(int offset);
+
+    /**
+     * @return the view of the token occupying the given range of the input, which contains no quotes or escapes
+     */
+    abstract CharSequence verbatimToken(TokenBuffer token, int from, int to);
+
+    /**
+     * @return the view of the token whose units were collected in the buffer
+     */
+    abstract CharSequence collectedToken(TokenBuffer token);
+
+    @Override
+    protected boolean hasNextToken() {
+        while (offset < end && isWhitespace(unitAt(offset))) {
+            offset++;
+        }
+        return offset < end;
+    }
+
+    @Override
+    protected CharSequence readToken(boolean parameter) {
+        TokenBuffer token = parameter ? parameterToken : argumentToken;
+        int start = offset;
+        boolean verbatim = true;
+        int quote = 0;
+        for (; offset < end; offset++) {
+            int unit = unitAt(offset);
+            if (quote == 0) {
+                if (isWhitespace(unit)) {
+                    break;
+                } else if (unit == '\'' || unit == '"' || unit == '\\' && offset + 1 < end) {
+                    if (verbatim) {
+                        collect(token, start, offset);
+                        verbatim = false;
+                    }
+                    if (unit != '\\') {
+                        quote = unit;
+                        continue;
+                    }
+                    unit = unitAt(++offset);
+                }
+            } else if (unit == quote) {
+                quote = 0;
+                continue;
+            } else if (quote == '"' && unit == '\\' && offset + 1 < end && isEscapable(unitAt(offset + 1))) {
+                unit = unitAt(++offset);
+            }
+            if (!verbatim) {
+                token.append(unit);
+            }
+        }
+        return verbatim ? verbatimToken(token, start, offset) : collectedToken(token);
+    }
+
+    @Override
+    boolean isEndOfOptions(CharSequence argument) {
+        return isEndOfOptionsMarker(argument);
+    }
+
+    private void collect(TokenBuffer token, int from, int to) {
+        token.clear();
+        for (int i = from; i < to; i++) {
+            token.append(unitAt(i));
+        }
+    }
+
+    private static boolean isWhitespace(int unit) {
+        return unit == ' ' || unit == '\t' || unit == '\n' || unit == '\r' || unit == '\f' || unit == 0x0B;
+    }
+
+    private static boolean isEscapable(int unit) {
+        return unit == '"' || unit == '\\';
+    }
+
+    /**
+     * Growable storage for the units of a token that had to be unquoted or unescaped,
+     * and for its characters, together with the view handed out for it.
+     */
+    static final class TokenBuffer {
+        final CharSlice view = new CharSlice();
+        int[] units = new int[32];
+        int length;
+        char[] chars = new char[32];
+
+        void clear() {
+            length = 0;
+        }
+
+        void append(int unit) {
+            if (length == units.length) {
+                int[] grown = new int[units.length * 2];
+                System.arraycopy(units, 0, grown, 0, length);
+                units = grown;
+            }
+            units[length++] = unit;
+        }
+
+        char[] chars(int capacity) {
+            if (chars.length < capacity) {
+                chars = new char[Math.max(capacity, chars.length * 2)];
+            }
+            return chars;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.capgemini.pvonnieb;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tokenizes UTF-8 encoded bytes, see {@link TokenizingCursor} for the quoting rules.
+ * Since multi-byte UTF-8 sequences never contain ASCII bytes, the input can be split byte by byte
+ * and only the finished tokens need to be decoded. Tokens made of ASCII bytes only are decoded into a
+ * reusable buffer; others are decoded into a new String.
+ */
+class Utf8Cursor extends TokenizingCursor {
+    private ByteBuffer buffer;
+
+    /**
+     * @param buffer the buffer holding the input, which is read with absolute gets only
+     * @param from   the offset of the input's first byte
+     * @param to     the offset following the input's last byte
+     */
+    void reset(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        reset(from, to);
+    }
+
+    @Override
+    int unitAt(int offset) {
+        return buffer.get(offset) & 0xFF;
+    }
+
+    @Override
+    CharSequence verbatimToken(TokenBuffer token, int from, int to) {
+        int length = to - from;
+        char[] chars = token.chars(length);
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(from + i);
+            if (b < 0) {
+                byte[] bytes = new byte[length];
+                for (int j = 0; j < length; j++) {
+                    bytes[j] = buffer.get(from + j);
+                }
+                return decoded(token, bytes);
+            }
+            chars[i] = (char) b;
+        }
+        return token.view.set(chars, 0, length);
+    }
+
+    @Override
+    CharSequence collectedToken(TokenBuffer token) {
+        char[] chars = token.chars(token.length);
+        for (int i = 0; i < token.length; i++) {
+            int unit = token.units[i];
+            if (unit >= 0x80) {
+                byte[] bytes = new byte[token.length];
+                for (int j = 0; j < token.length; j++) {
+                    bytes[j] = (byte) token.units[j];
+                }
+                return decoded(token, bytes);
+            }
+            chars[i] = (char) unit;
+        }
+        return token.view.set(chars, 0, token.length);
+    }
+
+    private static CharSequence decoded(TokenBuffer token, byte[] bytes) {
+        String decoded = new String(bytes, StandardCharsets.UTF_8);
+        return token.view.set(decoded, 0, decoded.length());
+    }
+}
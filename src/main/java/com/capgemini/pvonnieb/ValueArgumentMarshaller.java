@@ -0,0 +1,44 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_VALUE;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_VALUE;
+
+/**
+ * Holds the value of an argument of a {@link ValueType}, converted by the type's converter as it is parsed,
+ * whatever the {@link ConversionMode}.
+ */
+class ValueArgumentMarshaller implements ArgumentMarshaller.OfLong {
+
+    private final ValueConverter converter;
+    private long value = 0;
+
+    ValueArgumentMarshaller(ValueConverter converter) {
+        this.converter = converter;
+    }
+
+    @Override
+    public ErrorCode set(ArgumentCursor currentArgument) {
+        if (!currentArgument.hasNext()) {
+            return MISSING_VALUE;
+        }
+        CharSequence parameter = currentArgument.nextParameter();
+        if (!converter.convert(parameter, 0, parameter.length())) {
+            return INVALID_VALUE;
+        }
+        value = converter.value();
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        value = 0;
+    }
+
+    @Override
+    public long getLong() {
+        return value;
+    }
+
+}
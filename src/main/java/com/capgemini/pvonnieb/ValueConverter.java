@@ -0,0 +1,27 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * Converts the parameters of an argument of a {@link ValueType} into the primitive value the argument holds.
+ * Like {@link NumberParser}, a converter reports through its return value whether a parameter is valid,
+ * and the value itself is read from the converter afterwards, so that invalid parameters cost no exception.
+ * <p>
+ * Usage:
+ * if (converter.convert(parameter, 0, parameter.length())) { long value = converter.value(); }
+ * <p>
+ * Each parser creates its own converters, which are therefore not required to be thread-safe.
+ */
+public interface ValueConverter {
+
+    /**
+     * @param chars the characters holding the parameter
+     * @param from  the index of the first character of the parameter
+     * @param to    the index following the last character of the parameter
+     * @return true if the range holds a valid value, which is then available from {@link #value()}
+     */
+    boolean convert(CharSequence chars, int from, int to);
+
+    /**
+     * @return the result of the last successful {@link #convert(CharSequence, int, int)}
+     */
+    long value();
+}
@@ -0,0 +1,19 @@
+package com.capgemini.pvonnieb;
+
+/**
+ * A type of argument values beyond the built-in ones, registered under a name with
+ * {@link ValueTypes#register(String, ValueType)} and declared in a schema by that name in angle brackets,
+ * e.g. "t&lt;duration&gt;, --level&lt;level&gt;".
+ * Parameters are converted once, while they are parsed, into a primitive long, which is read with
+ * {@link Args#getLong(char)} or the getters for specific types.
+ * <p>
+ * Value types are resolved when a schema is compiled; the parse itself only calls the converters.
+ * Value types are shared by all parsers of a schema and have to be thread-safe.
+ */
+public interface ValueType {
+
+    /**
+     * @return a new converter for the parameters a single parser reads
+     */
+    ValueConverter newConverter();
+}
@@ -0,0 +1,277 @@
+package com.capgemini.pvonnieb;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The registry of {@link ValueType}s, which schemas declare by name in angle brackets, and the built-in ones:
+ * <p>
+ * - long: a decimal long, e.g. "n&lt;long&gt;" for "-n 9000000000"
+ * - duration: amounts of days, hours, minutes, seconds, milliseconds, microseconds and nanoseconds,
+ * e.g. "t&lt;duration&gt;" for "-t 1h30m" or "-t 250ms", held in nanoseconds
+ * - size: an amount of bytes, optionally in binary multiples, e.g. "m&lt;size&gt;" for "-m 512", "-m 64k",
+ * "-m 64KB" or "-m 2GiB", held in bytes
+ * <p>
+ * Enum types are registered under a name of the application's choosing:
+ * ValueTypes.register("level", ValueTypes.ofEnum(Level.class));
+ * ArgsSchema schema = ArgsSchema.compile("l&lt;level&gt;, t&lt;duration&gt;");
+ * <p>
+ * A name cannot be registered again for a different type, since compiled schemas are cached by their string.
+ */
+public final class ValueTypes {
+    public static final ValueType LONG = new ValueType() {
+        @Override
+        public ValueConverter newConverter() {
+            return new LongConverter();
+        }
+    };
+    public static final ValueType DURATION = new ValueType() {
+        @Override
+        public ValueConverter newConverter() {
+            return new DurationConverter();
+        }
+    };
+    public static final ValueType SIZE = new ValueType() {
+        @Override
+        public ValueConverter newConverter() {
+            return new SizeConverter();
+        }
+    };
+
+    private static final Map<String, ValueType> registry = Collections.synchronizedMap(new HashMap<>());
+
+    static {
+        registry.put("long", LONG);
+        registry.put("duration", DURATION);
+        registry.put("size", SIZE);
+    }
+
+    private ValueTypes() {
+    }
+
+    /**
+     * Register a value type, so that schemas compiled from then on can declare arguments of it.
+     *
+     * @param name the name schemas declare the type by, letters, digits and dashes
+     * @param type the value type
+     * @throws IllegalArgumentException if the name is malformed
+     * @throws IllegalStateException    if the name is registered for another type
+     */
+    public static void register(String name, ValueType type) {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("The name of a value type must not be empty.");
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-') {
+                throw new IllegalArgumentException("Bad character: '" + c + "' in value type name: '" + name + "'.");
+            }
+        }
+        ValueType registered = registry.putIfAbsent(name, type);
+        if (registered != null && !registered.equals(type)) {
+            throw new IllegalStateException("Value type '" + name + "' is already registered.");
+        }
+    }
+
+    /**
+     * @return the value type registered under the name, or null if there is none
+     */
+    static ValueType forName(String name) {
+        return registry.get(name);
+    }
+
+    /**
+     * Create a value type for the constants of an enum, given by their names or by their names in lower case.
+     * Names are looked up in a table built once, rather than through {@link Enum#valueOf(Class, String)},
+     * which throws for every name it does not know.
+     *
+     * The value types of the same enum are equal, so registering one again under its name, e.g. from the
+     * initializers of two classes, is allowed.
+     *
+     * @param type the class of the enum
+     * @return the value type, holding the ordinal of the constant given, see {@link Args#getEnum(char, Class)}
+     */
+    public static <E extends Enum<E>> ValueType ofEnum(Class<E> type) {
+        return new EnumValueType(type);
+    }
+
+    /**
+     * Converts decimal longs, as {@link Long#parseLong(String)} does.
+     */
+    private static final class LongConverter implements ValueConverter {
+        private final NumberParser numbers = new NumberParser();
+
+        @Override
+        public boolean convert(CharSequence chars, int from, int to) {
+            return numbers.parseLong(chars, from, to);
+        }
+
+        @Override
+        public long value() {
+            return numbers.longValue();
+        }
+    }
+
+    /**
+     * Converts durations given as a sequence of amounts with units, e.g. "1h30m", into nanoseconds.
+     */
+    private static final class DurationConverter implements ValueConverter {
+        private static final long MICROSECOND = 1_000L;
+        private static final long MILLISECOND = 1_000_000L;
+        private static final long SECOND = 1_000_000_000L;
+        private static final long MINUTE = 60 * SECOND;
+        private static final long HOUR = 60 * MINUTE;
+        private static final long DAY = 24 * HOUR;
+
+        private long nanos;
+
+        @Override
+        public boolean convert(CharSequence chars, int from, int to) {
+            if (from >= to) {
+                return false;
+            }
+            long total = 0;
+            int i = from;
+            while (i < to) {
+                int digitsEnd = digitsEnd(chars, i, to);
+                int unitEnd = digitsEnd;
+                while (unitEnd < to && chars.charAt(unitEnd) >= 'a' && chars.charAt(unitEnd) <= 'z') {
+                    unitEnd++;
+                }
+                long unit = unitOf(chars, digitsEnd, unitEnd);
+                long amount = digitsEnd > i ? valueOf(chars, i, digitsEnd) : -1;
+                if (unit < 0 || amount < 0 || amount > (Long.MAX_VALUE - total) / unit) {
+                    return false;
+                }
+                total += amount * unit;
+                i = unitEnd;
+            }
+            nanos = total;
+            return true;
+        }
+
+        private static long unitOf(CharSequence chars, int from, int to) {
+            switch (to - from) {
+                case 1:
+                    switch (chars.charAt(from)) {
+                        case 'd':
+                            return DAY;
+                        case 'h':
+                            return HOUR;
+                        case 'm':
+                            return MINUTE;
+                        case 's':
+                            return SECOND;
+                        default:
+                            return -1;
+                    }
+                case 2:
+                    if (chars.charAt(from + 1) != 's') {
+                        return -1;
+                    }
+                    switch (chars.charAt(from)) {
+                        case 'm':
+                            return MILLISECOND;
+                        case 'u':
+                            return MICROSECOND;
+                        case 'n':
+                            return 1;
+                        default:
+                            return -1;
+                    }
+                default:
+                    return -1;
+            }
+        }
+
+        @Override
+        public long value() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Converts amounts of bytes, optionally followed by a binary multiple: "k", "m", "g" or "t" in either case,
+     * which may be followed by "b" or "ib", e.g. "64k", "64KB" or "64KiB".
+     */
+    private static final class SizeConverter implements ValueConverter {
+        private long bytes;
+
+        @Override
+        public boolean convert(CharSequence chars, int from, int to) {
+            int digitsEnd = digitsEnd(chars, from, to);
+            if (digitsEnd == from) {
+                return false;
+            }
+            int shift = 0;
+            int i = digitsEnd;
+            if (i < to) {
+                shift = shiftOf(Character.toLowerCase(chars.charAt(i)));
+                if (shift > 0) {
+                    i++;
+                    if (i + 1 < to && Character.toLowerCase(chars.charAt(i)) == 'i') {
+                        i++;
+                    }
+                }
+                if (i < to && Character.toLowerCase(chars.charAt(i)) == 'b') {
+                    i++;
+                }
+            }
+            long amount = valueOf(chars, from, digitsEnd);
+            if (i != to || shift < 0 || amount < 0 || amount > Long.MAX_VALUE >> shift) {
+                return false;
+            }
+            bytes = amount << shift;
+            return true;
+        }
+
+        private static int shiftOf(char multiple) {
+            switch (multiple) {
+                case 'k':
+                    return 10;
+                case 'm':
+                    return 20;
+                case 'g':
+                    return 30;
+                case 't':
+                    return 40;
+                case 'b':
+                    return 0;
+                default:
+                    return -1;
+            }
+        }
+
+        @Override
+        public long value() {
+            return bytes;
+        }
+    }
+
+    /**
+     * @return the index following the decimal digits starting at the index
+     */
+    private static int digitsEnd(CharSequence chars, int from, int to) {
+        int i = from;
+        while (i < to && chars.charAt(i) >= '0' && chars.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the value of a range of decimal digits, or -1 if it overflows a long
+     */
+    private static long valueOf(CharSequence digits, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = digits.charAt(i) - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,32 @@
+package com.capgemini.pvonnieb.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class whose {@link Option} fields are set from command line arguments by a parser generated at compile
+ * time, instead of interpreting a schema string at runtime.
+ * <p>
+ * Usage:
+ * &#64;ArgsOptions
+ * class ServerOptions {
+ * &#64;Option('l') boolean logging;
+ * &#64;Option('p') int port = 8080;
+ * &#64;Option('d') String directory;
+ * }
+ * <p>
+ * ServerOptions options = ServerOptionsParser.parse(args);
+ * <p>
+ * The generated parser, named after the class with the suffix "Parser" and placed in the same package, accepts the
+ * same arguments and throws the same {@link com.capgemini.pvonnieb.exception.ArgsException}s as
+ * {@link com.capgemini.pvonnieb.Args} would for the equivalent schema, which it exposes as its SCHEMA constant.
+ * Options that are not given keep the values the class initializes them with.
+ * <p>
+ * The class needs a constructor without parameters, and its option fields must be neither private, static nor final.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface ArgsOptions {
+}
@@ -0,0 +1,20 @@
+package com.capgemini.pvonnieb.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field of an {@link ArgsOptions} class to an argument.
+ * The argument's type follows from the field's type: boolean, int, double or String.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Option {
+
+    /**
+     * @return the name of the argument, a letter
+     */
+    char value();
+}
@@ -0,0 +1,90 @@
+package com.capgemini.pvonnieb.exception;
+
+/**
+ * An error found while parsing arguments, as collected by a parse that does not throw.
+ * Unlike an {@link ArgsException} it carries no stack trace, and its message is only rendered when requested.
+ */
+public final class ArgsError {
+    private final char errorArgumentId;
+    private final String errorArgumentName;
+    private final String errorParameter;
+    private final ArgsException.ErrorCode errorCode;
+    private final int tokenIndex;
+
+    /**
+     * @param tokenIndex the index of the argument token the error was found in
+     */
+    public ArgsError(char errorArgumentId, String errorParameter, ArgsException.ErrorCode errorCode, int tokenIndex) {
+        this.errorArgumentId = errorArgumentId;
+        this.errorArgumentName = null;
+        this.errorParameter = errorParameter;
+        this.errorCode = errorCode;
+        this.tokenIndex = tokenIndex;
+    }
+
+    /**
+     * @param errorArgumentName the name of the argument, e.g. "p" or "port"
+     * @param tokenIndex        the index of the argument token the error was found in
+     */
+    public ArgsError(String errorArgumentName, String errorParameter, ArgsException.ErrorCode errorCode,
+                     int tokenIndex) {
+        this.errorArgumentId = ArgsException.idOf(errorArgumentName);
+        this.errorArgumentName = errorArgumentName;
+        this.errorParameter = errorParameter;
+        this.errorCode = errorCode;
+        this.tokenIndex = tokenIndex;
+    }
+
+    public ArgsException.ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * @see ArgsException#getErrorArgumentId()
+     */
+    public char getErrorArgumentId() {
+        return errorArgumentId;
+    }
+
+    /**
+     * @see ArgsException#getErrorArgumentName()
+     */
+    public String getErrorArgumentName() {
+        if (errorArgumentName != null) {
+            return errorArgumentName;
+        }
+        return errorArgumentId == '\0' ? null : String.valueOf(errorArgumentId);
+    }
+
+    public String getErrorParameter() {
+        return errorParameter;
+    }
+
+    /**
+     * @return the index of the argument token the error was found in,
+     * or -1 for a violated constraint, which concerns the arguments as a whole
+     */
+    public int getTokenIndex() {
+        return tokenIndex;
+    }
+
+    /**
+     * Render the canned error message for this error, see {@link ArgsException#getMessage()}.
+     */
+    public String getMessage() {
+        return ArgsException.constructCannedErrorMessage(errorArgumentId, errorArgumentName, errorParameter, errorCode);
+    }
+
+    /**
+     * @return an exception describing this error, for callers that report errors by throwing
+     */
+    public ArgsException toException() {
+        return errorArgumentName != null ? new ArgsException(errorArgumentName, errorParameter, errorCode)
+                : new ArgsException(errorArgumentId, errorParameter, errorCode);
+    }
+
+    @Override
+    public String toString() {
+        return errorCode + " at token " + tokenIndex + ": " + getMessage();
+    }
+}
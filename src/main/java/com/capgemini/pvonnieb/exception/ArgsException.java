@@ -7,6 +7,7 @@ package com.capgemini.pvonnieb.exception;
  */
 public class ArgsException extends Exception {
     private final char errorArgumentId;
+    private final String errorArgumentName;
     private final String errorParameter;
     private final ErrorCode errorCode;
 
@@ -17,54 +18,130 @@ public class ArgsException extends Exception {
         super(message);
         this.errorCode = errorCode;
         this.errorArgumentId = errorArgumentId;
+        this.errorArgumentName = null;
         this.errorParameter = errorParameter;
     }
 
     /**
-     * Convenient constructor that makes use of canned error messages for common error codes
+     * Convenient constructor that makes use of canned error messages for common error codes.
+     * The message is only rendered when it is requested.
      */
     public ArgsException(char errorArgument, String errorParameter, ErrorCode errorCode) {
-        super(constructCannedErrorMessage(errorArgument, errorParameter, errorCode));
         this.errorArgumentId = errorArgument;
+        this.errorArgumentName = null;
         this.errorParameter = errorParameter;
         this.errorCode = errorCode;
     }
 
-    private static String constructCannedErrorMessage(char errorArgumentId, String errorParameter, ErrorCode errorCode) {
+    /**
+     * Constructor for errors of arguments that may have a long name, with canned error messages.
+     *
+     * @param errorArgumentName the name of the argument, e.g. "p" or "port"
+     */
+    public ArgsException(String errorArgumentName, String errorParameter, ErrorCode errorCode) {
+        this.errorArgumentId = idOf(errorArgumentName);
+        this.errorArgumentName = errorArgumentName;
+        this.errorParameter = errorParameter;
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * @return the id of an argument with a single letter name, '\0' for a long name
+     */
+    static char idOf(String argumentName) {
+        return argumentName.length() == 1 ? argumentName.charAt(0) : '\0';
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message
+                : constructCannedErrorMessage(errorArgumentId, errorArgumentName, errorParameter, errorCode);
+    }
+
+    static String constructCannedErrorMessage(char errorArgumentId, String errorArgumentName, String errorParameter,
+                                              ErrorCode errorCode) {
+        String name = errorArgumentName != null ? errorArgumentName : String.valueOf(errorArgumentId);
+        String option = (name.length() == 1 ? "-" : "--") + name;
         switch (errorCode) {
             case UNEXPECTED_ARGUMENT:
-                return unexpectedArgumentMessage(errorParameter);
+                return unexpectedArgumentMessage(errorArgumentName, errorParameter);
+            case AMBIGUOUS_ARGUMENT:
+                return "Argument " + errorParameter + " is ambiguous.";
+            case INVALID_CONSTRAINT:
+                return "Invalid constraint: '" + errorParameter + "'.";
+            case MISSING_REQUIRED_ARGUMENT:
+                return "Argument " + option + " is required.";
+            case EXCLUSIVE_ARGUMENTS:
+                return "Arguments " + errorParameter + " cannot be combined.";
+            case MISSING_DEPENDENCY:
+                return "Argument " + option + " requires " + (errorParameter.length() == 1 ? "-" : "--")
+                        + errorParameter + ".";
+            case UNREADABLE_ARGUMENT_FILE:
+                return "Could not read argument file '" + errorParameter + "'.";
+            case RECURSIVE_ARGUMENT_FILE:
+                return "Argument file '" + errorParameter + "' includes itself.";
             case INVALID_ARGUMENT_NAME:
-                return String.format("Bad character: '%c' in Args format: '%s'.", errorArgumentId, errorParameter);
+                return "Bad character: '" + errorArgumentId + "' in Args format: '" + errorParameter + "'.";
             case INVALID_FORMAT:
-                return String.format("Argument: '%c' has invalid format: '%s'.", errorArgumentId, errorParameter);
+                return "Argument: '" + name + "' has invalid format: '" + errorParameter + "'.";
             case MISSING_STRING:
-                return String.format("Could not find string parameter for -%c.", errorArgumentId);
+                return "Could not find string parameter for " + option + ".";
             case INVALID_INTEGER:
-                return String.format("Argument -%c expects an integer but was '%s'.", errorArgumentId, errorParameter);
+                return "Argument " + option + " expects an integer but was '" + errorParameter + "'.";
             case MISSING_INTEGER:
-                return String.format("Could not find integer parameter for -%c.", errorArgumentId);
+                return "Could not find integer parameter for " + option + ".";
             case INVALID_DOUBLE:
-                return String.format("Argument -%c expects a double but was '%s'.", errorArgumentId, errorParameter);
+                return "Argument " + option + " expects a double but was '" + errorParameter + "'.";
             case MISSING_DOUBLE:
-                return String.format("Could not find double parameter for -%c.", errorArgumentId);
+                return "Could not find double parameter for " + option + ".";
+            case INVALID_VALUE:
+                return "Argument " + option + " has an invalid value: '" + errorParameter + "'.";
+            case MISSING_VALUE:
+                return "Could not find parameter for " + option + ".";
             default:
                 return "An error occurred, but no matching error message was found.";
         }
     }
 
-    private static String unexpectedArgumentMessage(String errorParameter) {
-        return "Argument(s) -" + errorParameter + " unexpected.";
+    /**
+     * The parameter lists the unexpected argument ids, followed by any unexpected long options as they were given,
+     * e.g. "xy --colour". The long options are also the name of the argument, so that the ids are told apart from
+     * them even if '-' is among the ids.
+     *
+     * @param longOptions the unexpected long options, or null or a single id if there are none
+     */
+    private static String unexpectedArgumentMessage(String longOptions, String errorParameter) {
+        if (longOptions == null || idOf(longOptions) != '\0') {
+            return "Argument(s) -" + errorParameter + " unexpected.";
+        }
+        int idsLength = Math.max(errorParameter.length() - longOptions.length() - 1, 0);
+        return "Argument(s) " + (idsLength == 0 ? "" : "-" + errorParameter.substring(0, idsLength) + " ")
+                + longOptions + " unexpected.";
     }
 
     public ErrorCode getErrorCode() {
         return errorCode;
     }
 
+    /**
+     * @return the id of the argument, or '\0' if the error concerns a long option or no argument in particular
+     */
     public char getErrorArgumentId() {
         return errorArgumentId;
     }
 
+    /**
+     * @return the name of the argument, e.g. "p" or "port", the unexpected long options as they were given,
+     * e.g. "--colour --verbose=yes", or null if the error concerns no argument in particular
+     */
+    public String getErrorArgumentName() {
+        if (errorArgumentName != null) {
+            return errorArgumentName;
+        }
+        return errorArgumentId == '\0' ? null : String.valueOf(errorArgumentId);
+    }
+
     public String getErrorParameter() {
         return errorParameter;
     }
@@ -73,6 +150,10 @@ public class ArgsException extends Exception {
         UNEXPECTED_ARGUMENT, INVALID_ARGUMENT_NAME, INVALID_FORMAT,
         MISSING_STRING,
         MISSING_INTEGER, INVALID_INTEGER,
-        MISSING_DOUBLE, INVALID_DOUBLE
+        MISSING_DOUBLE, INVALID_DOUBLE,
+        AMBIGUOUS_ARGUMENT,
+        UNREADABLE_ARGUMENT_FILE, RECURSIVE_ARGUMENT_FILE,
+        INVALID_CONSTRAINT, MISSING_REQUIRED_ARGUMENT, EXCLUSIVE_ARGUMENTS, MISSING_DEPENDENCY,
+        MISSING_VALUE, INVALID_VALUE
     }
 }
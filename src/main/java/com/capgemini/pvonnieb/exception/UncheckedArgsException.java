@@ -0,0 +1,17 @@
+package com.capgemini.pvonnieb.exception;
+
+/**
+ * Wraps an {@link ArgsException} raised where a checked exception cannot be thrown,
+ * such as when a lazily converted parameter turns out to be invalid on its first read.
+ */
+public class UncheckedArgsException extends RuntimeException {
+
+    public UncheckedArgsException(ArgsException cause) {
+        super(cause);
+    }
+
+    @Override
+    public ArgsException getCause() {
+        return (ArgsException) super.getCause();
+    }
+}
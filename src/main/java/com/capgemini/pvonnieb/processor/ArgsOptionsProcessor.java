@@ -0,0 +1,188 @@
+package com.capgemini.pvonnieb.processor;
+
+import com.capgemini.pvonnieb.annotation.ArgsOptions;
+import com.capgemini.pvonnieb.annotation.Option;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a parser for each class annotated with {@link ArgsOptions}, see there.
+ * <p>
+ * Mistakes in an options class, such as an option id that is not a letter or a field of an unsupported type,
+ * are reported as compile errors on the offending element, in which case no parser is generated for the class.
+ */
+public class ArgsOptionsProcessor extends AbstractProcessor {
+    private static final String PARSER_SUFFIX = "Parser";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ArgsOptions.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(ArgsOptions.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@ArgsOptions can only be applied to classes");
+            } else {
+                processOptionsClass((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void processOptionsClass(TypeElement optionsClass) {
+        boolean valid = validateOptionsClass(optionsClass);
+        List<OptionField> options = new ArrayList<>();
+        Map<Character, VariableElement> fieldsById = new HashMap<>();
+        for (VariableElement field : ElementFilter.fieldsIn(optionsClass.getEnclosedElements())) {
+            Option option = field.getAnnotation(Option.class);
+            if (option == null) {
+                continue;
+            }
+            OptionField optionField = toOptionField(field, option.value());
+            VariableElement duplicate = fieldsById.putIfAbsent(option.value(), field);
+            if (duplicate != null) {
+                error(field, "Option '%c' is already bound to field %s", option.value(), duplicate.getSimpleName());
+                valid = false;
+            } else if (optionField == null) {
+                valid = false;
+            } else {
+                options.add(optionField);
+            }
+        }
+        if (valid) {
+            writeParser(optionsClass, options);
+        }
+    }
+
+    private boolean validateOptionsClass(TypeElement optionsClass) {
+        boolean valid = true;
+        NestingKind nesting = optionsClass.getNestingKind();
+        if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+            error(optionsClass, "An @ArgsOptions class must not be a local class");
+            return false;
+        }
+        for (Element enclosing = optionsClass; enclosing.getKind() == ElementKind.CLASS;
+             enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                error(optionsClass, "An @ArgsOptions class must not be private, nor be nested in a private class");
+                valid = false;
+            }
+            if (((TypeElement) enclosing).getNestingKind() == NestingKind.MEMBER
+                    && !enclosing.getModifiers().contains(Modifier.STATIC)) {
+                error(optionsClass, "An @ArgsOptions class must not be an inner class; declare it static");
+                valid = false;
+            }
+        }
+        if (optionsClass.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(optionsClass, "An @ArgsOptions class must not be abstract");
+            valid = false;
+        }
+        if (!hasAccessibleNoArgumentConstructor(optionsClass)) {
+            error(optionsClass, "An @ArgsOptions class needs a non-private constructor without parameters");
+            valid = false;
+        }
+        return valid;
+    }
+
+    private static boolean hasAccessibleNoArgumentConstructor(TypeElement optionsClass) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(optionsClass.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the field as an option, or null if it cannot be one, which has been reported
+     */
+    private OptionField toOptionField(VariableElement field, char id) {
+        if (!Character.isLetter(id)) {
+            error(field, "Option '%c' is not a letter", id);
+            return null;
+        }
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+                || modifiers.contains(Modifier.FINAL)) {
+            error(field, "An @Option field must not be private, static or final");
+            return null;
+        }
+        OptionType type = typeOf(field.asType());
+        if (type == null) {
+            error(field, "An @Option field must be a boolean, int, double or String, not %s", field.asType());
+            return null;
+        }
+        return new OptionField(id, field.getSimpleName().toString(), type);
+    }
+
+    private OptionType typeOf(TypeMirror fieldType) {
+        switch (fieldType.getKind()) {
+            case BOOLEAN:
+                return OptionType.BOOLEAN;
+            case INT:
+                return OptionType.INTEGER;
+            case DOUBLE:
+                return OptionType.DOUBLE;
+            case DECLARED:
+                TypeMirror string = processingEnv.getElementUtils().getTypeElement("java.lang.String").asType();
+                return processingEnv.getTypeUtils().isSameType(fieldType, string) ? OptionType.STRING : null;
+            default:
+                return null;
+        }
+    }
+
+    private void writeParser(TypeElement optionsClass, List<OptionField> options) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(optionsClass);
+        String packageName = packageElement.getQualifiedName().toString();
+        String optionsName = nameWithinPackage(optionsClass);
+        String parserName = optionsName.replace('.', '_') + PARSER_SUFFIX;
+        String qualifiedParserName = packageName.isEmpty() ? parserName : packageName + "." + parserName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedParserName, optionsClass).openWriter()) {
+            new ParserWriter(packageName, parserName, optionsName, options).writeTo(writer);
+        } catch (IOException e) {
+            error(optionsClass, "Could not write %s: %s", qualifiedParserName, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the class's name as referenced from its own package, e.g. Outer.Inner for a nested class
+     */
+    private static String nameWithinPackage(TypeElement typeElement) {
+        Element enclosing = typeElement.getEnclosingElement();
+        String simpleName = typeElement.getSimpleName().toString();
+        return enclosing.getKind() == ElementKind.PACKAGE
+                ? simpleName : nameWithinPackage((TypeElement) enclosing) + "." + simpleName;
+    }
+
+    private void error(Element element, String format, Object... arguments) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, arguments), element);
+    }
+}
@@ -0,0 +1,35 @@
+package com.capgemini.pvonnieb.processor;
+
+/**
+ * A field of an options class bound to an argument.
+ */
+final class OptionField {
+    private final char id;
+    private final String name;
+    private final OptionType type;
+
+    OptionField(char id, String name, OptionType type) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+    }
+
+    char id() {
+        return id;
+    }
+
+    String name() {
+        return name;
+    }
+
+    OptionType type() {
+        return type;
+    }
+
+    /**
+     * @return this option as an element of a schema string, e.g. "p#"
+     */
+    String schemaElement() {
+        return id + type.suffix();
+    }
+}
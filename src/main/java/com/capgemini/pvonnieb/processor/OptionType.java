@@ -0,0 +1,60 @@
+package com.capgemini.pvonnieb.processor;
+
+/**
+ * The field types an option can be declared with, and how the generated parser sets each of them.
+ */
+enum OptionType {
+    BOOLEAN("", null, null, null),
+    STRING("*", "MISSING_STRING", null, null),
+    INTEGER("#", "MISSING_INTEGER", "INVALID_INTEGER", "Int"),
+    DOUBLE("##", "MISSING_DOUBLE", "INVALID_DOUBLE", "Double");
+
+    private final String suffix;
+    private final String missingErrorCode;
+    private final String invalidErrorCode;
+    private final String numberType;
+
+    OptionType(String suffix, String missingErrorCode, String invalidErrorCode, String numberType) {
+        this.suffix = suffix;
+        this.missingErrorCode = missingErrorCode;
+        this.invalidErrorCode = invalidErrorCode;
+        this.numberType = numberType;
+    }
+
+    /**
+     * @return the suffix declaring this type in a schema string
+     */
+    String suffix() {
+        return suffix;
+    }
+
+    boolean takesParameter() {
+        return missingErrorCode != null;
+    }
+
+    boolean isNumber() {
+        return numberType != null;
+    }
+
+    String missingErrorCode() {
+        return missingErrorCode;
+    }
+
+    String invalidErrorCode() {
+        return invalidErrorCode;
+    }
+
+    /**
+     * @return the name of the {@link com.capgemini.pvonnieb.NumberParser} method converting the parameter
+     */
+    String parseMethod() {
+        return "parse" + numberType;
+    }
+
+    /**
+     * @return the name of the {@link com.capgemini.pvonnieb.NumberParser} method reading the converted value
+     */
+    String valueMethod() {
+        return numberType.toLowerCase() + "Value";
+    }
+}
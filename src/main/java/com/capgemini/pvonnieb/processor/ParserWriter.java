@@ -0,0 +1,186 @@
+package com.capgemini.pvonnieb.processor;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the source of the parser generated for an options class: a loop over the argument tokens with a switch on
+ * each argument's name that stores parameters straight into the options' fields.
+ */
+final class ParserWriter {
+    private final String packageName;
+    private final String parserName;
+    private final String optionsName;
+    private final List<OptionField> options;
+    private PrintWriter out;
+    private int indentation;
+
+    /**
+     * @param packageName the package of the options class, empty for the unnamed package
+     * @param parserName  the simple name of the parser class to write
+     * @param optionsName the name of the options class as referenced from its own package
+     * @param options     the options, in declaration order
+     */
+    ParserWriter(String packageName, String parserName, String optionsName, List<OptionField> options) {
+        this.packageName = packageName;
+        this.parserName = parserName;
+        this.optionsName = optionsName;
+        this.options = options;
+    }
+
+    void writeTo(Writer writer) {
+        out = new PrintWriter(writer);
+        writeHeader();
+        line("public final class %s {", parserName);
+        writeConstants();
+        writeParse();
+        writeParseInto();
+        writeUnexpectedArguments();
+        line("}");
+        out.flush();
+    }
+
+    private void writeHeader() {
+        if (!packageName.isEmpty()) {
+            line("package %s;", packageName);
+            line("");
+        }
+        line("import com.capgemini.pvonnieb.NumberParser;");
+        line("import com.capgemini.pvonnieb.exception.ArgsException;");
+        line("import com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;");
+        line("");
+        line("import java.util.BitSet;");
+        line("");
+        line("/**");
+        line(" * Parses command line arguments into {@link %s}.", optionsName);
+        line(" * Generated from its annotations, do not edit.");
+        line(" */");
+    }
+
+    private void writeConstants() {
+        String schema = options.stream().map(OptionField::schemaElement).collect(Collectors.joining(", "));
+        line("/**");
+        line(" * The schema an {@link com.capgemini.pvonnieb.Args} would need to parse the same arguments.");
+        line(" */");
+        line("public static final String SCHEMA = \"%s\";", escape(schema));
+        line("");
+        line("private %s() {", parserName);
+        line("}");
+        line("");
+    }
+
+    private void writeParse() {
+        line("/**");
+        line(" * Parse arguments into new options.");
+        line(" *");
+        line(" * @throws ArgsException the first invalid or missing parameter, if any, otherwise all unexpected arguments");
+        line(" */");
+        line("public static %s parse(String[] args) throws ArgsException {", optionsName);
+        line("%s options = new %s();", optionsName, optionsName);
+        line("parseInto(options, args);");
+        line("return options;");
+        line("}");
+        line("");
+    }
+
+    private void writeParseInto() {
+        line("/**");
+        line(" * Parse arguments into existing options; options that are not given keep their values.");
+        line(" *");
+        line(" * @throws ArgsException the first invalid or missing parameter, if any, otherwise all unexpected arguments");
+        line(" */");
+        line("public static void parseInto(%s options, String[] args) throws ArgsException {", optionsName);
+        line("NumberParser numbers = new NumberParser();");
+        line("BitSet unexpected = null;");
+        line("int next = 0;");
+        line("while (next < args.length) {");
+        line("String arg = args[next++];");
+        line("if (!arg.startsWith(\"-\")) {");
+        line("continue;");
+        line("}");
+        line("for (int i = 1; i < arg.length(); i++) {");
+        line("switch (arg.charAt(i)) {");
+        for (OptionField option : options) {
+            writeCase(option);
+        }
+        line("default: {");
+        line("if (unexpected == null) {");
+        line("unexpected = new BitSet();");
+        line("}");
+        line("unexpected.set(arg.charAt(i));");
+        line("}");
+        line("}");
+        line("}");
+        line("}");
+        line("if (unexpected != null) {");
+        line("throw new ArgsException('\\0', unexpectedArguments(unexpected), ErrorCode.UNEXPECTED_ARGUMENT);");
+        line("}");
+        line("}");
+        line("");
+    }
+
+    private void writeCase(OptionField option) {
+        String id = charLiteral(option.id());
+        OptionType type = option.type();
+        line("case %s: {", id);
+        if (!type.takesParameter()) {
+            line("options.%s = true;", option.name());
+        } else {
+            line("if (next == args.length) {");
+            line("throw new ArgsException(%s, null, ErrorCode.%s);", id, type.missingErrorCode());
+            line("}");
+            line("String parameter = args[next++];");
+            if (type.isNumber()) {
+                line("if (!numbers.%s(parameter, 0, parameter.length())) {", type.parseMethod());
+                line("throw new ArgsException(%s, parameter, ErrorCode.%s);", id, type.invalidErrorCode());
+                line("}");
+                line("options.%s = numbers.%s();", option.name(), type.valueMethod());
+            } else {
+                line("options.%s = parameter;", option.name());
+            }
+        }
+        line("break;");
+        line("}");
+    }
+
+    private void writeUnexpectedArguments() {
+        line("private static String unexpectedArguments(BitSet unexpected) {");
+        line("StringBuilder ids = new StringBuilder();");
+        line("for (int id = unexpected.nextSetBit(0); id >= 0; id = unexpected.nextSetBit(id + 1)) {");
+        line("ids.append((char) id);");
+        line("}");
+        line("return ids.toString();");
+        line("}");
+    }
+
+    /**
+     * Write a line of code, indented by the braces opened before it.
+     */
+    private void line(String format, Object... arguments) {
+        String code = String.format(format, arguments);
+        if (code.startsWith("}")) {
+            indentation--;
+        }
+        for (int i = 0; i < indentation && !code.isEmpty(); i++) {
+            out.print("    ");
+        }
+        out.println(code);
+        if (code.endsWith("{")) {
+            indentation++;
+        }
+    }
+
+    private static String charLiteral(char id) {
+        return id < 128 ? "'" + id + "'" : String.format("'\\u%04x'", (int) id);
+    }
+
+    private static String escape(String schema) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : schema.toCharArray()) {
+            escaped.append(c < 128 ? String.valueOf(c) : String.format("\\u%04x", (int) c));
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ArgFileTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+
+    @TempDir
+    Path directory;
+
+    private String write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    @Test
+    void argFileShouldBeReplacedByItsArguments() throws IOException, ArgsException {
+        String file = write("args.txt", "-d 42\n-s '/var/my tmp/'\t-x 2.5\n");
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.parseWithArgFiles(new String[]{"-b", "@" + file});
+
+        assertThat(parser.getBoolean('b')).isTrue();
+        assertThat(parser.getInt('d')).isEqualTo(42);
+        assertThat(parser.getString('s')).isEqualTo("/var/my tmp/");
+        assertThat(parser.getDouble('x')).isEqualTo(2.5);
+    }
+
+    @Test
+    void argFilesShouldNest() throws IOException, ArgsException {
+        String inner = write("inner.txt", "-x 0.5 -s inner");
+        String outer = write("outer.txt", "-d 1 @" + inner + " -s outer");
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("d[#], s[*], x##"));
+
+        parser.parseWithArgFiles(new String[]{"-d", "0", "@" + outer, "-d", "2"});
+
+        assertThat(parser.getIntList('d').toArray()).containsExactly(0, 1, 2);
+        assertThat(parser.getStringList('s')).containsExactly("inner", "outer");
+        assertThat(parser.getDouble('x')).isEqualTo(0.5);
+    }
+
+    @Test
+    void argFileShouldSupplyParameters() throws IOException, ArgsException {
+        String file = write("port.txt", "3002");
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.parseWithArgFiles(new String[]{"-d", "@" + file, "-s", "@@home"});
+
+        assertThat(parser.getInt('d')).isEqualTo(3002);
+        assertThat(parser.getString('s')).describedAs("@@ escapes a literal @").isEqualTo("@home");
+    }
+
+    @Test
+    void argFilesShouldOnlyBeExpandedOnRequest() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.parse(new String[]{"-s", "@home"});
+
+        assertThat(parser.getString('s')).isEqualTo("@home");
+    }
+
+    @Test
+    void recursiveArgFileShouldBeReported() throws IOException, ArgsException {
+        Path first = directory.resolve("first.txt");
+        String second = write("second.txt", "-b @" + first);
+        write("first.txt", "-d 1 @" + second + " -x 2");
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        assertThat(parser.tryParseWithArgFiles(new String[]{"@" + first})).isFalse();
+
+        assertThat(parser.getErrors()).extracting(ArgsError::getErrorCode, ArgsError::getErrorParameter,
+                ArgsError::getTokenIndex).containsExactly(tuple(ErrorCode.RECURSIVE_ARGUMENT_FILE, first.toString(), 3));
+        assertThat(parser.getBoolean('b')).isTrue();
+        assertThat(parser.getDouble('x')).describedAs("Arguments after the cycle are still read").isEqualTo(2);
+    }
+
+    @Test
+    void unreadableArgFileShouldBeReported() throws ArgsException {
+        String missing = directory.resolve("missing.txt").toString();
+
+        ArgsException e = assertThrows(ArgsException.class, () -> new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA))
+                .parseWithArgFiles(new String[]{"-b", "@" + missing, "-z"}));
+        ParseResult result = Args.tryParseWithArgFiles(ArgsSchema.compile(DEFAULT_SCHEMA),
+                new String[]{"-b", "@" + missing, "-z"});
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.UNREADABLE_ARGUMENT_FILE);
+        assertThat(e.getMessage()).isEqualTo("Could not read argument file '" + missing + "'.");
+        assertThat(result.getErrors()).extracting(ArgsError::getErrorCode, ArgsError::getTokenIndex)
+                .containsExactly(tuple(ErrorCode.UNREADABLE_ARGUMENT_FILE, 1), tuple(ErrorCode.UNEXPECTED_ARGUMENT, 1));
+        assertThat(result.getArgs().getBoolean('b')).isTrue();
+    }
+
+    @Test
+    void largeArgFileShouldBeParsedInConstantMemory() throws IOException, ArgsException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        int ids = 200_000;
+        Path file = directory.resolve("ids.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < ids; i++) {
+                writer.write("-d " + i + " -x 0.5\n");
+            }
+        }
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("d#, x##"));
+        String[] args = {"@" + file};
+        parser.parseWithArgFiles(args);
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        parser.parseWithArgFiles(args);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).describedAs("Bytes allocated parsing %d bytes of arguments", Files.size(file))
+                .isLessThan(64 * 1024);
+        assertThat(parser.getInt('d')).isEqualTo(ids - 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArgsBatchTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+    public static final int VECTOR_COUNT = 10 * ArgsBatch.TASK_SIZE + 17;
+
+    /**
+     * Every third argument list has an invalid integer and every fifth an unexpected argument.
+     */
+    private static List<String[]> argumentVectors() {
+        List<String[]> vectors = new ArrayList<>();
+        for (int i = 0; i < VECTOR_COUNT; i++) {
+            String integer = i % 3 == 0 ? "x" + i : Integer.toString(i);
+            vectors.add(i % 5 == 0 ? new String[]{"-d", integer, "-q"} : new String[]{"-b", "-d", integer});
+        }
+        return vectors;
+    }
+
+    private static long multiplesOf(int divisor) {
+        return (VECTOR_COUNT + divisor - 1) / divisor;
+    }
+
+    @Test
+    void resultsShouldKeepInputOrder() throws ArgsException {
+        BatchResult batch = ArgsBatch.parseAll(ArgsSchema.compile(DEFAULT_SCHEMA), argumentVectors());
+
+        List<ParseResult> results = batch.getResults();
+        assertThat(results).hasSize(VECTOR_COUNT);
+        for (int i = 0; i < VECTOR_COUNT; i++) {
+            if (i % 3 != 0) {
+                assertThat(results.get(i).getArgs().getInt('d')).isEqualTo(i);
+            }
+        }
+    }
+
+    @Test
+    void linkedListShouldKeepInputOrder() throws ArgsException {
+        BatchResult batch = ArgsBatch.parseAll(ArgsSchema.compile(DEFAULT_SCHEMA),
+                new LinkedList<>(argumentVectors()));
+
+        List<ParseResult> results = batch.getResults();
+        assertThat(results).hasSize(VECTOR_COUNT);
+        assertThat(results.get(VECTOR_COUNT - 1).getArgs().getInt('d')).isEqualTo(VECTOR_COUNT - 1);
+    }
+
+    @Test
+    void shouldCountErrorsPerErrorCode() throws ArgsException {
+        BatchResult batch = ArgsBatch.parseAll(ArgsSchema.compile(DEFAULT_SCHEMA), argumentVectors(),
+                new ForkJoinPool(4));
+
+        assertThat(batch.getErrorCounts().get(ErrorCode.INVALID_INTEGER)).isEqualTo(multiplesOf(3));
+        assertThat(batch.getErrorCounts().get(ErrorCode.UNEXPECTED_ARGUMENT)).isEqualTo(multiplesOf(5));
+        assertThat(batch.getErrorCounts().get(ErrorCode.MISSING_STRING)).isEqualTo(0L);
+        assertThat(batch.getInvalidCount()).isEqualTo(multiplesOf(3) + multiplesOf(5) - multiplesOf(15));
+    }
+
+    @Test
+    void streamShouldMatchList() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        BatchResult fromList = ArgsBatch.parseAll(schema, argumentVectors());
+        BatchResult fromStream = ArgsBatch.parseAll(schema, argumentVectors().stream());
+
+        assertThat(fromStream.getErrorCounts()).isEqualTo(fromList.getErrorCounts());
+        for (int i = 0; i < VECTOR_COUNT; i++) {
+            assertThat(fromStream.getResults().get(i).getErrors())
+                    .usingElementComparatorOnFields("errorCode", "tokenIndex", "errorParameter")
+                    .isEqualTo(fromList.getResults().get(i).getErrors());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ArgsParserTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+    public static final int MEASURED_PARSES = 10_000;
+
+    @Test
+    void reparseShouldResetPreviousValues() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.parse(new String[]{"-b", "-d", "3", "-s", "asdf", "-x", "1.5"});
+        parser.parse(new String[]{"-d", "4"});
+
+        assertThat(parser.getInt('d')).isEqualTo(4);
+        assertThat(parser.getBoolean('b')).isFalse();
+        assertThat(parser.getString('s')).isEqualTo("");
+        assertThat(parser.getDouble('x')).isEqualTo(0);
+        assertThat(parser.isGiven('b')).isFalse();
+        assertThat(parser.isGiven('d')).isTrue();
+    }
+
+    @Test
+    void reparseShouldResetPreviousErrors() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        assertThat(parser.tryParse(new String[]{"-q", "-d", "asdf"})).isFalse();
+        assertThat(parser.getErrors()).extracting(ArgsError::getErrorCode)
+                .containsExactly(ErrorCode.UNEXPECTED_ARGUMENT, ErrorCode.INVALID_INTEGER);
+
+        assertThat(parser.tryParse(new String[]{"-d", "5"})).isTrue();
+        assertThat(parser.getErrors()).isEmpty();
+    }
+
+    @Test
+    void parseShouldThrowLikeTheArgsConstructor() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        ArgsException e = assertThrows(ArgsException.class, () -> parser.parse(new String[]{"-y", "-s"}));
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.MISSING_STRING);
+        assertThat(e.getErrorArgumentId()).isEqualTo('s');
+    }
+
+    @Test
+    void lazyParserShouldForgetPreviousConversionErrors() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA), ConversionMode.LAZY);
+
+        parser.parse(new String[]{"-d", "asdf"});
+        parser.parse(new String[]{"-d", "7"});
+
+        assertThat(parser.getInt('d')).isEqualTo(7);
+    }
+
+    @Test
+    void warmedParserShouldNotAllocate() throws ArgsException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("b, d#, s*, v, x##"));
+        String[] args = {"-bv", "-d", "3002", "-s", "/var/tmp/", "-x", "-2.5e3", "ignored"};
+        parser.parse(args);
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_PARSES; i++) {
+            parser.parse(args);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).describedAs("Bytes allocated by %d parses", MEASURED_PARSES)
+                .isLessThan(MEASURED_PARSES);
+        assertThat(parser.getInt('d')).isEqualTo(3002);
+        assertThat(parser.getDouble('x')).isEqualTo(-2500);
+    }
+
+    @Test
+    void shouldParseRawCommandLine() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.parse("-bd 3 -s '/var/my tmp/' -x 2.5");
+
+        assertThat(parser.getBoolean('b')).isTrue();
+        assertThat(parser.getInt('d')).isEqualTo(3);
+        assertThat(parser.getString('s')).isEqualTo("/var/my tmp/");
+        assertThat(parser.getDouble('x')).isEqualTo(2.5);
+    }
+
+    @Test
+    void shouldParseUtf8CommandLine() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.parse("-sd \"Grüße, Welt\" 42".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(parser.getString('s')).isEqualTo("Grüße, Welt");
+        assertThat(parser.getInt('d')).isEqualTo(42);
+    }
+
+    @Test
+    void parsingShouldStopAtEndOfOptionsOfCommandLinesOnly() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        assertThat(parser.tryParse(new String[]{"-b", "--", "-d", "3"})).isFalse();
+        assertThat(parser.getInt('d')).isEqualTo(3);
+        assertThat(parser.getErrors()).extracting(ArgsError::getErrorParameter).containsExactly("-");
+
+        parser.parse("-d 4 -- -b -q");
+        assertThat(parser.getInt('d')).isEqualTo(4);
+        assertThat(parser.isGiven('b')).isFalse();
+    }
+
+    @Test
+    void rawCommandLineErrorsShouldCarryTheParameter() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        assertThat(parser.tryParse("-bd 'not a number' -q")).isFalse();
+
+        assertThat(parser.getErrors()).extracting(ArgsError::getErrorCode)
+                .containsExactly(ErrorCode.INVALID_INTEGER, ErrorCode.UNEXPECTED_ARGUMENT);
+        assertThat(parser.getErrors()).extracting(ArgsError::getTokenIndex).containsExactly(1, 2);
+        assertThat(parser.getErrors().get(0).getErrorParameter()).isEqualTo("not a number");
+    }
+
+    @Test
+    void warmedParserShouldNotAllocateForRawFlagsAndNumbers() throws ArgsException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        // String parameters are materialized, so only flags and numbers are measured here.
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("a, b, c, d, n#, x##"));
+        String commandLine = "-ab -c 'quoted' \\escaped -n 3002 -x \"0.125\" -d -- -q";
+        byte[] utf8CommandLine = commandLine.getBytes(StandardCharsets.UTF_8);
+        parser.parse(commandLine);
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_PARSES; i++) {
+            parser.parse(commandLine);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).describedAs("Bytes allocated by %d parses", MEASURED_PARSES)
+                .isLessThan(MEASURED_PARSES);
+        assertThat(parser.getBoolean('d')).isTrue();
+        assertThat(parser.getInt('n')).isEqualTo(3002);
+        assertThat(parser.getDouble('x')).isEqualTo(0.125);
+        parser.parse(utf8CommandLine);
+        assertThat(parser.getBoolean('c')).isTrue();
+        assertThat(parser.getDouble('x')).isEqualTo(0.125);
+    }
+
+    @Test
+    void longOptionErrorsShouldPointAtTheirToken() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("--port#, --ratio##, --verbose, --version"));
+
+        assertThat(parser.tryParse(new String[]{"--port=x", "--ratio", "y", "--ver", "--colour"})).isFalse();
+
+        assertThat(parser.getErrors()).extracting(ArgsError::getErrorCode, ArgsError::getErrorArgumentName,
+                ArgsError::getErrorParameter, ArgsError::getTokenIndex).containsExactly(
+                tuple(ErrorCode.INVALID_INTEGER, "port", "x", 0),
+                tuple(ErrorCode.INVALID_DOUBLE, "ratio", "y", 2),
+                tuple(ErrorCode.AMBIGUOUS_ARGUMENT, null, "--ver", 3),
+                tuple(ErrorCode.UNEXPECTED_ARGUMENT, "--colour", "--colour", 4));
+    }
+
+    @Test
+    void inlineParameterShouldNotSpillIntoTheNextOption() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("--log-dir*, b"));
+
+        parser.parse("--log-dir='/var/my tmp/' -b");
+
+        assertThat(parser.getString("log-dir")).isEqualTo("/var/my tmp/");
+        assertThat(parser.getBoolean('b')).isTrue();
+    }
+
+    @Test
+    void warmedParserShouldNotAllocateForLongOptions() throws ArgsException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("--verbose, --version, --port#, --ratio##, b"));
+        String[] args = {"--verb", "--port=3002", "--ratio", "0.25", "-b", "--version"};
+        parser.parse(args);
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_PARSES; i++) {
+            parser.parse(args);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).describedAs("Bytes allocated by %d parses", MEASURED_PARSES)
+                .isLessThan(MEASURED_PARSES);
+        assertThat(parser.getInt("port")).isEqualTo(3002);
+        assertThat(parser.getDouble("ratio")).isEqualTo(0.25);
+        assertThat(parser.getBoolean("verbose")).isTrue();
+    }
+
+    @Test
+    void reparseShouldStartListsAfresh() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("p[#], i[*]"));
+        parser.parse(new String[]{"-p", "1,2", "-i", "a"});
+
+        parser.parse(new String[]{"-p", "3"});
+
+        assertThat(parser.getIntList('p').toArray()).containsExactly(3);
+        assertThat(parser.getStringList('i')).isEmpty();
+    }
+
+    @Test
+    void warmedParserShouldNotAllocateForNumericLists() throws ArgsException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile("p[#], r[##]"));
+        String[] args = {"-p", "1,2,3,4,5,6,7,8,9,10", "-r", "0.5", "-p", "11", "-r", "1e3,-2.25"};
+        parser.parse(args);
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_PARSES; i++) {
+            parser.parse(args);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).describedAs("Bytes allocated by %d parses", MEASURED_PARSES)
+                .isLessThan(MEASURED_PARSES);
+        assertThat(parser.getIntList('p').size()).isEqualTo(11);
+        assertThat(parser.getDoubleList('r').toArray()).containsExactly(0.5, 1e3, -2.25);
+    }
+
+    @Test
+    void constraintsShouldSpanLargeSchemas() throws ArgsException {
+        StringBuilder schema = new StringBuilder("--option-0");
+        for (int i = 1; i < 200; i++) {
+            schema.append(", --option-").append(i);
+        }
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(schema + "; !option-199, option-3^option-130, option-70>option-7"));
+
+        assertThat(parser.tryParse(new String[]{"--option-199", "--option-3", "--option-70", "--option-7"})).isTrue();
+        assertThat(parser.tryParse(new String[]{"--option-3", "--option-130", "--option-70"})).isFalse();
+        assertThat(parser.getErrors()).extracting(ArgsError::getErrorCode, ArgsError::getErrorArgumentName)
+                .containsExactly(tuple(ErrorCode.MISSING_REQUIRED_ARGUMENT, "option-199"),
+                        tuple(ErrorCode.EXCLUSIVE_ARGUMENTS, null),
+                        tuple(ErrorCode.MISSING_DEPENDENCY, "option-70"));
+    }
+
+    @Test
+    void warmedParserShouldNotAllocateForSatisfiedConstraints() throws ArgsException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA + ", q; !d, b^q, s>d"));
+        String[] args = {"-b", "-d", "42", "-s", "hello"};
+        parser.parse(args);
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_PARSES; i++) {
+            parser.parse(args);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).describedAs("Bytes allocated by %d parses", MEASURED_PARSES)
+                .isLessThan(MEASURED_PARSES);
+    }
+}
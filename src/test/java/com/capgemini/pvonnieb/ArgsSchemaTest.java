@@ -0,0 +1,175 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArgsSchemaTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+
+    @Test
+    void compileShouldReturnCachedSchema() throws ArgsException {
+        ArgsSchema first = ArgsSchema.compile(DEFAULT_SCHEMA);
+        ArgsSchema second = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        assertThat(second).describedAs("Compiling the same schema twice should hit the cache.")
+                .isSameAs(first);
+    }
+
+    @Test
+    void compileShouldEvictLeastRecentlyUsedSchema() throws ArgsException {
+        ArgsSchema first = ArgsSchema.compile("e, v#");
+        for (int i = 0; i < ArgsSchema.CACHE_SIZE; i++) {
+            ArgsSchema.compile("e," + spaces(i + 2) + "v#");
+        }
+
+        assertThat(ArgsSchema.compile("e, v#")).describedAs("The schema should have been evicted and recompiled.")
+                .isNotSameAs(first);
+    }
+
+    private static String spaces(int count) {
+        StringBuilder spaces = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            spaces.append(' ');
+        }
+        return spaces.toString();
+    }
+
+    @Test
+    void compileShouldRejectNonLetterArgumentName() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("b, 1#"));
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_ARGUMENT_NAME);
+        assertThat(e.getErrorArgumentId()).isEqualTo('1');
+    }
+
+    @Test
+    void compileShouldRejectInvalidFormat() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("b, d###"));
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_FORMAT);
+        assertThat(e.getErrorParameter()).isEqualTo("###");
+    }
+
+    @Test
+    void compiledSchemaShouldBeReusableAcrossParses() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        Args first = new Args(schema, new String[]{"-d", "1", "-s", "first"});
+        Args second = new Args(schema, new String[]{"-d", "2"});
+
+        assertThat(first.getInt('d')).isEqualTo(1);
+        assertThat(first.getString('s')).isEqualTo("first");
+        assertThat(second.getInt('d')).isEqualTo(2);
+        assertThat(second.getString('s')).describedAs("Values must not leak between parses.").isEqualTo("");
+    }
+
+    @Test
+    void usageShouldMatchArgsUsage() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        assertThat(schema.usage()).isEqualTo(new Args(schema, new String[0]).usage())
+                .isEqualTo("-[" + DEFAULT_SCHEMA + "]");
+    }
+
+    @Test
+    void compileShouldDeclareLongOptions() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l, --port#, --log-dir*, --verbose");
+
+        assertThat(schema.size()).isEqualTo(4);
+        assertThat(schema.slotOf("port")).isEqualTo(1);
+        assertThat(schema.nameAt(2)).isEqualTo("log-dir");
+        assertThat(schema.typeAt(2)).isEqualTo(ArgumentType.STRING);
+        assertThat(schema.idAt(3)).isEqualTo('\0');
+        assertThat(schema.slotOf("l")).isEqualTo(0);
+        assertThat(schema.slotOf('l')).isEqualTo(0);
+        assertThat(schema.slotOf("po")).describedAs("slotOf does not resolve abbreviations").isEqualTo(-1);
+    }
+
+    @Test
+    void compileShouldRejectInvalidLongOptionNames() {
+        ArgsException badChar = assertThrows(ArgsException.class, () -> ArgsSchema.compile("b, --log_dir*"));
+        ArgsException leadingDigit = assertThrows(ArgsException.class, () -> ArgsSchema.compile("b, --2nd"));
+        ArgsException tooShort = assertThrows(ArgsException.class, () -> ArgsSchema.compile("b, --x"));
+
+        assertThat(badChar.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_ARGUMENT_NAME);
+        assertThat(badChar.getErrorArgumentId()).isEqualTo('_');
+        assertThat(leadingDigit.getErrorArgumentId()).isEqualTo('2');
+        assertThat(tooShort.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_ARGUMENT_NAME);
+    }
+
+    @Test
+    void compileShouldRejectInvalidLongOptionFormat() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("b, --port#*"));
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_FORMAT);
+        assertThat(e.getErrorArgumentName()).isEqualTo("port");
+        assertThat(e.getMessage()).isEqualTo("Argument: 'port' has invalid format: '#*'.");
+    }
+
+    @Test
+    void compileShouldDeclareListArguments() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("p[#], r[##], i[*], --ids[#]");
+
+        assertThat(schema.typeAt(0)).isEqualTo(ArgumentType.INTEGER_LIST);
+        assertThat(schema.typeAt(1)).isEqualTo(ArgumentType.DOUBLE_LIST);
+        assertThat(schema.typeAt(2)).isEqualTo(ArgumentType.STRING_LIST);
+        assertThat(schema.typeAt(schema.slotOf("ids"))).isEqualTo(ArgumentType.INTEGER_LIST);
+    }
+
+    @Test
+    void compileShouldRejectInvalidListFormat() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("p[#"));
+        ArgsException longOption = assertThrows(ArgsException.class, () -> ArgsSchema.compile("--ids[x]"));
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_FORMAT);
+        assertThat(e.getErrorParameter()).isEqualTo("[#");
+        assertThat(longOption.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_FORMAT);
+    }
+
+    @Test
+    void compileShouldResolveValueTypes() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("n<long>, t<duration>, --max-heap<size>, l");
+
+        assertThat(schema.typeAt(0)).isEqualTo(ArgumentType.VALUE);
+        assertThat(schema.valueTypeAt(0)).isSameAs(ValueTypes.LONG);
+        assertThat(schema.valueTypeAt(1)).isSameAs(ValueTypes.DURATION);
+        assertThat(schema.valueTypeAt(schema.slotOf("max-heap"))).isSameAs(ValueTypes.SIZE);
+        assertThat(schema.valueTypeAt(3)).isNull();
+    }
+
+    @Test
+    void compileShouldRejectUnknownValueTypes() {
+        ArgsException e = assertThrows(ArgsException.class, () -> ArgsSchema.compile("t<colour>"));
+        ArgsException longOption = assertThrows(ArgsException.class, () -> ArgsSchema.compile("--timeout<>"));
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_FORMAT);
+        assertThat(e.getErrorParameter()).isEqualTo("<colour>");
+        assertThat(longOption.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_FORMAT);
+    }
+
+    @Test
+    void compileShouldDeclareConstraints() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile("l, v, p#, --log-dir*; !p, l^v, log-dir>p");
+
+        assertThat(schema.size()).isEqualTo(4);
+        assertThat(schema.constraintCount()).isEqualTo(3);
+        assertThat(schema.usage()).isEqualTo("-[l, v, p#, --log-dir*]");
+    }
+
+    @Test
+    void compileShouldRejectInvalidConstraints() {
+        ArgsException unknown = assertThrows(ArgsException.class, () -> ArgsSchema.compile("l, v; l^x"));
+        ArgsException single = assertThrows(ArgsException.class, () -> ArgsSchema.compile("l, v; l"));
+        ArgsException empty = assertThrows(ArgsException.class, () -> ArgsSchema.compile("l, v; !"));
+
+        assertThat(unknown.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_CONSTRAINT);
+        assertThat(unknown.getMessage()).isEqualTo("Invalid constraint: 'l^x'.");
+        assertThat(single.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_CONSTRAINT);
+        assertThat(empty.getErrorParameter()).isEqualTo("!");
+    }
+}
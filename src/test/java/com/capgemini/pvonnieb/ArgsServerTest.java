@@ -0,0 +1,221 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ArgsServerTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##, --port#";
+
+    private final ArgsServer server = new ArgsServer(4);
+
+    @AfterEach
+    void closeServer() throws IOException {
+        server.close();
+    }
+
+    private SocketAddress bindLoopback() throws Exception {
+        server.register("default", ArgsSchema.compile(DEFAULT_SCHEMA));
+        return server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @Test
+    void serverShouldReplyWithASnapshotOfTheArguments() throws Exception {
+        try (ArgsClient client = ArgsClient.connect(bindLoopback())) {
+            ArgsSnapshot args = client.parse("default", "-b -d 42 -s 'my dir' --port=8080");
+
+            assertThat(args.getBoolean('b')).isTrue();
+            assertThat(args.getInt('d')).isEqualTo(42);
+            assertThat(args.getString('s')).isEqualTo("my dir");
+            assertThat(args.getInt("port")).isEqualTo(8080);
+            assertThat(args.getSchema()).isSameAs(ArgsSchema.compile(DEFAULT_SCHEMA));
+        }
+    }
+
+    @Test
+    void serverShouldReplyWithTheErrors() throws Exception {
+        try (ArgsClient client = ArgsClient.connect(bindLoopback())) {
+            ArgsSnapshot args = client.tryParse("default", "-q -d forty-two --colour");
+
+            assertThat(args).isNull();
+            assertThat(client.getErrors())
+                    .extracting(ArgsError::getErrorCode, ArgsError::getErrorArgumentName, ArgsError::getTokenIndex)
+                    .containsExactly(tuple(ErrorCode.UNEXPECTED_ARGUMENT, "q", 0),
+                            tuple(ErrorCode.INVALID_INTEGER, "d", 2),
+                            tuple(ErrorCode.UNEXPECTED_ARGUMENT, "--colour", 3));
+
+            ArgsException e = assertThrows(ArgsException.class, () -> client.parse("default", "-q --port x"));
+
+            assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+            assertThat(e.getErrorArgumentName()).isEqualTo("port");
+            assertThat(e.getMessage()).isEqualTo(new ArgsException("port", "x", ErrorCode.INVALID_INTEGER).getMessage());
+            assertThat(client.parse("default", "-b").getBoolean('b')).isTrue();
+            assertThat(client.getErrors()).isEmpty();
+        }
+        assertThat(server.snapshot()).containsEntry("server.requests", 3L).containsEntry("server.invalid", 2L);
+    }
+
+    @Test
+    void unknownSchemaShouldBeRejected() throws Exception {
+        try (ArgsClient client = ArgsClient.connect(bindLoopback())) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> client.parse("other", "-b"));
+
+            assertThat(e.getMessage()).isEqualTo("No schema is registered as 'other'.");
+            assertThat(client.parse("default", "-b").getBoolean('b')).describedAs("Connection kept open").isTrue();
+        }
+        assertThat(server.snapshot()).containsEntry("server.unknownSchema", 1L);
+    }
+
+    @Test
+    void emptyFrameShouldCloseOnlyItsConnection() throws Exception {
+        SocketAddress address = bindLoopback();
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            channel.write(ByteBuffer.allocate(4));
+
+            assertThat(channel.read(ByteBuffer.allocate(4))).describedAs("Connection closed").isEqualTo(-1);
+        }
+        try (ArgsClient client = ArgsClient.connect(address)) {
+            assertThat(client.parse("default", "-b").getBoolean('b')).isTrue();
+        }
+    }
+
+    @Test
+    void repliesBeyondTheFrameSizeShouldBeRejected() throws Exception {
+        server.register("list", ArgsSchema.compile("l[*]"));
+        try (ArgsClient client = ArgsClient.connect(bindLoopback())) {
+            StringBuilder values = new StringBuilder();
+            StringBuilder flags = new StringBuilder("-");
+            while (values.length() < ServerProtocol.MAX_FRAME_SIZE * 3 / 4) {
+                values.append("-l a ");
+                flags.append('q');
+            }
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> client.tryParse("list", values));
+            assertThrows(IllegalArgumentException.class, () -> client.tryParse("default", flags));
+
+            assertThat(e.getMessage()).isEqualTo("The reply to the command line exceeds the limit of "
+                    + ServerProtocol.MAX_FRAME_SIZE + " bytes.");
+            assertThat(client.parse("default", "-b").getBoolean('b')).describedAs("Connection kept open").isTrue();
+        }
+        assertThat(server.snapshot()).containsEntry("server.replyTooLarge", 2L);
+    }
+
+    @Test
+    void reregisteredSchemaShouldBeUsedByOpenConnections() throws Exception {
+        try (ArgsClient client = ArgsClient.connect(bindLoopback())) {
+            client.parse("default", "-d 1");
+
+            server.register("default", ArgsSchema.compile("d*"));
+
+            assertThat(client.parse("default", "-d 1").getString('d')).isEqualTo("1");
+        }
+    }
+
+    @Test
+    void inFlightRequestsShouldBeLimited() throws Exception {
+        SocketAddress address = bindLoopback();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 16; thread++) {
+                futures.add(executor.submit(() -> {
+                    int mismatches = 0;
+                    try (ArgsClient client = ArgsClient.connect(address)) {
+                        for (int i = 0; i < 500; i++) {
+                            if (client.parse("default", "-d " + i).getInt('d') != i) {
+                                mismatches++;
+                            }
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertThat(future.get()).isZero();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(server.snapshot()).containsEntry("server.requests", 8_000L)
+                .containsEntry("server.inFlight.limit", 4L);
+        assertThat(server.snapshot().get("server.inFlight.max")).isBetween(1L, 4L);
+    }
+
+    @Test
+    void connectionsBeyondTheLimitShouldBeRefused() throws Exception {
+        try (ArgsServer limited = new ArgsServer(1, 1, ArgsServer.newConnectionExecutor())) {
+            limited.register("default", ArgsSchema.compile(DEFAULT_SCHEMA));
+            SocketAddress address = limited.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (ArgsClient client = ArgsClient.connect(address)) {
+                client.parse("default", "-b");
+
+                try (ArgsClient refused = ArgsClient.connect(address)) {
+                    assertThrows(IOException.class, () -> refused.parse("default", "-b"));
+                }
+
+                assertThat(client.parse("default", "-d 1").getInt('d')).describedAs("Connection kept open")
+                        .isEqualTo(1);
+            }
+            assertThat(limited.snapshot()).containsEntry("server.connections.limit", 1L)
+                    .containsEntry("server.connections.refused", 1L);
+        }
+    }
+
+    @Test
+    void unixDomainSocketShouldBeServed(@TempDir Path directory) throws Exception {
+        Path socketFile = directory.resolve("args.sock");
+        server.register("default", ArgsSchema.compile(DEFAULT_SCHEMA));
+        try {
+            server.bind(socketFile);
+        } catch (UnsupportedOperationException e) {
+            assumeTrue(false, "Unix domain sockets are not supported by this runtime");
+        }
+
+        try (ArgsClient client = ArgsClient.connect(socketFile)) {
+            assertThat(client.parse("default", "-x 2.5").getDouble('x')).isEqualTo(2.5);
+        }
+        server.close();
+        assertThat(Files.exists(socketFile)).isFalse();
+    }
+
+    @Test
+    void closingTheServerShouldCloseItsConnections() throws Exception {
+        try (ArgsClient client = ArgsClient.connect(bindLoopback())) {
+            client.parse("default", "-b");
+
+            server.close();
+
+            assertThrows(IOException.class, () -> client.parse("default", "-b"));
+        }
+    }
+
+    @Test
+    void serverShouldOnlyListenOnTheLoopbackInterface() {
+        assertThrows(IllegalArgumentException.class, () -> server.bind(new InetSocketAddress(0)));
+    }
+}
@@ -0,0 +1,157 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArgsSnapshotTest {
+
+    public static final String SCHEMA = "b, l, d#, s*, x##, p[#], r[##], i[*], --log-dir*, --port#";
+    public static final String[] ARGS = {"-b", "-d", "-42", "-s", "/var/my tmp/", "-x", "2.5e-3",
+            "-p", "1,2", "-p", "3", "-r", "0.5", "-i", "a.txt", "-i", "über 😀", "--log-dir=/tmp"};
+
+    static {
+        ValueTypes.register("snapshot-state", ValueTypes.ofEnum(Thread.State.class));
+    }
+
+    @Test
+    void snapshotShouldRoundTrip() throws ArgsException {
+        ArgsSnapshot snapshot = ArgsSnapshot.wrap(ArgsSnapshot.encode(new Args(SCHEMA, ARGS)));
+
+        assertThat(snapshot.getBoolean('b')).isTrue();
+        assertThat(snapshot.getBoolean('l')).isFalse();
+        assertThat(snapshot.getInt('d')).isEqualTo(-42);
+        assertThat(snapshot.getString('s')).isEqualTo("/var/my tmp/");
+        assertThat(snapshot.getDouble('x')).isEqualTo(2.5e-3);
+        assertThat(snapshot.getIntList('p').toArray()).containsExactly(1, 2, 3);
+        assertThat(snapshot.getDoubleList('r').toArray()).containsExactly(0.5);
+        assertThat(snapshot.getStringList('i')).containsExactly("a.txt", "über 😀");
+        assertThat(snapshot.getString("log-dir")).isEqualTo("/tmp");
+        assertThat(snapshot.getInt("port")).isZero();
+        assertThat(snapshot.getSchema()).isSameAs(ArgsSchema.compile(SCHEMA));
+    }
+
+    @Test
+    void snapshotShouldRoundTripValueTypes() throws ArgsException {
+        ArgsSnapshot snapshot = ArgsSnapshot.wrap(ArgsSnapshot.encode(new Args("n<long>, t<duration>, m<size>, c<long>",
+                new String[]{"-n", "-9000000000", "-t", "1h30m", "-m", "64k"})));
+
+        assertThat(snapshot.getLong('n')).isEqualTo(-9_000_000_000L);
+        assertThat(snapshot.getDuration('t')).isEqualTo(Duration.ofMinutes(90));
+        assertThat(snapshot.getLong('m')).isEqualTo(65_536);
+        assertThat(snapshot.isGiven('c')).isFalse();
+        assertThat(snapshot.getDuration('n')).describedAs("Argument of another type").isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void snapshotShouldTellWhichArgumentsWereSet() throws ArgsException {
+        ArgsSnapshot snapshot = ArgsSnapshot.wrap(ArgsSnapshot.encode(new Args(SCHEMA, ARGS)));
+
+        assertThat(snapshot.isGiven('b')).isTrue();
+        assertThat(snapshot.isGiven('l')).isFalse();
+        assertThat(snapshot.isGiven("log-dir")).isTrue();
+        assertThat(snapshot.isGiven("port")).isFalse();
+        assertThat(snapshot.isGiven('z')).isFalse();
+        assertThat(snapshot.has('l')).describedAs("Declared but not passed").isTrue();
+        assertThat(snapshot.has('z')).isFalse();
+        assertThat(snapshot.getInt('z')).describedAs("Undeclared argument").isZero();
+        assertThat(snapshot.getString('d')).describedAs("Argument of another type").isEmpty();
+    }
+
+    @Test
+    void snapshotShouldBeWrittenAtThePositionOfADirectBuffer() throws ArgsException {
+        Args args = new Args(SCHEMA, ARGS);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ArgsSnapshot.sizeOf(args) + 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(16);
+
+        ArgsSnapshot.encode(args, buffer);
+
+        assertThat(buffer.remaining()).isZero();
+        assertThat(buffer.order()).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(16);
+        ArgsSnapshot snapshot = ArgsSnapshot.wrap(buffer);
+        assertThat(buffer.position()).isEqualTo(16);
+        assertThat(snapshot.getString('s')).isEqualTo("/var/my tmp/");
+        assertThat(snapshot.getStringList('i')).containsExactly("a.txt", "über 😀");
+        assertThat(snapshot.getDouble('x')).isEqualTo(2.5e-3);
+    }
+
+    @Test
+    void encodeShouldRejectBuffersThatAreTooSmall() throws ArgsException {
+        Args args = new Args(SCHEMA, ARGS);
+        ByteBuffer buffer = ByteBuffer.allocate(ArgsSnapshot.sizeOf(args) - 1);
+
+        assertThrows(BufferOverflowException.class, () -> ArgsSnapshot.encode(args, buffer));
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    void wrapShouldRejectOtherContent() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ArgsSnapshot.wrap(ByteBuffer.wrap("-b -d 42".getBytes())));
+
+        assertThat(e.getMessage()).isEqualTo("The buffer does not hold an Args snapshot.");
+    }
+
+    @Test
+    void wrapShouldRejectTruncatedSnapshots() throws ArgsException {
+        ByteBuffer buffer = ArgsSnapshot.encode(new Args(SCHEMA, ARGS));
+
+        for (int limit = 0; limit < buffer.limit(); limit++) {
+            ByteBuffer truncated = buffer.duplicate();
+            truncated.limit(limit);
+
+            assertThrows(IllegalArgumentException.class, () -> ArgsSnapshot.wrap(truncated), "Limit " + limit);
+        }
+    }
+
+    @Test
+    void wrapShouldRejectCorruptLengthsAndOffsets() throws ArgsException {
+        ByteBuffer buffer = ArgsSnapshot.encode(new Args("s*", new String[]{"-s", "abc"}));
+        int value = 9 + buffer.getInt(5) + 4 + 1;
+
+        for (int corrupt : new int[]{-1, Integer.MAX_VALUE, buffer.limit()}) {
+            ByteBuffer schemaLength = copyOf(buffer).putInt(5, corrupt);
+            ByteBuffer offset = copyOf(buffer).putInt(value, corrupt);
+            ByteBuffer length = copyOf(buffer).putInt(value + 4, corrupt);
+
+            assertThrows(IllegalArgumentException.class, () -> ArgsSnapshot.wrap(schemaLength), "Schema length");
+            assertThrows(IllegalArgumentException.class, () -> ArgsSnapshot.wrap(offset), "Offset");
+            assertThrows(IllegalArgumentException.class, () -> ArgsSnapshot.wrap(length), "Length");
+        }
+    }
+
+    @Test
+    void wrapShouldRejectEnumOrdinalsOutOfRange() throws ArgsException {
+        ByteBuffer buffer = ArgsSnapshot.encode(new Args("e<snapshot-state>", new String[]{"-e", "blocked"}));
+        int value = 9 + buffer.getInt(5) + 4 + 1;
+
+        assertThat(ArgsSnapshot.wrap(buffer).getEnum('e', Thread.State.class)).isEqualTo(Thread.State.BLOCKED);
+        for (long corrupt : new long[]{-1, Thread.State.values().length, 1L << 32}) {
+            ByteBuffer ordinal = copyOf(buffer).putLong(value, corrupt);
+
+            assertThrows(IllegalArgumentException.class, () -> ArgsSnapshot.wrap(ordinal));
+        }
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer buffer) {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+        copy.put(buffer.duplicate()).flip();
+        return copy;
+    }
+
+    @Test
+    void snapshotOfEmptySchemaShouldRoundTrip() throws ArgsException {
+        ByteBuffer buffer = ArgsSnapshot.encode(new Args("", new String[0]));
+
+        assertThat(ArgsSnapshot.wrap(buffer).getSchema().usage()).isEmpty();
+        assertThat(buffer.remaining()).isEqualTo(ArgsSnapshot.sizeOf(new Args("", new String[0])));
+    }
+}
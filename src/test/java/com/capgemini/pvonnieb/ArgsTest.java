@@ -1,10 +1,13 @@
 package com.capgemini.pvonnieb;
 
+import com.capgemini.pvonnieb.exception.ArgsError;
 import com.capgemini.pvonnieb.exception.ArgsException;
+import com.capgemini.pvonnieb.exception.UncheckedArgsException;
 import org.junit.jupiter.api.Test;
 
 import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ArgsTest {
@@ -33,6 +36,17 @@ class ArgsTest {
                 .isEqualTo("-[a*, s*, d*, f*]");
     }
 
+    @Test
+    void usageForSchemaWithConstraints() throws ArgsException {
+        Args args = new Args("l, p#; !p", new String[]{"-p", "1"});
+
+        String usageString = args.usage();
+
+        assertThat(usageString)
+                .describedAs("The usage message should display the arguments of the schema without its constraints.")
+                .isEqualTo("-[l, p#]");
+    }
+
     @Test
     void constructWithoutSchemaButWithArgument() {
         ArgsException thrown = assertThrows(ArgsException.class,
@@ -198,4 +212,302 @@ class ArgsTest {
         assertThat(args.has('x'));
         assertThat(args.getDouble('x')).isEqualTo(-3.67);
     }
-}
\ No newline at end of file
+
+    @Test
+    void hasShouldTellDeclaredAndIsGivenPassedArguments() throws ArgsException {
+        Args args = new Args(DEFAULT_SCHEMA, new String[]{"-b"});
+
+        assertThat(args.has('b')).describedAs("Argument 'b' was declared.").isTrue();
+        assertThat(args.has('s')).describedAs("Argument 's' was declared but not passed.").isTrue();
+        assertThat(args.has('z')).describedAs("Argument 'z' was never declared.").isFalse();
+        assertThat(args.isGiven('b')).describedAs("Argument 'b' was passed.").isTrue();
+        assertThat(args.isGiven('s')).describedAs("Argument 's' was declared but not passed.").isFalse();
+        assertThat(args.isGiven('z')).describedAs("Argument 'z' was never declared.").isFalse();
+    }
+
+    @Test
+    void shouldParseNonAsciiLetterArguments() throws ArgsException {
+        Args args = new Args("ä#, ß*, ж", new String[]{"-ä", "42", "-жß", "straße"});
+
+        assertThat(args.getInt('ä')).isEqualTo(42);
+        assertThat(args.getString('ß')).isEqualTo("straße");
+        assertThat(args.getBoolean('ж')).isTrue();
+    }
+
+    @Test
+    void unexpectedArgumentsShouldBeReportedInOrder() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args("b", new String[]{"-zé", "-b", "-a"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.UNEXPECTED_ARGUMENT);
+        assertThat(e.getErrorParameter()).isEqualTo("azé");
+    }
+
+    @Test
+    void shouldParseAllAsciiLetterArguments() throws ArgsException {
+        StringBuilder schema = new StringBuilder("a, A");
+        StringBuilder flags = new StringBuilder("-aA");
+        for (char id = 'b'; id <= 'z'; id++) {
+            schema.append(", ").append(id).append(", ").append(Character.toUpperCase(id));
+            flags.append(id).append(Character.toUpperCase(id));
+        }
+        Args args = new Args(schema.toString(), new String[]{flags.toString()});
+
+        for (char id = 'a'; id <= 'z'; id++) {
+            assertThat(args.getBoolean(id)).isTrue();
+            assertThat(args.getBoolean(Character.toUpperCase(id))).isTrue();
+        }
+    }
+
+    @Test
+    void gettersShouldReturnDefaultsForMismatchedTypes() throws ArgsException {
+        Args args = new Args(DEFAULT_SCHEMA, new String[]{"-b", "-d", "3", "-s", "asdf", "-x", A_DOUBLE_VALUE});
+
+        assertThat(args.getDouble('d')).describedAs("'d' is an integer argument.").isEqualTo(0);
+        assertThat(args.getInt('x')).describedAs("'x' is a double argument.").isEqualTo(0);
+        assertThat(args.getString('b')).describedAs("'b' is a boolean argument.").isEqualTo("");
+        assertThat(args.getBoolean('s')).describedAs("'s' is a string argument.").isFalse();
+    }
+
+    @Test
+    void lazyModeShouldDeferInvalidIntegerUntilRead() throws ArgsException {
+        Args args = new Args(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-d", "asdf", "-x", "2.5"},
+                ConversionMode.LAZY);
+
+        assertThat(args.getDouble('x')).isEqualTo(2.5);
+        UncheckedArgsException e = assertThrows(UncheckedArgsException.class, () -> args.getInt('d'));
+        assertThat(e.getCause().getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+        assertThat(e.getCause().getErrorArgumentId()).isEqualTo('d');
+        assertThat(e.getCause().getErrorParameter()).isEqualTo("asdf");
+    }
+
+    @Test
+    void lazyModeShouldDeferInvalidDoubleUntilRead() throws ArgsException {
+        Args args = new Args(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-x", "asdf"}, ConversionMode.LAZY);
+
+        UncheckedArgsException e = assertThrows(UncheckedArgsException.class, () -> args.getDouble('x'));
+        assertThat(e.getCause().getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_DOUBLE);
+        assertThrows(UncheckedArgsException.class, () -> args.getDouble('x'),
+                "The failed conversion should be remembered.");
+    }
+
+    @Test
+    void lazyModeShouldStillReportMissingParameters() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-d"}, ConversionMode.LAZY),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.MISSING_INTEGER);
+    }
+
+    @Test
+    void lazyModeShouldReturnConvertedValues() throws ArgsException {
+        Args args = new Args(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-d", "42"}, ConversionMode.LAZY);
+
+        assertThat(args.getInt('d')).isEqualTo(42);
+        assertThat(args.getInt('d')).isEqualTo(42);
+        assertThat(args.getDouble('x')).describedAs("'x' was not passed.").isEqualTo(0);
+    }
+
+    @Test
+    void strictModeShouldValidateWhileParsing() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-d", "asdf"}, ConversionMode.STRICT),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+    }
+
+    @Test
+    void shouldParseLongOptions() throws ArgsException {
+        Args args = new Args("l, --port#, --log-dir*, --ratio##, --verbose",
+                new String[]{"-l", "--port", "3002", "--log-dir=/var/my tmp/", "--ratio=0.5", "--verbose"});
+
+        assertThat(args.getBoolean('l')).isTrue();
+        assertThat(args.getInt("port")).isEqualTo(3002);
+        assertThat(args.getString("log-dir")).isEqualTo("/var/my tmp/");
+        assertThat(args.getDouble("ratio")).isEqualTo(0.5);
+        assertThat(args.getBoolean("verbose")).isTrue();
+        assertThat(args.getBoolean("l")).isTrue();
+        assertThat(args.isGiven("port")).isTrue();
+        assertThat(args.isGiven("po")).isFalse();
+    }
+
+    @Test
+    void shouldResolveAbbreviatedLongOptions() throws ArgsException {
+        Args args = new Args("--verbose, --version, --port#", new String[]{"--verb", "--po=80"});
+
+        assertThat(args.getBoolean("verbose")).isTrue();
+        assertThat(args.getBoolean("version")).isFalse();
+        assertThat(args.getInt("port")).isEqualTo(80);
+    }
+
+    @Test
+    void ambiguousLongOptionShouldBeReported() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args("--verbose, --version", new String[]{"--ver"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.AMBIGUOUS_ARGUMENT);
+        assertThat(e.getMessage()).isEqualTo("Argument --ver is ambiguous.");
+    }
+
+    @Test
+    void unexpectedDashShouldBeReportedAsAnId() {
+        ArgsException dash = assertThrows(ArgsException.class, () -> new Args("l", new String[]{"-l-"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+        ArgsException dashAndId = assertThrows(ArgsException.class, () -> new Args("l", new String[]{"-x-"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(dash.getMessage()).isEqualTo("Argument(s) -- unexpected.");
+        assertThat(dashAndId.getMessage()).isEqualTo("Argument(s) --x unexpected.");
+    }
+
+    @Test
+    void unexpectedLongOptionsShouldBeReportedAfterUnexpectedIds() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args("b, --verbose", new String[]{"--colour=auto", "-bz", "--verbose=yes"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.UNEXPECTED_ARGUMENT);
+        assertThat(e.getErrorParameter()).isEqualTo("z --colour --verbose=yes");
+        assertThat(e.getMessage()).isEqualTo("Argument(s) -z --colour --verbose=yes unexpected.");
+    }
+
+    @Test
+    void longOptionErrorsShouldNameTheOption() {
+        ArgsException invalid = assertThrows(ArgsException.class,
+                () -> new Args("--port#", new String[]{"--port=http"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+        ArgsException missing = assertThrows(ArgsException.class,
+                () -> new Args("--log-dir*", new String[]{"--log"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(invalid.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+        assertThat(invalid.getErrorArgumentName()).isEqualTo("port");
+        assertThat(invalid.getErrorParameter()).isEqualTo("http");
+        assertThat(invalid.getMessage()).isEqualTo("Argument --port expects an integer but was 'http'.");
+        assertThat(missing.getMessage()).isEqualTo("Could not find string parameter for --log-dir.");
+    }
+
+    @Test
+    void lazyLongOptionErrorsShouldNameTheOption() throws ArgsException {
+        Args args = new Args(ArgsSchema.compile("--ratio##"), new String[]{"--ratio", "half"}, ConversionMode.LAZY);
+
+        UncheckedArgsException e = assertThrows(UncheckedArgsException.class, () -> args.getDouble("ratio"));
+
+        assertThat(e.getCause().getMessage()).isEqualTo("Argument --ratio expects a double but was 'half'.");
+    }
+
+    @Test
+    void emptyInlineParameterShouldBeAccepted() throws ArgsException {
+        Args args = new Args("--log-dir*, l", new String[]{"--log-dir=", "-l"});
+
+        assertThat(args.getString("log-dir")).isEmpty();
+        assertThat(args.getBoolean('l')).isTrue();
+    }
+
+    @Test
+    void listArgumentsShouldCollectRepeatedAndCommaSeparatedValues() throws ArgsException {
+        Args args = new Args("p[#], r[##], i[*], --ids[#]", new String[]{
+                "-p", "1", "-r", "0.5,2", "-i", "a,b.txt", "-p", "2,-3", "-i", "c.txt", "--ids=7,8,9"});
+
+        assertThat(args.getIntList('p').toArray()).containsExactly(1, 2, -3);
+        assertThat(args.getDoubleList('r').toArray()).containsExactly(0.5, 2.0);
+        assertThat(args.getStringList('i')).containsExactly("a,b.txt", "c.txt");
+        assertThat(args.getIntList("ids").toArray()).containsExactly(7, 8, 9);
+        assertThat(args.getIntList('p').get(2)).isEqualTo(-3);
+        assertThat(args.isGiven('p')).isTrue();
+    }
+
+    @Test
+    void absentListArgumentsShouldBeEmpty() throws ArgsException {
+        Args args = new Args("p[#], r[##], i[*]", new String[0]);
+
+        assertThat(args.getIntList('p').isEmpty()).isTrue();
+        assertThat(args.getDoubleList('r').size()).isZero();
+        assertThat(args.getStringList('i')).isEmpty();
+        assertThat(args.getIntList('x').isEmpty()).describedAs("Undeclared argument").isTrue();
+        assertThat(args.getIntList('r').isEmpty()).describedAs("Argument of another type").isTrue();
+    }
+
+    @Test
+    void listValuesShouldBeReadOnly() throws ArgsException {
+        Args args = new Args("i[*]", new String[]{"-i", "a"});
+
+        assertThrows(UnsupportedOperationException.class, () -> args.getStringList('i').add("b"));
+        assertThrows(IndexOutOfBoundsException.class, () -> args.getIntList('p').get(0));
+    }
+
+    @Test
+    void invalidListValueShouldBeReported() {
+        ArgsException invalid = assertThrows(ArgsException.class,
+                () -> new Args("p[#]", new String[]{"-p", "1,,2"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+        ArgsException missing = assertThrows(ArgsException.class,
+                () -> new Args("r[##]", new String[]{"-r"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(invalid.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+        assertThat(invalid.getErrorParameter()).isEqualTo("1,,2");
+        assertThat(missing.getErrorCode()).isEqualByComparingTo(ErrorCode.MISSING_DOUBLE);
+    }
+
+    @Test
+    void invalidListParameterShouldAddNoneOfItsValues() throws ArgsException {
+        ParseResult result = Args.tryParse(ArgsSchema.compile("p[#]"),
+                new String[]{"-p", "1", "-p", "2,x", "-p", "3"});
+
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getArgs().getIntList('p').toArray()).containsExactly(1, 3);
+    }
+
+    @Test
+    void satisfiedConstraintsShouldPass() throws ArgsException {
+        Args args = new Args("l, v, p#, d*; !p, l^v, d>p", new String[]{"-l", "-p", "80", "-d", "/tmp"});
+
+        assertThat(args.getInt('p')).isEqualTo(80);
+    }
+
+    @Test
+    void missingRequiredArgumentShouldBeReported() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args("l, --port#; !port", new String[]{"-l"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.MISSING_REQUIRED_ARGUMENT);
+        assertThat(e.getErrorArgumentName()).isEqualTo("port");
+        assertThat(e.getMessage()).isEqualTo("Argument --port is required.");
+    }
+
+    @Test
+    void exclusiveArgumentsShouldBeReported() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args("l, q, --verbose; l^q^verbose", new String[]{"-lq", "--verbose"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.EXCLUSIVE_ARGUMENTS);
+        assertThat(e.getErrorParameter()).isEqualTo("-l -q --verbose");
+        assertThat(e.getMessage()).isEqualTo("Arguments -l -q --verbose cannot be combined.");
+    }
+
+    @Test
+    void missingDependencyShouldBeReported() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> new Args("d*, --port#; d>port", new String[]{"-d", "/tmp"}),
+                CONSTRUCTOR_SHOULD_HAVE_THROWN);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.MISSING_DEPENDENCY);
+        assertThat(e.getErrorArgumentId()).isEqualTo('d');
+        assertThat(e.getMessage()).isEqualTo("Argument -d requires --port.");
+    }
+
+    @Test
+    void invalidParameterShouldNotAlsoBeReportedAsMissing() throws ArgsException {
+        ParseResult result = Args.tryParse(ArgsSchema.compile("p#, l, v; !p, l^v"), new String[]{"-lv", "-p", "x"});
+
+        assertThat(result.getErrors()).extracting(ArgsError::getErrorCode, ArgsError::getTokenIndex)
+                .containsExactly(tuple(ErrorCode.INVALID_INTEGER, 2), tuple(ErrorCode.EXCLUSIVE_ARGUMENTS, -1));
+    }
+}
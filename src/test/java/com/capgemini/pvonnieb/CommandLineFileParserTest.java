@@ -0,0 +1,106 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CommandLineFileParserTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+
+    @TempDir
+    Path directory;
+
+    private Path write(String content) throws IOException {
+        Path file = directory.resolve("commands.txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<ParseResult> parse(CommandLineFileParser parser, Path file) throws IOException {
+        List<ParseResult> results = new ArrayList<>();
+        long lines = parser.parse(file, (lineNumber, result) -> {
+            assertThat(lineNumber).isEqualTo(results.size() + 1);
+            results.add(result);
+        });
+        assertThat(lines).isEqualTo(results.size());
+        return results;
+    }
+
+    @Test
+    void shouldParseEveryLine() throws IOException, ArgsException {
+        Path file = write("-b -d 3\n-s hello -x 2.5\r\n\n-d 7");
+
+        List<ParseResult> results = parse(new CommandLineFileParser(ArgsSchema.compile(DEFAULT_SCHEMA)), file);
+
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).getArgs().getInt('d')).isEqualTo(3);
+        assertThat(results.get(1).getArgs().getString('s')).isEqualTo("hello");
+        assertThat(results.get(1).getArgs().getDouble('x')).isEqualTo(2.5);
+        assertThat(results.get(2).isValid()).describedAs("An empty line is a valid, empty command line.").isTrue();
+        assertThat(results.get(3).getArgs().getInt('d')).isEqualTo(7);
+    }
+
+    @Test
+    void shouldHonourQuotesAndEscapes() throws IOException, ArgsException {
+        Path file = write("-s 'single \"quoted\"'\n-s \"double \\\"quoted\\\" \\\\ \\n\"\n"
+                + "-s back\\ slash\n-s ''\n-s \"straße ✓\"\n");
+
+        List<ParseResult> results = parse(new CommandLineFileParser(ArgsSchema.compile(DEFAULT_SCHEMA)), file);
+
+        assertThat(results).extracting(result -> result.getArgs().getString('s')).containsExactly(
+                "single \"quoted\"", "double \"quoted\" \\ \\n", "back slash", "", "straße ✓");
+    }
+
+    @Test
+    void shouldReportErrorsPerLine() throws IOException, ArgsException {
+        Path file = write("-d 3\n-d three -q\n-s");
+
+        List<ParseResult> results = parse(new CommandLineFileParser(ArgsSchema.compile(DEFAULT_SCHEMA)), file);
+
+        assertThat(results.get(0).isValid()).isTrue();
+        assertThat(results.get(1).getErrors()).extracting(ArgsError::getErrorCode)
+                .containsExactly(ErrorCode.INVALID_INTEGER, ErrorCode.UNEXPECTED_ARGUMENT);
+        assertThat(results.get(1).getErrors().get(0).getErrorParameter()).isEqualTo("three");
+        assertThat(results.get(2).getErrors()).extracting(ArgsError::getErrorCode)
+                .containsExactly(ErrorCode.MISSING_STRING);
+    }
+
+    @Test
+    void linesShouldBeParsedAcrossWindowBoundaries() throws IOException, ArgsException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("-b -d ").append(i).append(" -s line").append(i).append('\n');
+        }
+        Path file = write(content.toString());
+
+        List<ParseResult> results = parse(new CommandLineFileParser(ArgsSchema.compile(DEFAULT_SCHEMA), 64), file);
+
+        assertThat(results).hasSize(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(results.get(i).getArgs().getInt('d')).isEqualTo(i);
+            assertThat(results.get(i).getArgs().getString('s')).isEqualTo("line" + i);
+        }
+    }
+
+    @Test
+    void lineLongerThanWindowShouldFail() throws IOException, ArgsException {
+        Path file = write("-s " + new String(new char[100]).replace('\0', 'a') + "\n-b\n");
+        CommandLineFileParser parser = new CommandLineFileParser(ArgsSchema.compile(DEFAULT_SCHEMA), 64);
+
+        assertThrows(IOException.class, () -> parser.parse(file, (lineNumber, result) -> {
+        }));
+    }
+}
@@ -0,0 +1,110 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentParseTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+    public static final int THREADS = 16;
+    public static final int PARSES_PER_THREAD = 20_000;
+
+    @Test
+    void threadsShouldParseAgainstOneSharedSchema() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        List<Long> mismatches = runConcurrently(thread -> {
+            long mismatchCount = 0;
+            for (int i = 0; i < PARSES_PER_THREAD; i++) {
+                int value = thread * PARSES_PER_THREAD + i;
+                Args args = new Args(schema, new String[]{"-d", Integer.toString(value), "-s", "t" + thread});
+                ParseResult invalid = Args.tryParse(schema, new String[]{"-d", "x" + value, "-q"});
+                if (args.getInt('d') != value || !args.getString('s').equals("t" + thread)
+                        || invalid.getErrors().get(0).getErrorCode() != ErrorCode.INVALID_INTEGER) {
+                    mismatchCount++;
+                }
+            }
+            return mismatchCount;
+        });
+
+        assertThat(mismatches).containsOnly(0L);
+    }
+
+    @Test
+    void threadsShouldShareOneLazilyConvertedResult() throws Exception {
+        Args shared = new Args(ArgsSchema.compile(DEFAULT_SCHEMA),
+                new String[]{"-b", "-d", "42", "-s", "shared", "-x", "2.5"}, ConversionMode.LAZY);
+
+        List<Long> mismatches = runConcurrently(thread -> {
+            long mismatchCount = 0;
+            for (int i = 0; i < PARSES_PER_THREAD; i++) {
+                if (!shared.getBoolean('b') || shared.getInt('d') != 42 || shared.getDouble('x') != 2.5
+                        || !shared.getString('s').equals("shared")) {
+                    mismatchCount++;
+                }
+            }
+            return mismatchCount;
+        });
+
+        assertThat(mismatches).containsOnly(0L);
+    }
+
+    @Test
+    void threadsShouldCompileSchemasConcurrently() throws Exception {
+        List<Long> mismatches = runConcurrently(thread -> {
+            long mismatchCount = 0;
+            for (int i = 0; i < PARSES_PER_THREAD; i++) {
+                Args args = new Args("a, " + (char) ('b' + i % 20) + "#", new String[]{"-a"});
+                if (!args.getBoolean('a')) {
+                    mismatchCount++;
+                }
+            }
+            return mismatchCount;
+        });
+
+        assertThat(mismatches).containsOnly(0L);
+    }
+
+    private interface ThreadTask {
+        long run(int thread) throws ArgsException;
+    }
+
+    /**
+     * Runs the task on all threads at once and returns what each of them returned.
+     */
+    private static List<Long> runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadNumber = thread;
+                Callable<Long> call = () -> {
+                    start.await();
+                    return task.run(threadNumber);
+                };
+                results.add(executor.submit(call));
+            }
+            start.countDown();
+            List<Long> values = new ArrayList<>();
+            for (Future<Long> result : results) {
+                values.add(result.get(1, TimeUnit.MINUTES));
+            }
+            return values;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class IncrementalParserTest {
+
+    public static final String DEFAULT_SCHEMA = "l, v, p#, d*, x##, i[#], s[*], --port#, --portal*, --verbose; "
+            + "l^v, x>d";
+    private static final String[] TOKEN_POOL = {"-l", "-v", "-lv", "-p", "-pd", "-dp", "-x", "-i", "-s", "-q", "-lq",
+            "--port", "--port=7", "--portal", "--portal=/tmp", "--por", "--verbose", "--verbose=1", "--colour", "--",
+            "-", "", "3", "42", "x", "1.5", "a,b", "1,2", "/var/tmp/"};
+
+    @Test
+    void editsShouldUpdateValues() throws ArgsException {
+        IncrementalParser parser = new IncrementalParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.insert(0, "-p");
+        parser.insert(1, "30");
+        assertThat(parser.getInt('p')).isEqualTo(30);
+
+        parser.replace(1, "3002");
+        parser.insert(2, "-l");
+        assertThat(parser.getInt('p')).isEqualTo(3002);
+        assertThat(parser.getBoolean('l')).isTrue();
+        assertThat(parser.isValid()).isTrue();
+
+        parser.remove(0);
+        assertThat(parser.isGiven('p')).isFalse();
+        assertThat(parser.getInt('p')).isEqualTo(0);
+        assertThat(parser.tokens()).containsExactly("3002", "-l");
+    }
+
+    @Test
+    void editShouldReportErrorsAtTheirTokens() throws ArgsException {
+        IncrementalParser parser = new IncrementalParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+        parser.reset(new String[]{"-l", "-p", "3002", "-x", "1.5"});
+
+        parser.replace(2, "port");
+        parser.insert(0, "-q");
+
+        assertThat(parser.isValid()).isFalse();
+        assertThat(parser.getErrors())
+                .extracting(ArgsError::getErrorCode, ArgsError::getErrorParameter, ArgsError::getTokenIndex)
+                .containsExactly(tuple(ErrorCode.UNEXPECTED_ARGUMENT, "q", 0),
+                        tuple(ErrorCode.INVALID_INTEGER, "port", 3),
+                        tuple(ErrorCode.MISSING_DEPENDENCY, "d", -1));
+
+        parser.replace(3, "3002");
+        parser.remove(0);
+        parser.insert(5, "-d");
+
+        assertThat(parser.getErrors()).extracting(ArgsError::getErrorCode).containsExactly(ErrorCode.MISSING_STRING);
+        assertThat(parser.getInt('p')).isEqualTo(3002);
+    }
+
+    @Test
+    void editShouldShiftParametersOfFollowingOptions() throws ArgsException {
+        IncrementalParser parser = new IncrementalParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+        parser.reset(new String[]{"-l", "-p", "3", "-d", "/tmp"});
+
+        parser.replace(0, "-s");
+
+        assertThat(parser.getStringList('s')).containsExactly("-p");
+        assertThat(parser.isGiven('p')).isFalse();
+        assertThat(parser.getString('d')).isEqualTo("/tmp");
+
+        parser.remove(0);
+
+        assertThat(parser.getStringList('s')).isEmpty();
+        assertThat(parser.getInt('p')).isEqualTo(3);
+    }
+
+    @Test
+    void endOfOptionsShouldIgnoreFollowingTokensUntilRemoved() throws ArgsException {
+        IncrementalParser parser = new IncrementalParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+        parser.reset(new String[]{"-l", "-p", "3", "-d", "/tmp"});
+
+        parser.insert(1, "--");
+
+        assertThat(parser.isGiven('p')).isFalse();
+        assertThat(parser.isGiven('d')).isFalse();
+        assertThat(parser.completionsAt(3)).isEmpty();
+
+        parser.remove(1);
+
+        assertThat(parser.getInt('p')).isEqualTo(3);
+        assertThat(parser.getString('d')).isEqualTo("/tmp");
+    }
+
+    @Test
+    void randomEditsShouldMatchFullParse() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        IncrementalParser incremental = new IncrementalParser(schema);
+        ArgsParser full = new ArgsParser(schema);
+        List<String> tokens = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int edit = 0; edit < 5_000; edit++) {
+            int operation = tokens.isEmpty() ? 0 : random.nextInt(3);
+            String token = TOKEN_POOL[random.nextInt(TOKEN_POOL.length)];
+            if (operation == 0 || tokens.size() < 4 && operation == 2) {
+                int index = random.nextInt(tokens.size() + 1);
+                tokens.add(index, token);
+                incremental.insert(index, token);
+            } else if (operation == 1) {
+                int index = random.nextInt(tokens.size());
+                tokens.set(index, token);
+                incremental.replace(index, token);
+            } else {
+                int index = random.nextInt(tokens.size());
+                tokens.remove(index);
+                incremental.remove(index);
+            }
+            if (tokens.size() > 40) {
+                tokens.subList(0, 20).clear();
+                incremental.reset(tokens.toArray(new String[0]));
+            }
+
+            assertSameAsFullParse(incremental, full, tokens.toArray(new String[0]));
+        }
+    }
+
+    private static void assertSameAsFullParse(IncrementalParser incremental, ArgsParser full, String[] tokens) {
+        String description = Arrays.toString(tokens);
+        assertThat(incremental.tokens()).as(description).containsExactly(tokens);
+        assertThat(incremental.isValid()).as(description).isEqualTo(full.tryParseTokens(tokens));
+        assertThat(incremental.getErrors()).as(description)
+                .extracting(ArgsError::getErrorCode, ArgsError::getErrorArgumentName, ArgsError::getErrorParameter,
+                        ArgsError::getTokenIndex)
+                .containsExactlyElementsOf(full.getErrors().stream()
+                        .map(error -> tuple(error.getErrorCode(), error.getErrorArgumentName(),
+                                error.getErrorParameter(), error.getTokenIndex()))
+                        .collect(Collectors.toList()));
+        for (char id : "lvpdxis".toCharArray()) {
+            assertThat(incremental.isGiven(id)).as(description + " has " + id).isEqualTo(full.isGiven(id));
+        }
+        assertThat(incremental.getBoolean('l')).as(description).isEqualTo(full.getBoolean('l'));
+        assertThat(incremental.getInt('p')).as(description).isEqualTo(full.getInt('p'));
+        assertThat(incremental.getString('d')).as(description).isEqualTo(full.getString('d'));
+        assertThat(incremental.getDouble('x')).as(description).isEqualTo(full.getDouble('x'));
+        assertThat(incremental.getIntList('i').toArray()).as(description).isEqualTo(full.getIntList('i').toArray());
+        assertThat(incremental.getStringList('s')).as(description).isEqualTo(full.getStringList('s'));
+        assertThat(incremental.getInt("port")).as(description).isEqualTo(full.getInt("port"));
+        assertThat(incremental.getString("portal")).as(description).isEqualTo(full.getString("portal"));
+        assertThat(incremental.isGiven("verbose")).as(description).isEqualTo(full.isGiven("verbose"));
+    }
+
+    @Test
+    void completionsShouldStartWithTheTokenTyped() throws ArgsException {
+        IncrementalParser parser = new IncrementalParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        assertThat(parser.completionsAt(0))
+                .containsExactly("-l", "-v", "-p", "-d", "-x", "-i", "-s", "--port", "--portal", "--verbose");
+
+        parser.insert(0, "--po");
+
+        assertThat(parser.completionsAt(0)).containsExactly("--port", "--portal");
+    }
+
+    @Test
+    void completionsShouldLeaveOutGivenAndExcludedOptions() throws ArgsException {
+        IncrementalParser parser = new IncrementalParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+        parser.reset(new String[]{"-l", "-i", "1", "-d"});
+
+        assertThat(parser.completionsAt(3)).containsExactly("-d");
+        assertThat(parser.completionsAt(4)).isEmpty();
+
+        parser.insert(4, "/tmp");
+
+        assertThat(parser.completionsAt(5))
+                .containsExactly("-p", "-x", "-i", "-s", "--port", "--portal", "--verbose");
+        assertThat(parser.completionsAt(0)).containsExactly("-l");
+        assertThat(parser.completionsAt(2)).isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.capgemini.pvonnieb;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    void quantilesShouldBeBoundedByTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(50_000);
+        histogram.record(1_000_000);
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.totalNanos()).isEqualTo(98 * 1000 + 50_000 + 1_000_000);
+        assertThat(histogram.quantileNanos(0.5)).isBetween(1000L, 2 * 1000L);
+        assertThat(histogram.quantileNanos(0.99)).isBetween(50_000L, 2 * 50_000L);
+        assertThat(histogram.quantileNanos(1)).isEqualTo(1_000_000);
+        assertThat(histogram.maxNanos()).isEqualTo(1_000_000);
+    }
+
+    @Test
+    void extremeDurationsShouldBeRecorded() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.count()).isEqualTo(3);
+        assertThat(histogram.quantileNanos(0.5)).isZero();
+        assertThat(histogram.quantileNanos(1)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void emptyHistogramShouldReportZero() {
+        assertThat(new LatencyHistogram().quantileNanos(0.99)).isZero();
+    }
+}
@@ -0,0 +1,156 @@
+package com.capgemini.pvonnieb;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the parser against the JDK's parsers, on hand-picked edge cases as well as on random input.
+ */
+class NumberParserTest {
+
+    public static final int RANDOM_CASES = 50_000;
+    public static final String NUMBER_ALPHABET = "0123456789+-.eEfFdDxXpPaN I٣";
+
+    private static final String[] INTEGER_CASES = {
+            "0", "-0", "+0", "42", "-42", "+42", "007", "2147483647", "-2147483648", "2147483648", "-2147483649",
+            "9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809",
+            "99999999999999999999", "", "-", "+", "--1", "+-1", " 1", "1 ", "1_000", "0x10", "1.0", "abc",
+            "٣٤", "１２", "-١"
+    };
+
+    private static final String[] DOUBLE_CASES = {
+            "0", "-0", "0.0", "-0.0", "1", "1.", ".5", "-.5", "+.5", "1.5", "2.5e3", "2.5E-3", "1e22", "1e23",
+            "1e-22", "1e-23", "123456789012345", "1234567890123456", "12345678901234567890", "0.1", "0.3",
+            "3.141592653589793", "2.2250738585072014E-308", "4.9e-324", "1e-400", "1.7976931348623157e308",
+            "1e309", "1e2147483648", "1e-2147483649", "000000000000000000001.5", "1.500000000000000000000",
+            "1.5d", "1.5f", "1.5D", "1e5F", "NaN", "-NaN", "+NaN", "Infinity", "-Infinity", "+Infinity",
+            "  2.5  ", "\t2.5\n", "0x1.8p1", "-0X10P-2", "0x10", "", " ", ".", "-", "+", "e5", ".e5", "1e",
+            "1e+", "1e-", "1.5dd", "1.5.5", "1..5", "NaNd", "Infinityd", "nan", "infinity", "Inf", "1,5",
+            "٣", "1e٣", "0x", "0xg"
+    };
+
+    private final NumberParser numbers = new NumberParser();
+
+    @Test
+    void parseIntShouldMatchIntegerParseInt() {
+        for (String input : INTEGER_CASES) {
+            assertSameInt(input);
+        }
+    }
+
+    @Test
+    void parseLongShouldMatchLongParseLong() {
+        for (String input : INTEGER_CASES) {
+            assertSameLong(input);
+        }
+    }
+
+    @Test
+    void parseDoubleShouldMatchDoubleParseDouble() {
+        for (String input : DOUBLE_CASES) {
+            assertSameDouble(input);
+        }
+    }
+
+    @Test
+    void shouldParseRandomIntegersLikeTheJdk() {
+        Random random = new Random(11);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            assertSameInt(Integer.toString(random.nextInt()));
+            assertSameLong(Long.toString(random.nextLong()));
+            String digits = Long.toString(random.nextLong() >>> random.nextInt(64));
+            assertSameInt(digits);
+            assertSameLong(digits);
+        }
+    }
+
+    @Test
+    void shouldParseRandomDoublesLikeTheJdk() {
+        Random random = new Random(11);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            assertSameDouble(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            assertSameDouble(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+            assertSameDouble(random.nextInt(1_000_000) + "." + random.nextInt(1_000_000) + "e" + (random.nextInt(60) - 30));
+            assertSameDouble(String.format(Locale.ROOT, "%." + random.nextInt(20) + "f", random.nextDouble() * 1000));
+        }
+    }
+
+    @Test
+    void shouldParseRandomGarbageLikeTheJdk() {
+        Random random = new Random(11);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            String input = randomString(random);
+            assertSameInt(input);
+            assertSameLong(input);
+            assertSameDouble(input);
+        }
+    }
+
+    @Test
+    void shouldOnlyParseTheGivenRange() {
+        String line = "-p 3002 -x 2.5e3 -";
+
+        assertThat(numbers.parseInt(line, 3, 7)).isTrue();
+        assertThat(numbers.intValue()).isEqualTo(3002);
+        assertThat(numbers.parseDouble(line, 11, 16)).isTrue();
+        assertThat(numbers.doubleValue()).isEqualTo(2500);
+        assertThat(numbers.parseLong(line, 2, 7)).isFalse();
+        assertThat(numbers.parseDouble(line, 17, 17)).isFalse();
+    }
+
+    @Test
+    void shouldParseCharSequencesOtherThanStrings() {
+        StringBuilder builder = new StringBuilder("12.75");
+
+        assertThat(numbers.parseDouble(builder, 0, builder.length())).isTrue();
+        assertThat(numbers.doubleValue()).isEqualTo(12.75);
+        assertThat(numbers.parseInt(builder, 0, 2)).isTrue();
+        assertThat(numbers.intValue()).isEqualTo(12);
+    }
+
+    private static String randomString(Random random) {
+        char[] chars = new char[random.nextInt(12)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = NUMBER_ALPHABET.charAt(random.nextInt(NUMBER_ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
+    private void assertSameInt(String input) {
+        boolean parsed = numbers.parseInt(input, 0, input.length());
+        try {
+            int expected = Integer.parseInt(input);
+            assertThat(parsed).describedAs("parseInt(\"%s\")", input).isTrue();
+            assertThat(numbers.intValue()).describedAs("parseInt(\"%s\")", input).isEqualTo(expected);
+        } catch (NumberFormatException e) {
+            assertThat(parsed).describedAs("parseInt(\"%s\")", input).isFalse();
+        }
+    }
+
+    private void assertSameLong(String input) {
+        boolean parsed = numbers.parseLong(input, 0, input.length());
+        try {
+            long expected = Long.parseLong(input);
+            assertThat(parsed).describedAs("parseLong(\"%s\")", input).isTrue();
+            assertThat(numbers.longValue()).describedAs("parseLong(\"%s\")", input).isEqualTo(expected);
+        } catch (NumberFormatException e) {
+            assertThat(parsed).describedAs("parseLong(\"%s\")", input).isFalse();
+        }
+    }
+
+    private void assertSameDouble(String input) {
+        boolean parsed = numbers.parseDouble(input, 0, input.length());
+        try {
+            long expected = Double.doubleToRawLongBits(Double.parseDouble(input));
+            assertThat(parsed).describedAs("parseDouble(\"%s\")", input).isTrue();
+            assertThat(Double.doubleToRawLongBits(numbers.doubleValue()))
+                    .describedAs("parseDouble(\"%s\")", input).isEqualTo(expected);
+        } catch (NumberFormatException e) {
+            assertThat(parsed).describedAs("parseDouble(\"%s\")", input).isFalse();
+        }
+    }
+}
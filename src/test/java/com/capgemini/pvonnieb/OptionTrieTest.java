@@ -0,0 +1,81 @@
+package com.capgemini.pvonnieb;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OptionTrieTest {
+
+    private final OptionTrie trie = new OptionTrie(
+            new String[]{"verbose", "version", "port", "port-range", "log-dir"}, new int[]{4, 7, 1, 2, 9});
+
+    @Test
+    void shouldResolveExactNames() {
+        assertThat(resolve("verbose")).isEqualTo(4);
+        assertThat(resolve("version")).isEqualTo(7);
+        assertThat(resolve("port-range")).isEqualTo(2);
+        assertThat(resolve("log-dir")).isEqualTo(9);
+    }
+
+    @Test
+    void shouldResolveUniquePrefixes() {
+        assertThat(resolve("verb")).isEqualTo(4);
+        assertThat(resolve("versi")).isEqualTo(7);
+        assertThat(resolve("l")).isEqualTo(9);
+        assertThat(resolve("port-")).isEqualTo(2);
+    }
+
+    @Test
+    void exactNameShouldWinOverLongerNames() {
+        assertThat(resolve("port")).isEqualTo(1);
+    }
+
+    @Test
+    void sharedPrefixesShouldBeAmbiguous() {
+        assertThat(resolve("ver")).isEqualTo(OptionTrie.AMBIGUOUS);
+        assertThat(resolve("po")).isEqualTo(OptionTrie.AMBIGUOUS);
+    }
+
+    @Test
+    void unknownNamesShouldNotBeFound() {
+        assertThat(resolve("")).isEqualTo(OptionTrie.NOT_FOUND);
+        assertThat(resolve("verbosely")).isEqualTo(OptionTrie.NOT_FOUND);
+        assertThat(resolve("colour")).isEqualTo(OptionTrie.NOT_FOUND);
+        assertThat(resolve("Verbose")).isEqualTo(OptionTrie.NOT_FOUND);
+    }
+
+    @Test
+    void slotOfShouldOnlyAcceptExactNames() {
+        assertThat(trie.slotOf("version", 0, 7)).isEqualTo(7);
+        assertThat(trie.slotOf("verb", 0, 4)).isEqualTo(OptionTrie.NOT_FOUND);
+        assertThat(trie.slotOf("", 0, 0)).isEqualTo(OptionTrie.NOT_FOUND);
+    }
+
+    @Test
+    void shouldOnlyResolveTheGivenRange() {
+        assertThat(trie.resolve("--port=80", 2, 6)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResolveEveryNameOfALargeSchema() {
+        String[] names = new String[1000];
+        int[] slots = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "option-" + i;
+            slots[i] = i;
+        }
+        OptionTrie large = new OptionTrie(names, slots);
+
+        for (int i = 0; i < names.length; i++) {
+            assertThat(large.resolve(names[i], 0, names[i].length())).isEqualTo(i);
+        }
+        assertThat(large.resolve("option-99", 0, 9)).describedAs("Exact match").isEqualTo(99);
+        assertThat(large.resolve("option-100", 0, 10)).describedAs("Exact match").isEqualTo(100);
+        assertThat(large.resolve("option-5", 0, 8)).describedAs("Prefix of option-5x").isEqualTo(5);
+        assertThat(large.resolve("option-", 0, 7)).isEqualTo(OptionTrie.AMBIGUOUS);
+    }
+
+    private int resolve(String name) {
+        return trie.resolve(name, 0, name.length());
+    }
+}
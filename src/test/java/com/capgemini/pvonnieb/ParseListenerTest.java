@@ -0,0 +1,81 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParseListenerTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    private final ParseListener recorder = new ParseListener() {
+        @Override
+        public void schemaCompiled(ArgsSchema schema, boolean cached, long durationNanos) {
+            events.add("compiled " + schema + (cached ? " from cache" : ""));
+        }
+
+        @Override
+        public void schemaRejected(String schema, ArgsException error) {
+            events.add("rejected " + schema + " " + error.getErrorCode());
+        }
+
+        @Override
+        public void argumentSet(String argumentName) {
+            events.add("set " + argumentName);
+        }
+
+        @Override
+        public void errorFound(ArgsError error) {
+            events.add("error " + error.getErrorCode());
+        }
+
+        @Override
+        public void parseCompleted(ArgsSchema schema, boolean valid, long durationNanos) {
+            events.add(valid ? "valid" : "invalid");
+        }
+    };
+
+    @AfterEach
+    void uninstallListener() {
+        ParseListener.install(ParseListener.NONE);
+    }
+
+    @Test
+    void listenerShouldObserveCompileAndParse() throws ArgsException {
+        ParseListener.install(recorder);
+
+        ArgsSchema.compile("l, p# ,d*");
+        ArgsSchema schema = ArgsSchema.compile("l, p# ,d*");
+        Args.tryParse(schema, new String[]{"-l", "-p", "x", "-q", "-d", "/tmp"});
+
+        assertThat(events).containsExactly("compiled l, p# ,d*", "compiled l, p# ,d* from cache",
+                "set l", "error INVALID_INTEGER", "error UNEXPECTED_ARGUMENT", "set d", "invalid");
+    }
+
+    @Test
+    void listenerShouldObserveRejectedSchemas() {
+        ParseListener.install(recorder);
+
+        assertThrows(ArgsException.class, () -> ArgsSchema.compile("l, 1"));
+
+        assertThat(events).containsExactly("rejected l, 1 INVALID_ARGUMENT_NAME");
+    }
+
+    @Test
+    void uninstalledListenerShouldNotBeCalled() throws ArgsException {
+        ParseListener.install(recorder);
+        ParseListener.install(null);
+
+        new Args("l", new String[]{"-l"});
+
+        assertThat(ParseListener.installed()).isSameAs(ParseListener.NONE);
+        assertThat(events).isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParseMetricsTest {
+
+    private final ParseMetrics metrics = new ParseMetrics();
+
+    @AfterEach
+    void uninstallMetrics() {
+        ParseListener.install(ParseListener.NONE);
+    }
+
+    @Test
+    void snapshotShouldCountParsesArgumentsAndErrors() throws ArgsException {
+        ParseListener.install(metrics);
+
+        ArgsSchema schema = ArgsSchema.compile("l, p#, d*, ü");
+        new Args(schema, new String[]{"-lü", "-p", "3002"});
+        Args.tryParse(schema, new String[]{"-l", "-p", "x", "-q"});
+        assertThrows(ArgsException.class, () -> ArgsSchema.compile("l, p~"));
+
+        Map<String, Long> snapshot = metrics.snapshot();
+        assertThat(snapshot).containsEntry("parses.count", 2L)
+                .containsEntry("parses.invalid", 1L)
+                .containsEntry("arguments.l", 2L)
+                .containsEntry("arguments.p", 1L)
+                .containsEntry("arguments.ü", 1L)
+                .containsEntry("errors.INVALID_INTEGER", 1L)
+                .containsEntry("errors.UNEXPECTED_ARGUMENT", 1L)
+                .containsEntry("errors.INVALID_FORMAT", 1L)
+                .containsEntry("errors.MISSING_STRING", 0L)
+                .containsEntry("schema.rejected", 1L)
+                .doesNotContainKey("arguments.d");
+        assertThat(snapshot.get("schema.compiles") + snapshot.get("schema.cacheHits")).isEqualTo(1L);
+        assertThat(snapshot.get("parses.nanos.p50")).isPositive()
+                .isLessThanOrEqualTo(snapshot.get("parses.nanos.p99"))
+                .isLessThanOrEqualTo(snapshot.get("parses.nanos.max"));
+    }
+
+    @Test
+    void metricsShouldNotCountWhileUninstalled() throws ArgsException {
+        new Args("l", new String[]{"-l"});
+
+        assertThat(metrics.snapshot()).containsEntry("parses.count", 0L)
+                .containsEntry("parses.nanos.p99", 0L)
+                .doesNotContainKey("arguments.l");
+    }
+}
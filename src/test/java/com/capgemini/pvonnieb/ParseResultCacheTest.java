@@ -0,0 +1,171 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParseResultCacheTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+
+    private final ParseResultCache cache = new ParseResultCache(1_000, 1_000_000);
+
+    @Test
+    void identicalArgumentsShouldShareTheirResult() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        ParseResult first = cache.tryParse(schema, new String[]{"-b", "-d", "42"});
+        ParseResult second = cache.tryParse(schema, new String[]{"-b", "-d", "42"});
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getArgs().getInt('d')).isEqualTo(42);
+        assertThat(cache.snapshot()).containsEntry("cache.hits", 1L).containsEntry("cache.misses", 1L)
+                .containsEntry("cache.entries", 1L).containsEntry("cache.weight", 6L);
+    }
+
+    @Test
+    void resultsShouldBeKeyedBySchemaAndArguments() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        ArgsSchema other = ArgsSchema.compile("b, d#");
+
+        ParseResult result = cache.tryParse(schema, new String[]{"-d", "1"});
+
+        assertThat(cache.tryParse(schema, new String[]{"-d", "2"})).isNotSameAs(result);
+        assertThat(cache.tryParse(other, new String[]{"-d", "1"})).isNotSameAs(result);
+        assertThat(cache.snapshot()).containsEntry("cache.misses", 3L);
+    }
+
+    @Test
+    void changingTheArgumentsAfterwardsShouldNotAffectTheCache() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        String[] args = {"-d", "1"};
+        ParseResult result = cache.tryParse(schema, args);
+
+        args[1] = "2";
+
+        assertThat(cache.tryParse(schema, new String[]{"-d", "1"})).isSameAs(result);
+        assertThat(cache.tryParse(schema, args).getArgs().getInt('d')).isEqualTo(2);
+    }
+
+    @Test
+    void errorsShouldBeCachedToo() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        ParseResult result = cache.tryParse(schema, new String[]{"-d", "forty-two"});
+        ArgsException e = assertThrows(ArgsException.class, () -> cache.parse(schema, new String[]{"-d", "forty-two"}));
+
+        assertThat(result.getErrors()).extracting(ArgsError::getErrorCode).containsExactly(ErrorCode.INVALID_INTEGER);
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+        assertThat(cache.snapshot()).containsEntry("cache.hits", 1L);
+    }
+
+    @Test
+    void leastRecentlyUsedResultsShouldBeEvicted() throws ArgsException {
+        ParseResultCache small = new ParseResultCache(ParseResultCache.SEGMENTS, 1_000_000);
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+
+        for (int i = 0; i < 100; i++) {
+            small.tryParse(schema, new String[]{"-d", String.valueOf(i)});
+        }
+
+        Map<String, Long> snapshot = small.snapshot();
+        assertThat(snapshot.get("cache.entries")).isLessThanOrEqualTo(ParseResultCache.SEGMENTS);
+        assertThat(snapshot.get("cache.evictions")).isEqualTo(100 - snapshot.get("cache.entries"));
+    }
+
+    @Test
+    void limitsShouldNotBeExceededWhenNotAMultipleOfTheSegments() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        for (int maximumEntries : new int[]{1, 3, 17, 100}) {
+            ParseResultCache limited = new ParseResultCache(maximumEntries, 1_000_000);
+
+            for (int i = 0; i < 1_000; i++) {
+                limited.tryParse(schema, new String[]{"-d", String.valueOf(i)});
+            }
+
+            assertThat(limited.snapshot().get("cache.entries")).describedAs("Entries of " + maximumEntries)
+                    .isBetween(1L, (long) maximumEntries);
+        }
+        ParseResultCache light = new ParseResultCache(1_000, 100);
+        for (int i = 0; i < 1_000; i++) {
+            light.tryParse(schema, new String[]{"-d", String.valueOf(i)});
+        }
+        assertThat(light.snapshot().get("cache.weight")).isBetween(1L, 100L);
+    }
+
+    @Test
+    void singleEntryCacheShouldKeepTheMostRecentResult() throws ArgsException {
+        ParseResultCache single = new ParseResultCache(1, 1_000_000);
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        single.tryParse(schema, new String[]{"-d", "1"});
+
+        ParseResult result = single.tryParse(schema, new String[]{"-d", "2"});
+
+        assertThat(single.tryParse(schema, new String[]{"-d", "2"})).isSameAs(result);
+        assertThat(single.snapshot()).containsEntry("cache.entries", 1L).containsEntry("cache.evictions", 1L);
+    }
+
+    @Test
+    void argumentsHeavierThanASegmentShouldNotBeCached() throws ArgsException {
+        ParseResultCache light = new ParseResultCache(1_000, ParseResultCache.SEGMENTS * 8);
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        String[] heavy = {"-s", "more than eight characters"};
+
+        ParseResult first = light.tryParse(schema, heavy);
+
+        assertThat(light.tryParse(schema, heavy)).isNotSameAs(first);
+        assertThat(light.snapshot()).containsEntry("cache.entries", 0L).containsEntry("cache.misses", 2L);
+    }
+
+    @Test
+    void clearShouldDropAllResults() throws ArgsException {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        ParseResult result = cache.tryParse(schema, new String[]{"-b"});
+
+        cache.clear();
+
+        assertThat(cache.tryParse(schema, new String[]{"-b"})).isNotSameAs(result);
+        assertThat(cache.snapshot()).containsEntry("cache.entries", 1L).containsEntry("cache.weight", 2L);
+    }
+
+    @Test
+    void concurrentLookupsShouldShareOneResultPerArgumentList() throws Exception {
+        ArgsSchema schema = ArgsSchema.compile(DEFAULT_SCHEMA);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<ParseResult>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<ParseResult> results = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        results.add(cache.tryParse(schema, new String[]{"-d", String.valueOf(i % 100)}));
+                    }
+                    return results;
+                }));
+            }
+            List<ParseResult> reference = futures.get(0).get();
+            for (Future<List<ParseResult>> future : futures) {
+                List<ParseResult> results = future.get();
+                for (int i = 100; i < results.size(); i++) {
+                    assertThat(results.get(i)).isSameAs(reference.get(i));
+                    assertThat(results.get(i).getArgs().getInt('d')).isEqualTo(i % 100);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(cache.snapshot()).containsEntry("cache.entries", 100L)
+                .containsEntry("cache.hits", 80_000L - cache.snapshot().get("cache.misses"));
+    }
+}
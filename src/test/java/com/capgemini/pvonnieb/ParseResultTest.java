@@ -0,0 +1,71 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParseResultTest {
+
+    public static final String DEFAULT_SCHEMA = "b, d#, s*, x##";
+
+    @Test
+    void validArgumentsShouldProduceNoErrors() throws ArgsException {
+        ParseResult result = Args.tryParse(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-b", "-d", "3"});
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getArgsOrThrow().getInt('d')).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCollectEveryError() throws ArgsException {
+        ParseResult result = Args.tryParse(ArgsSchema.compile(DEFAULT_SCHEMA),
+                new String[]{"-t", "-d", "asdf", "-x", "3.5", "-q", "-s"});
+
+        List<ArgsError> errors = result.getErrors();
+        assertThat(result.isValid()).isFalse();
+        assertThat(errors).extracting(ArgsError::getErrorCode).containsExactly(
+                ErrorCode.UNEXPECTED_ARGUMENT, ErrorCode.INVALID_INTEGER,
+                ErrorCode.UNEXPECTED_ARGUMENT, ErrorCode.MISSING_STRING);
+        assertThat(errors).extracting(ArgsError::getErrorArgumentId).containsExactly('t', 'd', 'q', 's');
+        assertThat(errors).extracting(ArgsError::getTokenIndex).containsExactly(0, 2, 5, 6);
+        assertThat(errors.get(1).getErrorParameter()).isEqualTo("asdf");
+    }
+
+    @Test
+    void argumentsWithoutErrorsShouldStillBeParsed() throws ArgsException {
+        ParseResult result = Args.tryParse(ArgsSchema.compile(DEFAULT_SCHEMA),
+                new String[]{"-d", "asdf", "-x", "3.5", "-t"});
+
+        assertThat(result.getArgs().getDouble('x')).isEqualTo(3.5);
+        assertThat(result.getArgs().isGiven('x')).isTrue();
+        assertThat(result.getArgs().isGiven('d')).describedAs("'d' had an invalid parameter.").isFalse();
+        assertThat(result.getArgs().getInt('d')).isEqualTo(0);
+    }
+
+    @Test
+    void getArgsOrThrowShouldThrowLikeTheConstructor() throws ArgsException {
+        ParseResult result = Args.tryParse(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-z", "-y", "-d", "x"});
+
+        ArgsException e = assertThrows(ArgsException.class, result::getArgsOrThrow);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+        assertThat(e.getErrorArgumentId()).isEqualTo('d');
+    }
+
+    @Test
+    void getArgsOrThrowShouldReportAllUnexpectedArgumentsAtOnce() throws ArgsException {
+        ParseResult result = Args.tryParse(ArgsSchema.compile(DEFAULT_SCHEMA), new String[]{"-z", "-by", "-z"});
+
+        ArgsException e = assertThrows(ArgsException.class, result::getArgsOrThrow);
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.UNEXPECTED_ARGUMENT);
+        assertThat(e.getErrorParameter()).isEqualTo("yz");
+    }
+}
@@ -0,0 +1,73 @@
+package com.capgemini.pvonnieb;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenizingCursorTest {
+
+    private static List<String> tokensOf(String input) {
+        CharSequenceCursor chars = new CharSequenceCursor();
+        chars.reset(input);
+        List<String> tokens = tokensOf(chars);
+
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        Utf8Cursor utf8 = new Utf8Cursor();
+        utf8.reset(ByteBuffer.wrap(bytes), 0, bytes.length);
+        assertThat(tokensOf(utf8)).describedAs("UTF-8 input should split the same way").isEqualTo(tokens);
+        return tokens;
+    }
+
+    private static List<String> tokensOf(TokenizingCursor cursor) {
+        List<String> tokens = new ArrayList<>();
+        while (cursor.hasNext()) {
+            tokens.add(tokens.size() % 2 == 0 ? cursor.nextArgument().toString() : cursor.next());
+        }
+        return tokens;
+    }
+
+    @Test
+    void shouldSplitOnWhitespace() {
+        assertThat(tokensOf("  -l\t-p 3002 \r\n -d /var/tmp/  ")).containsExactly("-l", "-p", "3002", "-d", "/var/tmp/");
+    }
+
+    @Test
+    void shouldHonourQuotes() {
+        assertThat(tokensOf("-s 'a \"b\" c' -t \"d 'e' f\" '' x\"y z\"")).containsExactly(
+                "-s", "a \"b\" c", "-t", "d 'e' f", "", "xy z");
+    }
+
+    @Test
+    void shouldHonourEscapes() {
+        assertThat(tokensOf("a\\ b \"c\\\"d\\\\e\\n\" 'f\\g' h\\")).containsExactly(
+                "a b", "c\"d\\e\\n", "f\\g", "h\\");
+    }
+
+    @Test
+    void unterminatedQuoteShouldEndWithInput() {
+        assertThat(tokensOf("-s 'open quote")).containsExactly("-s", "open quote");
+    }
+
+    @Test
+    void shouldDecodeMultiByteCharacters() {
+        assertThat(tokensOf("-s straße 'Grüße ✓' 😀")).containsExactly("-s", "straße", "Grüße ✓", "😀");
+    }
+
+    @Test
+    void argumentViewShouldSurviveParameterReads() {
+        CharSequenceCursor cursor = new CharSequenceCursor();
+        cursor.reset("-sd \"quoted value\" 3");
+
+        CharSequence argument = cursor.nextArgument();
+        assertThat(cursor.next()).isEqualTo("quoted value");
+        assertThat(cursor.nextParameter().toString()).isEqualTo("3");
+
+        assertThat(argument.toString()).isEqualTo("-sd");
+        assertThat(cursor.position()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,172 @@
+package com.capgemini.pvonnieb;
+
+import com.capgemini.pvonnieb.exception.ArgsError;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValueTypesTest {
+
+    public static final String DEFAULT_SCHEMA = "n<long>, t<duration>, m<size>, l<test-level>, --timeout<duration>";
+
+    enum Level {
+        DEBUG, INFO, WARN, Info
+    }
+
+    static {
+        ValueTypes.register("test-level", ValueTypes.ofEnum(Level.class));
+    }
+
+    @Test
+    void argsShouldHoldConvertedValues() throws ArgsException {
+        Args args = new Args(DEFAULT_SCHEMA,
+                new String[]{"-n", "9000000000", "-t", "250ms", "-m", "2GiB", "-l", "warn", "--timeout=1d"});
+
+        assertThat(args.getLong('n')).isEqualTo(9_000_000_000L);
+        assertThat(args.getDuration('t')).isEqualTo(Duration.ofMillis(250));
+        assertThat(args.getLong('t')).isEqualTo(250_000_000L);
+        assertThat(args.getLong('m')).isEqualTo(2L << 30);
+        assertThat(args.getEnum('l', Level.class)).isEqualTo(Level.WARN);
+        assertThat(args.getDuration("timeout")).isEqualTo(Duration.ofDays(1));
+    }
+
+    @Test
+    void argsShouldDefaultMissingValues() throws ArgsException {
+        Args args = new Args(DEFAULT_SCHEMA, new String[0]);
+
+        assertThat(args.getLong('n')).isZero();
+        assertThat(args.getDuration('t')).isEqualTo(Duration.ZERO);
+        assertThat(args.getEnum('l', Level.class)).isNull();
+        assertThat(args.isGiven('l')).isFalse();
+        assertThat(args.getLong('x')).describedAs("Undeclared argument").isZero();
+        assertThat(args.getDuration('n')).describedAs("Argument of another type").isEqualTo(Duration.ZERO);
+        assertThat(args.getEnum('l', ErrorCode.class)).describedAs("Argument of another enum").isNull();
+    }
+
+    @Test
+    void enumShouldMatchNamesAndLowerCaseNames() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        parser.parse(new String[]{"-l", "DEBUG"});
+        assertThat(parser.getEnum('l', Level.class)).isEqualTo(Level.DEBUG);
+        parser.parse(new String[]{"-l", "debug"});
+        assertThat(parser.getEnum('l', Level.class)).isEqualTo(Level.DEBUG);
+        parser.parse(new String[]{"-l", "Info"});
+        assertThat(parser.getEnum('l', Level.class)).describedAs("A constant in lower case").isEqualTo(Level.Info);
+        parser.parse(new String[]{"-l", "info"});
+        assertThat(parser.getEnum('l', Level.class)).isEqualTo(Level.INFO);
+
+        assertThat(parser.tryParse(new String[]{"-l", "Debug"})).isFalse();
+        assertThat(parser.tryParse(new String[]{"-l", "DEBU"})).isFalse();
+        assertThat(parser.tryParse(new String[]{"-l", ""})).isFalse();
+    }
+
+    @Test
+    void invalidValuesShouldBeReportedWhileParsing() throws ArgsException {
+        ArgsParser parser = new ArgsParser(ArgsSchema.compile(DEFAULT_SCHEMA));
+
+        assertThat(parser.tryParse(new String[]{"-n", "1e3", "-t", "5", "-m", "64q", "-l", "trace", "--timeout"}))
+                .isFalse();
+        assertThat(parser.getErrors())
+                .extracting(ArgsError::getErrorCode, ArgsError::getErrorArgumentName, ArgsError::getErrorParameter)
+                .containsExactly(tuple(ErrorCode.INVALID_VALUE, "n", "1e3"),
+                        tuple(ErrorCode.INVALID_VALUE, "t", "5"),
+                        tuple(ErrorCode.INVALID_VALUE, "m", "64q"),
+                        tuple(ErrorCode.INVALID_VALUE, "l", "trace"),
+                        tuple(ErrorCode.MISSING_VALUE, "timeout", null));
+    }
+
+    @Test
+    void durationShouldSumAmountsWithUnits() {
+        ValueConverter durations = ValueTypes.DURATION.newConverter();
+
+        assertThat(convert(durations, "1h30m")).isEqualTo(Duration.ofMinutes(90).toNanos());
+        assertThat(convert(durations, "2d")).isEqualTo(Duration.ofDays(2).toNanos());
+        assertThat(convert(durations, "1s500ms")).isEqualTo(Duration.ofMillis(1500).toNanos());
+        assertThat(convert(durations, "10us")).isEqualTo(10_000);
+        assertThat(convert(durations, "7ns")).isEqualTo(7);
+        assertThat(convert(durations, "0s")).isZero();
+        for (String invalid : new String[]{"", "5", "h", "-5s", "5sec", "1.5s", "5S", "1h30", "106752d"}) {
+            assertThat(durations.convert(invalid, 0, invalid.length())).describedAs(invalid).isFalse();
+        }
+    }
+
+    @Test
+    void sizeShouldApplyBinaryMultiples() {
+        ValueConverter sizes = ValueTypes.SIZE.newConverter();
+
+        assertThat(convert(sizes, "512")).isEqualTo(512);
+        assertThat(convert(sizes, "512b")).isEqualTo(512);
+        assertThat(convert(sizes, "64k")).isEqualTo(64 << 10);
+        assertThat(convert(sizes, "64KB")).isEqualTo(64 << 10);
+        assertThat(convert(sizes, "64KiB")).isEqualTo(64 << 10);
+        assertThat(convert(sizes, "3m")).isEqualTo(3 << 20);
+        assertThat(convert(sizes, "2T")).isEqualTo(2L << 40);
+        for (String invalid : new String[]{"", "k", "-1", "64x", "64kk", "64ki", "64KiBs", "8388608t"}) {
+            assertThat(sizes.convert(invalid, 0, invalid.length())).describedAs(invalid).isFalse();
+        }
+    }
+
+    @Test
+    void convertersShouldReadRangesOfTheirInput() {
+        ValueConverter longs = ValueTypes.LONG.newConverter();
+
+        assertThat(longs.convert("--n=-42;", 4, 7)).isTrue();
+        assertThat(longs.value()).isEqualTo(-42);
+    }
+
+    @Test
+    void registerShouldRejectMalformedAndTakenNames() {
+        ValueType other = ValueTypes.ofEnum(ErrorCode.class);
+
+        assertThrows(IllegalArgumentException.class, () -> ValueTypes.register("", other));
+        assertThrows(IllegalArgumentException.class, () -> ValueTypes.register("a>b", other));
+        assertThrows(IllegalStateException.class, () -> ValueTypes.register("duration", other));
+        ValueTypes.register("long", ValueTypes.LONG);
+    }
+
+    @Test
+    void registeringTheSameEnumAgainShouldBeAllowed() throws ArgsException {
+        ValueTypes.register("test-level", ValueTypes.ofEnum(Level.class));
+        ValueTypes.register("test-level", ValueTypes.ofEnum(Level.class));
+
+        assertThrows(IllegalStateException.class, () -> ValueTypes.register("test-level",
+                ValueTypes.ofEnum(ErrorCode.class)));
+        assertThat(new Args(DEFAULT_SCHEMA, new String[]{"-l", "info"}).getEnum('l', Level.class))
+                .isEqualTo(Level.INFO);
+    }
+
+    @Test
+    void customValueTypesShouldBeRegistrable() throws ArgsException {
+        ValueTypes.register("test-percent", () -> new ValueConverter() {
+            private final NumberParser numbers = new NumberParser();
+
+            @Override
+            public boolean convert(CharSequence chars, int from, int to) {
+                return to > from && chars.charAt(to - 1) == '%' && numbers.parseInt(chars, from, to - 1)
+                        && numbers.intValue() >= 0 && numbers.intValue() <= 100;
+            }
+
+            @Override
+            public long value() {
+                return numbers.intValue();
+            }
+        });
+
+        Args args = new Args("--load<test-percent>", new String[]{"--load", "75%"});
+
+        assertThat(args.getLong("load")).isEqualTo(75);
+        assertThrows(ArgsException.class, () -> new Args("--load<test-percent>", new String[]{"--load", "175%"}));
+    }
+
+    private static long convert(ValueConverter converter, String parameter) {
+        assertThat(converter.convert(parameter, 0, parameter.length())).describedAs(parameter).isTrue();
+        return converter.value();
+    }
+}
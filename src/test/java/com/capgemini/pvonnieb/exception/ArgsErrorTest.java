@@ -0,0 +1,25 @@
+package com.capgemini.pvonnieb.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.INVALID_DOUBLE;
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode.MISSING_STRING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArgsErrorTest {
+
+    @Test
+    void messageShouldMatchCannedExceptionMessage() {
+        ArgsError error = new ArgsError('x', "Forty two point five", INVALID_DOUBLE, 3);
+        assertThat(error.getMessage()).isEqualTo("Argument -x expects a double but was 'Forty two point five'.");
+    }
+
+    @Test
+    void toExceptionShouldCarryTheErrorDetails() {
+        ArgsException e = new ArgsError('s', null, MISSING_STRING, 1).toException();
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(MISSING_STRING);
+        assertThat(e.getErrorArgumentId()).isEqualTo('s');
+        assertThat(e.getMessage()).isEqualTo("Could not find string parameter for -s.");
+    }
+}
@@ -56,4 +56,61 @@ class ArgsExceptionTest {
         ArgsException e = new ArgsException('x', "Forty two point five", ArgsException.ErrorCode.INVALID_DOUBLE);
         assertThat(e.getMessage()).isEqualTo("Argument -x expects a double but was 'Forty two point five'.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLongOptionMessages() {
+        ArgsException invalid = new ArgsException("port", "http", INVALID_INTEGER);
+        ArgsException missing = new ArgsException("log-dir", null, MISSING_STRING);
+        ArgsException shortName = new ArgsException("x", null, MISSING_DOUBLE);
+
+        assertThat(invalid.getMessage()).isEqualTo("Argument --port expects an integer but was 'http'.");
+        assertThat(invalid.getErrorArgumentId()).isEqualTo('\0');
+        assertThat(invalid.getErrorArgumentName()).isEqualTo("port");
+        assertThat(missing.getMessage()).isEqualTo("Could not find string parameter for --log-dir.");
+        assertThat(shortName.getMessage()).isEqualTo("Could not find double parameter for -x.");
+        assertThat(shortName.getErrorArgumentId()).isEqualTo('x');
+    }
+
+    @Test
+    void testUnexpectedLongOptionMessage() {
+        ArgsException e = new ArgsException("--colour", "xy --colour", UNEXPECTED_ARGUMENT);
+        assertThat(e.getMessage()).isEqualTo("Argument(s) -xy --colour unexpected.");
+        assertThat(new ArgsException("--colour", "--colour", UNEXPECTED_ARGUMENT).getMessage())
+                .isEqualTo("Argument(s) --colour unexpected.");
+        assertThat(new ArgsException("--colour", "- --colour", UNEXPECTED_ARGUMENT).getMessage())
+                .isEqualTo("Argument(s) -- --colour unexpected.");
+    }
+
+    @Test
+    void testUnexpectedDashMessage() {
+        assertThat(new ArgsException('\0', "-", UNEXPECTED_ARGUMENT).getMessage())
+                .isEqualTo("Argument(s) -- unexpected.");
+        assertThat(new ArgsException('\0', "-x", UNEXPECTED_ARGUMENT).getMessage())
+                .isEqualTo("Argument(s) --x unexpected.");
+    }
+
+    @Test
+    void testAmbiguousArgumentMessage() {
+        ArgsException e = new ArgsException('\0', "--ver", AMBIGUOUS_ARGUMENT);
+        assertThat(e.getMessage()).isEqualTo("Argument --ver is ambiguous.");
+        assertThat(e.getErrorArgumentName()).isNull();
+    }
+
+    @Test
+    void testConstraintMessages() {
+        assertThat(new ArgsException("port", null, MISSING_REQUIRED_ARGUMENT).getMessage())
+                .isEqualTo("Argument --port is required.");
+        assertThat(new ArgsException('\0', "-l -v", EXCLUSIVE_ARGUMENTS).getMessage())
+                .isEqualTo("Arguments -l -v cannot be combined.");
+        assertThat(new ArgsException('d', "p", MISSING_DEPENDENCY).getMessage())
+                .isEqualTo("Argument -d requires -p.");
+    }
+
+    @Test
+    void testValueMessages() {
+        assertThat(new ArgsException("timeout", "5q", INVALID_VALUE).getMessage())
+                .isEqualTo("Argument --timeout has an invalid value: '5q'.");
+        assertThat(new ArgsException('t', null, MISSING_VALUE).getMessage())
+                .isEqualTo("Could not find parameter for -t.");
+    }
+}
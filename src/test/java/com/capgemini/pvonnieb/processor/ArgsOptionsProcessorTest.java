@@ -0,0 +1,173 @@
+package com.capgemini.pvonnieb.processor;
+
+import com.capgemini.pvonnieb.Args;
+import com.capgemini.pvonnieb.exception.ArgsException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.capgemini.pvonnieb.exception.ArgsException.ErrorCode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArgsOptionsProcessorTest {
+
+    private static final String[][] ARGUMENT_VECTORS = {
+            {},
+            {"-l"},
+            {"-lü", "-p", "3002", "-d", "/home/", "-v", "1.5"},
+            {"-pd", "-42", "two words", "ignored", "-v", "-1e3"},
+            {"-l", "--", "-p", "x"},
+            {"-p"},
+            {"-p", "x"},
+            {"-v", "1.5.0"},
+            {"-d"},
+            {"-v"},
+            {"-qxq", "-l", "-z"},
+            {"-q", "-p", "x"},
+            {"-p", "99999999999"},
+    };
+
+    @TempDir
+    Path generatedSources;
+
+    @Test
+    void generatedParserShouldSetFields() throws ArgsException {
+        ServerOptions options = ServerOptionsParser.parse(new String[]{"-lp", "3002", "-d", "/home/", "-v", "1.5"});
+
+        assertThat(options.logging).isTrue();
+        assertThat(options.port).isEqualTo(3002);
+        assertThat(options.directory).isEqualTo("/home/");
+        assertThat(options.version).isEqualTo(1.5);
+        assertThat(options.umlaut).isFalse();
+        assertThat(options.notAnOption).isEqualTo("untouched");
+    }
+
+    @Test
+    void optionsNotGivenShouldKeepTheirValues() throws ArgsException {
+        ServerOptions options = ServerOptionsParser.parse(new String[]{"-l"});
+
+        assertThat(options.port).isEqualTo(8080);
+        assertThat(options.directory).isEqualTo("/var/tmp/");
+    }
+
+    @Test
+    void generatedParserShouldExposeItsSchema() {
+        assertThat(ServerOptionsParser.SCHEMA).isEqualTo("l, p#, d*, v##, ü");
+        assertThat(ServerOptions_NestedParser.SCHEMA).isEqualTo("n#");
+    }
+
+    @Test
+    void nestedOptionsClassShouldGetItsOwnParser() throws ArgsException {
+        assertThat(ServerOptions_NestedParser.parse(new String[]{"-n", "7"}).number).isEqualTo(7);
+    }
+
+    @Test
+    void generatedParserShouldBehaveLikeArgs() {
+        for (String[] vector : ARGUMENT_VECTORS) {
+            Object expected = parseWithArgs(vector);
+            Object actual = parseWithGeneratedParser(vector);
+
+            assertThat(actual).describedAs(Arrays.toString(vector)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void generatedParserShouldThrowArgsExceptions() {
+        ArgsException e = assertThrows(ArgsException.class,
+                () -> ServerOptionsParser.parse(new String[]{"-p", "x"}));
+
+        assertThat(e.getErrorCode()).isEqualByComparingTo(ErrorCode.INVALID_INTEGER);
+        assertThat(e.getMessage()).isEqualTo("Argument -p expects an integer but was 'x'.");
+    }
+
+    @Test
+    void processorShouldReportInvalidOptions() {
+        List<String> errors = compile("Broken",
+                "@com.capgemini.pvonnieb.annotation.ArgsOptions class Broken {",
+                "  @com.capgemini.pvonnieb.annotation.Option('1') boolean digit;",
+                "  @com.capgemini.pvonnieb.annotation.Option('a') private int hidden;",
+                "  @com.capgemini.pvonnieb.annotation.Option('b') long unsupported;",
+                "  @com.capgemini.pvonnieb.annotation.Option('c') boolean first;",
+                "  @com.capgemini.pvonnieb.annotation.Option('c') boolean second;",
+                "  Broken(int required) {}",
+                "}");
+
+        assertThat(errors).containsExactlyInAnyOrder(
+                "Option '1' is not a letter",
+                "An @Option field must not be private, static or final",
+                "An @Option field must be a boolean, int, double or String, not long",
+                "Option 'c' is already bound to field first",
+                "An @ArgsOptions class needs a non-private constructor without parameters");
+    }
+
+    @Test
+    void processorShouldAcceptValidOptions() {
+        assertThat(compile("Valid",
+                "@com.capgemini.pvonnieb.annotation.ArgsOptions class Valid {",
+                "  @com.capgemini.pvonnieb.annotation.Option('s') String text;",
+                "}")).isEmpty();
+    }
+
+    private static Object parseWithArgs(String[] vector) {
+        try {
+            Args args = new Args(ServerOptionsParser.SCHEMA, vector);
+            return Arrays.asList(args.getBoolean('l'), args.isGiven('p') ? args.getInt('p') : 8080,
+                    args.isGiven('d') ? args.getString('d') : "/var/tmp/", args.getDouble('v'), args.getBoolean('ü'));
+        } catch (ArgsException e) {
+            return describe(e);
+        }
+    }
+
+    private static Object parseWithGeneratedParser(String[] vector) {
+        try {
+            ServerOptions options = ServerOptionsParser.parse(vector);
+            return Arrays.asList(options.logging, options.port, options.directory, options.version, options.umlaut);
+        } catch (ArgsException e) {
+            return describe(e);
+        }
+    }
+
+    private static List<Object> describe(ArgsException e) {
+        return Arrays.asList(e.getErrorCode(), e.getErrorArgumentId(), e.getErrorParameter(), e.getMessage());
+    }
+
+    /**
+     * Run the processor, and only the processor, over a single source file.
+     *
+     * @return the messages of the errors reported
+     */
+    private List<String> compile(String className, String... lines) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///" + className + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return String.join("\n", lines);
+            }
+        };
+        List<String> options = Arrays.asList("-proc:only", "-s", generatedSources.toString(),
+                "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+                Collections.singletonList(source));
+        task.setProcessors(Collections.singletonList(new ArgsOptionsProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+}
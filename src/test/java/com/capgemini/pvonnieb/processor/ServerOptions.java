@@ -0,0 +1,26 @@
+package com.capgemini.pvonnieb.processor;
+
+import com.capgemini.pvonnieb.annotation.ArgsOptions;
+import com.capgemini.pvonnieb.annotation.Option;
+
+@ArgsOptions
+class ServerOptions {
+    @Option('l')
+    boolean logging;
+    @Option('p')
+    int port = 8080;
+    @Option('d')
+    String directory = "/var/tmp/";
+    @Option('v')
+    double version;
+    @Option('ü')
+    boolean umlaut;
+
+    String notAnOption = "untouched";
+
+    @ArgsOptions
+    static class Nested {
+        @Option('n')
+        int number;
+    }
+}